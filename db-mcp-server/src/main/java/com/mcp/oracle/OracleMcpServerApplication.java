@@ -1,14 +1,28 @@
 package com.mcp.oracle;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springaicommunity.mcp.annotation.McpComplete;
+import org.springaicommunity.mcp.annotation.McpPrompt;
+import org.springaicommunity.mcp.annotation.McpResource;
 import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
 
 import com.mcp.oracle.service.OracleToolService;
 
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpSyncServer;
+
 /**
  * Oracle MCP Server Application
  * Main entry point for the Oracle MCP server application
@@ -32,4 +46,32 @@ public class OracleMcpServerApplication {
         return MethodToolCallbackProvider.builder().toolObjects(oracleToolService).build();
     }
 
+    private static final List<Class<? extends Annotation>> ENDPOINT_ANNOTATIONS =
+            List.of(Tool.class, McpResource.class, McpPrompt.class, McpComplete.class);
+    private static final List<Class<?>> EAGER_TYPES =
+            List.of(McpSyncServer.class, McpAsyncServer.class, ToolCallbackProvider.class);
+
+    /**
+     * With spring.main.lazy-initialization (the "fast" profile), the MCP server and the beans that expose
+     * tools, resources, prompts or completions stay eager, since the server registers them while they are created
+     * 
+     * @return filter excluding MCP beans from lazy initialization
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter mcpEndpointBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType)) || hasEndpointMethods(beanType));
+    }
+
+    private static boolean hasEndpointMethods(Class<?> beanType) {
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType, ReflectionUtils.USER_DECLARED_METHODS)) {
+            for (Class<? extends Annotation> annotation : ENDPOINT_ANNOTATIONS) {
+                if (AnnotatedElementUtils.hasAnnotation(method, annotation)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
 }
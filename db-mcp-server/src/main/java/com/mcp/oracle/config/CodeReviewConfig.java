@@ -0,0 +1,54 @@
+package com.mcp.oracle.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Configuration for the java_code_review prompt
+ * 
+ */
+@Configuration
+@ConfigurationProperties(prefix = "code-review")
+@Data
+public class CodeReviewConfig {
+
+    /**
+     * Root directory of the source tree offered for review; empty disables file completion
+     */
+    private String sourceRoot;
+
+    /**
+     * File extensions (without the dot) that are indexed for completion
+     */
+    private List<String> fileExtensions = new ArrayList<>(List.of("java"));
+
+    /**
+     * Directory names that are never indexed
+     */
+    private List<String> excludedDirectories = new ArrayList<>(List.of(".git", ".idea", "target", "build", "node_modules"));
+
+    /**
+     * Maximum number of completion values returned for a prefix
+     */
+    private int maxCompletions = 20;
+
+    /**
+     * Approximate token budget per embedded file chunk (estimated at four characters per token)
+     */
+    private int maxChunkTokens = 2000;
+
+    /**
+     * Files larger than this are not embedded; the prompt falls back to referencing the file name
+     */
+    private long maxFileBytes = 2 * 1024 * 1024;
+
+    /**
+     * Number of chunked files kept in the content-hash cache
+     */
+    private int cacheEntries = 256;
+}
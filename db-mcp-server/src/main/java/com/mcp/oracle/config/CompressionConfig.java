@@ -0,0 +1,49 @@
+package com.mcp.oracle.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Response compression for the MCP endpoint
+ *
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mcp.compression")
+@Data
+public class CompressionConfig {
+
+    /**
+     * Whether responses are gzip-compressed for clients that accept it
+     */
+    private boolean enabled = true;
+
+    /**
+     * Responses are compressed only once they grow beyond this many bytes; smaller ones are sent as they are
+     */
+    private int minResponseBytes = 2048;
+
+    /**
+     * Deflate level, 1 (fastest) to 9 (smallest)
+     */
+    private int level = 6;
+
+    /**
+     * Request paths whose responses may be compressed
+     */
+    private List<String> paths = new ArrayList<>(List.of("/mcp"));
+
+    /**
+     * Content types that are compressed
+     */
+    private List<String> mimeTypes = new ArrayList<>(List.of("application/json", "text/event-stream", "text/plain"));
+
+    /**
+     * Idle compressors (deflater and buffers) kept for reuse
+     */
+    private int poolSize = 32;
+}
@@ -1,5 +1,10 @@
 package com.mcp.oracle.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import lombok.Data;
@@ -28,6 +33,56 @@ public class OracleToolConfig {
      */
     private String password;
     
+    /**
+     * Read-only endpoints (e.g. Active Data Guard standbys) used for queries and read-only tools
+     */
+    private List<ReadEndpoint> readEndpoints = new ArrayList<>();
+    
+    /**
+     * Seconds between health checks of the read endpoints
+     */
+    private long readHealthCheckIntervalSeconds = 15;
+    
+    /**
+     * Seconds a read endpoint may take to accept a connection and log in before it is treated as down
+     */
+    private long readConnectTimeoutSeconds = 5;
+    
+    /**
+     * Whether the JDBC driver and a first primary connection are initialized in the background once the server is up
+     */
+    private boolean warmUpOnStart = false;
+    
+    /**
+     * Named tenant datasources, each served by its own lazily created connection pool
+     */
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
+    
+    /**
+     * Pool settings shared by all tenant datasources
+     */
+    private TenantPool tenantPool = new TenantPool();
+    
+    /**
+     * Target bytes per fetch round trip; the fetch size is derived from the estimated row width
+     */
+    private long fetchBufferBytes = 2L * 1024 * 1024;
+    
+    /**
+     * Schema snapshot settings
+     */
+    private SchemaSnapshot schemaSnapshot = new SchemaSnapshot();
+    
+    /**
+     * Pre-execution guard for execute_sql
+     */
+    private QueryGuard queryGuard = new QueryGuard();
+    
+    /**
+     * Spool settings for export_sql
+     */
+    private Export export = new Export();
+    
     public String getConnectionString() {
         return connectionString;
     }
@@ -39,4 +94,198 @@ public class OracleToolConfig {
     public String getPassword() {
         return password;
     }
-} 
\ No newline at end of file
+
+    /**
+     * A read-only endpoint; username and password default to the primary's
+     */
+    @Data
+    public static class ReadEndpoint {
+
+        /**
+         * Connection string of the read endpoint
+         */
+        private String connectionString;
+
+        /**
+         * Username, when different from the primary
+         */
+        private String username;
+
+        /**
+         * Password, when different from the primary
+         */
+        private String password;
+    }
+
+    /**
+     * A named datasource, typically one Oracle schema; tools select it with their tenant parameter
+     */
+    @Data
+    public static class Tenant {
+
+        /**
+         * Connection string of the tenant database
+         */
+        private String connectionString;
+
+        /**
+         * Oracle database username
+         */
+        private String username;
+
+        /**
+         * Oracle database password
+         */
+        private String password;
+
+        /**
+         * Upper bound on open connections for this tenant
+         */
+        private int maxPoolSize = 4;
+    }
+
+    /**
+     * Pool settings for tenant datasources
+     */
+    @Data
+    public static class TenantPool {
+
+        /**
+         * Seconds an unused connection stays open; pools keep no minimum, so idle tenants drop to zero connections
+         */
+        private long idleTimeoutSeconds = 120;
+
+        /**
+         * Minutes without use after which a tenant's pool is closed entirely; it is reopened on the next call
+         */
+        private long closeAfterIdleMinutes = 15;
+
+        /**
+         * Seconds a caller waits for a connection before the call fails
+         */
+        private long connectionTimeoutSeconds = 30;
+    }
+
+    /**
+     * Settings for the local schema snapshot used to answer list_tables and describe_table
+     */
+    @Data
+    public static class SchemaSnapshot {
+
+        /**
+         * Whether the snapshot is loaded, validated and refreshed
+         */
+        private boolean enabled = true;
+
+        /**
+         * Snapshot file location; when blank, a file in java.io.tmpdir named after a hash of the connection
+         * string and username, so instances on different databases or schemas never share a file
+         */
+        private String path = "";
+
+        /**
+         * Seconds between DDL-time checks of the snapshot against the database
+         */
+        private long checkIntervalSeconds = 300;
+    }
+
+    /**
+     * Settings for export_sql spool files
+     */
+    @Data
+    public static class Export {
+
+        /**
+         * Directory holding spool files; cleared at startup
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/oracle-mcp-export";
+
+        /**
+         * Minutes an export stays readable before its spool file is deleted
+         */
+        private long ttlMinutes = 60;
+
+        /**
+         * Upper bound on the total size of all spool files
+         */
+        private long maxDiskBytes = 10L * 1024 * 1024 * 1024;
+
+        /**
+         * Uncompressed size at which a chunk is closed; each chunk is one readable range
+         */
+        private int chunkBytes = 1024 * 1024;
+    }
+
+    /**
+     * Settings for the execute_sql cost guard
+     */
+    @Data
+    public static class QueryGuard {
+
+        /**
+         * What to do with a query whose estimate exceeds a threshold
+         */
+        public enum Action {
+            /** refuse to run the query */
+            REJECT,
+            /** run it only when the caller passes confirm=true */
+            CONFIRM,
+            /** run it with a row limit */
+            LIMIT
+        }
+
+        /**
+         * What to do with a query whose plan cannot be estimated
+         */
+        public enum ExplainFailure {
+            /** run it unchecked, with a note in the result */
+            ALLOW,
+            /** refuse to run the query */
+            REJECT,
+            /** run it only when the caller passes confirm=true */
+            CONFIRM,
+            /** run it with a row limit */
+            LIMIT
+        }
+
+        /**
+         * Whether queries are checked with EXPLAIN PLAN before they run
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum optimizer cost allowed without intervention; 0 disables the cost check
+         */
+        private long maxCost = 100_000;
+
+        /**
+         * Maximum estimated row count allowed without intervention; 0 disables the cardinality check
+         */
+        private long maxCardinality = 100_000;
+
+        /**
+         * Action taken when a threshold is exceeded
+         */
+        private Action action = Action.CONFIRM;
+
+        /**
+         * Action taken when EXPLAIN PLAN fails; null applies the configured action
+         */
+        private ExplainFailure onExplainFailure;
+
+        /**
+         * Row limit applied by the LIMIT action
+         */
+        private int limitRows = 1000;
+
+        /**
+         * Number of statement shapes and plan estimates kept in memory
+         */
+        private int cacheEntries = 512;
+
+        /**
+         * Seconds a plan estimate is reused for the same statement text
+         */
+        private long estimateTtlSeconds = 300;
+    }
+}
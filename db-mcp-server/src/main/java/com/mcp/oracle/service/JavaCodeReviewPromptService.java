@@ -1,24 +1,43 @@
 package com.mcp.oracle.service;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springaicommunity.mcp.annotation.McpArg;
 import org.springaicommunity.mcp.annotation.McpComplete;
 import org.springaicommunity.mcp.annotation.McpPrompt;
 import org.springframework.stereotype.Service;
 
+import com.mcp.oracle.service.SourceContentService.SourceChunk;
+
 import io.modelcontextprotocol.spec.McpSchema.PromptMessage;
 import io.modelcontextprotocol.spec.McpSchema.Role;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
 
 /**
  * MCP prompt provider for Java/Spring Boot code reviews.
+ * When the file is found under code-review.source-root its content is embedded in the prompt,
+ * one message per chunk; otherwise the prompt references the file by name.
  */
 @Service
 public class JavaCodeReviewPromptService {
 
+    private static final Logger log = LoggerFactory.getLogger(JavaCodeReviewPromptService.class);
+
+    private final SourceFileIndexService sourceFileIndexService;
+    private final SourceContentService sourceContentService;
+
+    public JavaCodeReviewPromptService(SourceFileIndexService sourceFileIndexService,
+            SourceContentService sourceContentService) {
+        this.sourceFileIndexService = sourceFileIndexService;
+        this.sourceContentService = sourceContentService;
+    }
+
     @McpPrompt(
             name = "java_code_review",
             title = "Back standard Java Review",
@@ -27,26 +46,60 @@ public class JavaCodeReviewPromptService {
             @McpArg(name = "file name") String fileName
     ) {
 
+        List<SourceChunk> chunks = loadChunks(fileName);
+        String fileReference = chunks == null
+                ? "@" + fileName
+                : fileName + " (content follows in " + chunks.size() + " part" + (chunks.size() == 1 ? "" : "s") + ")";
+
         String userContent = """
-                You are an experience Java backend developer with strong Spring Boot & Oracle DB experience. You are asked to review the following file: 
-                @%s
+                You are an experience Java backend developer with strong Spring Boot & Oracle DB experience. You are asked to review the following file:
+                %s
                 Respond with:
                 1) Make sure there is no logic error.
-                2) Check for any issues with leaking resources. 
+                2) Check for any issues with leaking resources.
                 3) Check if the code is well-formatted with proper tab/identation.
                 4) If no issues are found, state "No issues found" and note residual risks.
-                """.formatted(fileName);
+                """.formatted(fileReference);
 
 
         List<PromptMessage> messages = new ArrayList<>();
         messages.add(new PromptMessage(Role.USER, new TextContent(userContent)));
+        if (chunks != null) {
+            for (int i = 0; i < chunks.size(); i++) {
+                SourceChunk chunk = chunks.get(i);
+                String part = "File %s, part %d/%d, lines %d-%d:\n```java\n%s```"
+                        .formatted(fileName, i + 1, chunks.size(), chunk.startLine(), chunk.endLine(), chunk.text());
+                messages.add(new PromptMessage(Role.USER, new TextContent(part)));
+            }
+        }
         return new McpSchema.GetPromptResult(
                 "Java Code Review Prompt", messages);
     }
 
     @McpComplete(prompt = "java_code_review")
     public List<String> completeFileName(String prefix) {
-        // no suggestions for now
-        return List.of();   // <- best option
+        // served from the in-memory index; empty until code-review.source-root is configured and scanned
+        return sourceFileIndexService.complete(prefix);
+    }
+
+    private List<SourceChunk> loadChunks(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return null;
+        }
+        String relative = fileName.trim();
+        if (relative.startsWith("@")) {
+            relative = relative.substring(1);
+        }
+
+        Path file = sourceFileIndexService.resolve(relative);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return sourceContentService.load(file);
+        } catch (Exception e) {
+            log.warn("Failed to embed {}: {}", file, e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,85 @@
+package com.mcp.oracle.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-response string table for retrieve_log.
+ * Values are interned while records are read, so repeated ENTRY templates and context strings share one
+ * instance, and values seen more than once can be written once into a response dictionary and referenced
+ * by index. Not thread-safe; one instance serves one response.
+ *
+ */
+public final class LogStringDictionary {
+
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final List<Slot> order = new ArrayList<>();
+    private List<String> values;
+
+    private static final class Slot {
+        final String value;
+        int count;
+        int index = -1;
+
+        Slot(String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Return the shared instance for a value and count the occurrence
+     *
+     * @param value string read from a record, may be null
+     * @return the canonical instance, or null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        Slot slot = slots.get(value);
+        if (slot == null) {
+            slot = new Slot(value);
+            slots.put(value, slot);
+            order.add(slot);
+        }
+        slot.count++;
+        return slot.value;
+    }
+
+    /**
+     * Dictionary entries: the values that occurred more than once, in first-seen order.
+     * Indexes are assigned on the first call; later interning does not change them.
+     *
+     * @return dictionary values
+     */
+    public List<String> values() {
+        if (values == null) {
+            List<String> assigned = new ArrayList<>();
+            for (Slot slot : order) {
+                if (slot.count > 1) {
+                    slot.index = assigned.size();
+                    assigned.add(slot.value);
+                }
+            }
+            values = assigned;
+        }
+        return values;
+    }
+
+    /**
+     * Dictionary index of a value
+     *
+     * @param value string to look up
+     * @return index into {@link #values()}, or -1 when the value is null or occurred only once
+     */
+    public int indexOf(String value) {
+        if (value == null) {
+            return -1;
+        }
+        values();
+        Slot slot = slots.get(value);
+        return slot == null ? -1 : slot.index;
+    }
+}
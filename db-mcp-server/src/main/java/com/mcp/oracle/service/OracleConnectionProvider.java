@@ -0,0 +1,255 @@
+package com.mcp.oracle.service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.mcp.oracle.config.OracleToolConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Creates database connections from the configured connection settings.
+ * Writes always go to the primary. Reads are routed to the configured read endpoints using
+ * least-outstanding-requests balancing; endpoints that fail to connect or fail a health check
+ * are skipped until they recover, and reads fall back to the primary when no reader is healthy.
+ *
+ */
+@Component
+public class OracleConnectionProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(OracleConnectionProvider.class);
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 5;
+
+    private final OracleToolConfig oracleToolConfig;
+    private final List<Endpoint> readers = new ArrayList<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    /**
+     * Constructor for OracleConnectionProvider
+     *
+     * @param oracleToolConfig Oracle database configuration
+     */
+    public OracleConnectionProvider(OracleToolConfig oracleToolConfig) {
+        this.oracleToolConfig = oracleToolConfig;
+    }
+
+    /**
+     * Register the read endpoints and start their health checks
+     */
+    @PostConstruct
+    public void start() {
+        for (OracleToolConfig.ReadEndpoint readEndpoint : oracleToolConfig.getReadEndpoints()) {
+            if (readEndpoint.getConnectionString() == null || readEndpoint.getConnectionString().isBlank()) {
+                continue;
+            }
+            readers.add(new Endpoint(readEndpoint.getConnectionString(),
+                    readEndpoint.getUsername() != null ? readEndpoint.getUsername() : oracleToolConfig.getUsername(),
+                    readEndpoint.getPassword() != null ? readEndpoint.getPassword() : oracleToolConfig.getPassword(),
+                    TimeUnit.SECONDS.toMillis(Math.max(1, oracleToolConfig.getReadConnectTimeoutSeconds()))));
+        }
+        if (readers.isEmpty()) {
+            return;
+        }
+
+        log.info("Routing reads across {} read endpoint(s)", readers.size());
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oracle-read-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, oracleToolConfig.getReadHealthCheckIntervalSeconds());
+        healthChecker.scheduleWithFixedDelay(this::checkReaders, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the health checks
+     */
+    @PreDestroy
+    public void stop() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    /**
+     * Load the JDBC driver and open one primary connection on a background thread, so the first tool call
+     * does not pay for driver initialization. Failures are logged and otherwise ignored.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!oracleToolConfig.isWarmUpOnStart()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try (Connection connection = getConnection()) {
+                connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS);
+                log.info("Oracle connection warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Exception e) {
+                log.info("Oracle warm-up failed: {}", e.getMessage());
+            }
+        }, "oracle-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get a connection to the primary database, used for writes and anything that must see the latest data
+     *
+     * @return Connection instance
+     * @throws Exception if connection fails
+     */
+    public Connection getConnection() throws Exception {
+        return DriverManager.getConnection(oracleToolConfig.getConnectionString(),
+                oracleToolConfig.getUsername(), oracleToolConfig.getPassword());
+    }
+
+    /**
+     * Get a connection for read-only work from the healthy read endpoint with the fewest outstanding
+     * connections, falling back to the primary
+     *
+     * @return Connection instance
+     * @throws Exception if no endpoint, including the primary, accepts the connection
+     */
+    public Connection getReadConnection() throws Exception {
+        List<Endpoint> tried = new ArrayList<>();
+        Endpoint endpoint;
+        while ((endpoint = pickReader(tried)) != null) {
+            tried.add(endpoint);
+            endpoint.outstanding.incrementAndGet();
+            try {
+                return track(endpoint, endpoint.open());
+            } catch (Exception e) {
+                endpoint.outstanding.decrementAndGet();
+                markDown(endpoint, e);
+            }
+        }
+        return getConnection();
+    }
+
+    /**
+     * Number of read endpoints currently considered healthy
+     *
+     * @return healthy reader count
+     */
+    public int healthyReaderCount() {
+        int count = 0;
+        for (Endpoint endpoint : readers) {
+            if (endpoint.healthy.get()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Endpoint pickReader(List<Endpoint> excluded) {
+        int size = readers.size();
+        if (size == 0) {
+            return null;
+        }
+        // start at a rotating offset so ties are spread evenly
+        int offset = Math.floorMod(roundRobin.getAndIncrement(), size);
+        Endpoint best = null;
+        for (int i = 0; i < size; i++) {
+            Endpoint candidate = readers.get((offset + i) % size);
+            if (!candidate.healthy.get() || excluded.contains(candidate)) {
+                continue;
+            }
+            if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private Connection track(Endpoint endpoint, Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        endpoint.outstanding.decrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void checkReaders() {
+        for (Endpoint endpoint : readers) {
+            try (Connection connection = endpoint.open()) {
+                if (!connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                    throw new IllegalStateException("connection is not valid");
+                }
+                if (endpoint.healthy.compareAndSet(false, true)) {
+                    log.info("Read endpoint {} is healthy again", endpoint.url);
+                }
+            } catch (Exception e) {
+                markDown(endpoint, e);
+            }
+        }
+    }
+
+    private void markDown(Endpoint endpoint, Exception e) {
+        if (endpoint.healthy.compareAndSet(true, false)) {
+            log.warn("Read endpoint {} marked unhealthy: {}", endpoint.url, e.getMessage());
+        }
+    }
+
+    private static class Endpoint {
+        final String url;
+        final Properties properties = new Properties();
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicBoolean healthy = new AtomicBoolean(true);
+
+        Endpoint(String url, String username, String password, long connectTimeoutMillis) {
+            this.url = url;
+            if (username != null) {
+                properties.setProperty("user", username);
+            }
+            if (password != null) {
+                properties.setProperty("password", password);
+            }
+            // bound the TCP connect and the login round trips, so a standby that accepts but never answers
+            // fails over instead of hanging the caller or the health check thread
+            properties.setProperty("oracle.net.CONNECT_TIMEOUT", Long.toString(connectTimeoutMillis));
+            properties.setProperty("oracle.jdbc.ReadTimeout", Long.toString(connectTimeoutMillis));
+        }
+
+        Connection open() throws Exception {
+            Connection connection = DriverManager.getConnection(url, properties);
+            try {
+                // the read timeout is only meant for the login; queries may run as long as they need
+                connection.setNetworkTimeout(Runnable::run, 0);
+            } catch (SQLFeatureNotSupportedException e) {
+                // driver without network timeouts
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            return connection;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.mcp.oracle.service;
 
-import java.io.Reader;
-import java.sql.Clob;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -20,14 +19,15 @@ import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 
 import com.mcp.oracle.config.OracleToolConfig;
 
-import oracle.jdbc.OracleConnection;
-import oracle.jdbc.pool.OracleDataSource;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
 
 /**
  * Oracle database service implementation
@@ -37,42 +37,149 @@ import oracle.jdbc.pool.OracleDataSource;
 @Service
 public class OracleToolService {
 
+    private final OracleConnectionProvider connectionProvider;
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final ResultExportService resultExportService;
+    private final QueryGuardService queryGuardService;
     private final OracleToolConfig oracleToolConfig;
+    private final TenantDataSourceRegistry tenantRegistry;
     private static final Logger log = LoggerFactory.getLogger(OracleToolService.class);
 
     /**
      * Constructor for OracleService
      * 
-     * @param oracleToolConfig Oracle database configuration
+     * @param connectionProvider    source of Oracle database connections
+     * @param schemaSnapshotService local schema snapshot used for list_tables and describe_table
+     * @param resultExportService   spool for export_sql results
+     * @param queryGuardService     statement classification and cost guard for execute_sql
+     * @param oracleToolConfig      Oracle database configuration
+     * @param tenantRegistry        pooled datasources for named tenants
      */
-    public OracleToolService(OracleToolConfig oracleToolConfig) {
+    public OracleToolService(OracleConnectionProvider connectionProvider, SchemaSnapshotService schemaSnapshotService,
+            ResultExportService resultExportService, QueryGuardService queryGuardService, OracleToolConfig oracleToolConfig,
+            TenantDataSourceRegistry tenantRegistry) {
+        this.connectionProvider = connectionProvider;
         this.oracleToolConfig = oracleToolConfig;
+        this.tenantRegistry = tenantRegistry;
+        this.schemaSnapshotService = schemaSnapshotService;
+        this.resultExportService = resultExportService;
+        this.queryGuardService = queryGuardService;
     }
 
     /**
-     * Get Oracle database connection
+     * Get a connection to the primary Oracle database, or to a tenant's pool
      * 
-     * @return OracleConnection instance
+     * @param tenant tenant name, or null for the default database
+     * @return Connection instance
      * @throws Exception if connection fails
      */
-    private OracleConnection getConnection() throws Exception {
-        OracleDataSource ds = new OracleDataSource();
-        ds.setURL(oracleToolConfig.getConnectionString());
-        ds.setUser(oracleToolConfig.getUsername());
-        ds.setPassword(oracleToolConfig.getPassword());
-        return (OracleConnection) ds.getConnection();
+    private Connection getConnection(String tenant) throws Exception {
+        return tenant == null ? connectionProvider.getConnection() : tenantRegistry.getConnection(tenant);
+    }
+
+    /**
+     * Get a connection for read-only work. For the default database reads are routed to a read endpoint
+     * when one is configured; tenants read from their own pool.
+     * 
+     * @param tenant tenant name, or null for the default database
+     * @return Connection instance
+     * @throws Exception if connection fails
+     */
+    private Connection getReadConnection(String tenant) throws Exception {
+        return tenant == null ? connectionProvider.getReadConnection() : tenantRegistry.getConnection(tenant);
+    }
+
+    /**
+     * Pick the tenant for a tool call: the explicit parameter, else the tenant bound to the MCP session
+     * 
+     * @param tenant      tenant parameter, may be blank
+     * @param toolContext tool context carrying the MCP exchange, may be null
+     * @return tenant name, or null for the default database
+     */
+    private String resolveTenant(String tenant, ToolContext toolContext) {
+        if (tenant != null && !tenant.isBlank()) {
+            return tenant.trim();
+        }
+        return tenantRegistry.boundTenant(sessionId(toolContext));
+    }
+
+    private String sessionId(ToolContext toolContext) {
+        if (toolContext == null) {
+            return null;
+        }
+        return McpToolUtils.getMcpExchange(toolContext).map(McpSyncServerExchange::sessionId).orElse(null);
+    }
+
+    private String unknownTenantError(String tenant) {
+        if (tenant == null || tenantRegistry.tenantNames().contains(tenant)) {
+            return null;
+        }
+        return "Error: Unknown tenant '" + tenant + "'. Configured tenants: " + tenantRegistry.tenantNames();
+    }
+
+    /**
+     * Bind the calling MCP session to a tenant, so later tool calls without a tenant parameter use it
+     *
+     * @param tenant      tenant name; blank returns the session to the default database
+     * @param toolContext tool context carrying the MCP exchange
+     * @return JSON describing the binding and the configured tenants
+     */
+    @Tool(name = "use_tenant", description = "Select the tenant datasource used by later calls in this session; "
+            + "blank selects the default database")
+    public String useTenant(
+            @ToolParam(description = "Tenant name; blank for the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        log.info("use_tenant tool invoked with tenant='{}'", abbreviateForLog(tenant));
+        String sessionId = sessionId(toolContext);
+        if (sessionId == null) {
+            return "Error: use_tenant needs an MCP session; pass the tenant parameter to each tool instead.";
+        }
+        String selected = tenant == null || tenant.isBlank() ? null : tenant.trim();
+        String error = unknownTenantError(selected);
+        if (error != null) {
+            return error;
+        }
+        tenantRegistry.bindSession(sessionId, selected);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"tenant\":").append(selected == null ? "null" : "\"" + jsonEscape(selected) + "\"");
+        json.append(",\"tenants\":[");
+        int i = 0;
+        for (String name : tenantRegistry.tenantNames()) {
+            if (i++ > 0) {
+                json.append(",");
+            }
+            json.append("\"").append(jsonEscape(name)).append("\"");
+        }
+        json.append("]}");
+        return json.toString();
     }
 
     /**
      * Get a list of all tables in Oracle database.
      * Returns pretty-printed JSON containing the table count and table names.
      *
+     * @param tenant      tenant datasource, optional
+     * @param toolContext tool context carrying the MCP exchange
      * @return JSON string describing available tables
      */
     @Tool(name = "list_tables", description = "Get a list of all tables in CPP database")
-    public String listTables() {
-        log.info("list_tables tool invoked");
-        try (OracleConnection conn = getConnection();
+    public String listTables(
+            @ToolParam(description = "Tenant datasource; defaults to the tenant bound with use_tenant, else the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        String resolved = resolveTenant(tenant, toolContext);
+        log.info("list_tables tool invoked for tenant={}", resolved);
+        String tenantError = unknownTenantError(resolved);
+        if (tenantError != null) {
+            return tenantError;
+        }
+        // the schema snapshot covers the default database only
+        List<String> snapshotTables = resolved == null ? schemaSnapshotService.tableNames() : null;
+        if (snapshotTables != null) {
+            return formatTableListJson(snapshotTables);
+        }
+
+        try (Connection conn = getReadConnection(resolved);
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery("SELECT table_name FROM user_tables ORDER BY table_name")) {
 
@@ -81,57 +188,65 @@ public class OracleToolService {
                 tables.add(rs.getString(1));
             }
 
-            StringBuilder json = new StringBuilder();
-            json.append("{\n");
-            json.append("  \"tableCount\": ").append(tables.size()).append(",\n");
-            json.append("  \"tables\": [\n");
-
-            for (int i = 0; i < tables.size(); i++) {
-                String tableName = tables.get(i);
-                json.append("    ");
-                if (tableName == null) {
-                    json.append("null");
-                } else {
-                    String safeName = tableName.trim();
-                    if (safeName.isEmpty()) {
-                        safeName = "(unnamed table)";
-                    }
-                    json.append("\"").append(jsonEscape(safeName)).append("\"");
-                }
-
-                if (i < tables.size() - 1) {
-                    json.append(",");
-                }
-                json.append("\n");
-            }
-
-            json.append("  ]\n");
-            json.append("}");
-
-            return json.toString();
+            return formatTableListJson(tables);
         } catch (Exception e) {
             return "Error: " + e.getMessage();
         }
     }
 
+    /**
+     * Get a list of all tables in the default database
+     *
+     * @return JSON string describing available tables
+     */
+    public String listTables() {
+        return listTables(null, null);
+    }
+
     /**
      * Get structure information of specified table in Oracle database.
      * Returns pretty-printed JSON describing each column and primary key metadata.
      *
-     * @param tableName name of the table to describe
+     * @param tableName   name of the table to describe
+     * @param tenant      tenant datasource, optional
+     * @param toolContext tool context carrying the MCP exchange
      * @return JSON string containing column metadata
      */
     @Tool(name = "describe_table", description = "Get structure information of specified table in Oracle database")
-    public String describeTable(@ToolParam(description = "Table name to describe") String tableName) {
-        log.info("describe_table tool invoked for tableName='{}'", abbreviateForLog(tableName));
+    public String describeTable(
+            @ToolParam(description = "Table name to describe") String tableName,
+            @ToolParam(description = "Tenant datasource; defaults to the tenant bound with use_tenant, else the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        String resolved = resolveTenant(tenant, toolContext);
+        log.info("describe_table tool invoked for tableName='{}', tenant={}", abbreviateForLog(tableName), resolved);
         if (tableName == null || tableName.trim().isEmpty()) {
             return "Error: table name is required.";
         }
+        String tenantError = unknownTenantError(resolved);
+        if (tenantError != null) {
+            return tenantError;
+        }
 
         String trimmedTable = tableName.trim();
         String upperTable = trimmedTable.toUpperCase();
 
-        try (OracleConnection conn = getConnection()) {
+        SchemaSnapshotService.TableSnapshot snapshotTable = resolved == null ? schemaSnapshotService.table(upperTable) : null;
+        if (snapshotTable != null) {
+            List<ColumnDetail> columns = new ArrayList<>();
+            Set<String> pkColumns = new HashSet<>(snapshotTable.primaryKeyColumns());
+            for (SchemaSnapshotService.ColumnSnapshot column : snapshotTable.columns()) {
+                ColumnDetail detail = new ColumnDetail();
+                detail.name = column.name();
+                detail.dataType = column.dataType();
+                detail.nullable = column.nullable();
+                detail.dataLength = column.dataLength();
+                detail.primaryKey = pkColumns.contains(column.name());
+                columns.add(detail);
+            }
+            return formatTableJson(trimmedTable, upperTable, snapshotTable.primaryKeyColumns(), columns);
+        }
+
+        try (Connection conn = getReadConnection(resolved)) {
             List<String> pkColumnOrder = new ArrayList<>();
             Set<String> pkColumns = new HashSet<>();
 
@@ -178,97 +293,88 @@ public class OracleToolService {
                 }
             }
 
-            StringBuilder json = new StringBuilder();
-            json.append("{\n");
-            json.append("  \"table\": \"").append(jsonEscape(trimmedTable)).append("\",\n");
-            json.append("  \"tableUpper\": \"").append(jsonEscape(upperTable)).append("\",\n");
-            json.append("  \"found\": ").append(columns.isEmpty() ? "false" : "true").append(",\n");
-            json.append("  \"primaryKeyColumns\": [\n");
-
-            for (int i = 0; i < pkColumnOrder.size(); i++) {
-                String pk = pkColumnOrder.get(i);
-                json.append("    \"").append(jsonEscape(pk)).append("\"");
-                if (i < pkColumnOrder.size() - 1) {
-                    json.append(",");
-                }
-                json.append("\n");
-            }
-
-            json.append("  ],\n");
-            json.append("  \"columnCount\": ").append(columns.size()).append(",\n");
-            json.append("  \"columns\": [\n");
-
-            for (int i = 0; i < columns.size(); i++) {
-                ColumnDetail detail = columns.get(i);
-                json.append("    {\n");
-                json.append("      \"name\": ").append(detail.name == null ? "null" : "\"" + jsonEscape(detail.name) + "\"").append(",\n");
-                json.append("      \"dataType\": ").append(detail.dataType == null ? "null" : "\"" + jsonEscape(detail.dataType) + "\"").append(",\n");
-                json.append("      \"nullable\": ").append(detail.nullable ? "true" : "false").append(",\n");
-                json.append("      \"dataLength\": ").append(detail.dataLength == null ? "null" : detail.dataLength.toString()).append(",\n");
-                json.append("      \"primaryKey\": ").append(detail.primaryKey ? "true" : "false").append("\n");
-                json.append("    }");
-                if (i < columns.size() - 1) {
-                    json.append(",");
-                }
-                json.append("\n");
-            }
-
-            json.append("  ]\n");
-            json.append("}");
-
-            return json.toString();
+            return formatTableJson(trimmedTable, upperTable, pkColumnOrder, columns);
         } catch (Exception e) {
             return "Error: " + e.getMessage();
         }
     }
 
+    /**
+     * Get structure information of a table in the default database
+     *
+     * @param tableName name of the table to describe
+     * @return JSON string containing column metadata
+     */
+    public String describeTable(String tableName) {
+        return describeTable(tableName, null, null);
+    }
+
     /**
      * Execute Oracle SQL statement
-     * Supports both query (SELECT) and non-query (INSERT, UPDATE, DELETE)
-     * statements
+     * Supports both query (SELECT, WITH) and non-query (INSERT, UPDATE, DELETE, DDL)
+     * statements. Queries are checked by the query guard before they run.
      * 
-     * @param sql SQL statement to execute
+     * @param sql         SQL statement to execute
+     * @param confirm     whether to run a query the guard flagged as expensive
+     * @param tenant      tenant datasource, optional
+     * @param toolContext tool context carrying the MCP exchange
      * @return String containing query results or affected rows count
      */
     @Tool(name = "execute_sql", description = "Execute Oracle SQL statement")
-    public String executeSql(@ToolParam(description = "SQL statement to execute") String sql) {
-        log.info("execute_sql tool invoked with sql='{}'", abbreviateForLog(sql));
+    public String executeSql(
+            @ToolParam(description = "SQL statement to execute") String sql,
+            @ToolParam(description = "Set to true to run a query that was flagged as expensive", required = false) Boolean confirm,
+            @ToolParam(description = "Tenant datasource; defaults to the tenant bound with use_tenant, else the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        String resolved = resolveTenant(tenant, toolContext);
+        log.info("execute_sql tool invoked with sql='{}', tenant={}", abbreviateForLog(sql), resolved);
+        String tenantError = unknownTenantError(resolved);
+        if (tenantError != null) {
+            return tenantError;
+        }
         try {
-            if (sql.trim().toUpperCase().startsWith("SELECT")) {
-                try (OracleConnection conn = getConnection();
-                        Statement stmt = conn.createStatement();
-                        ResultSet rs = stmt.executeQuery(sql)) {
-
-                    StringBuilder result = new StringBuilder();
-
-                    // Add column headers
-                    int columnCount = rs.getMetaData().getColumnCount();
-                    for (int i = 1; i <= columnCount; i++) {
-                        if (i > 1)
-                            result.append(",");
-                        result.append(rs.getMetaData().getColumnName(i));
+            QueryGuardService.StatementShape shape = queryGuardService.shape(sql);
+            if (shape.isQuery()) {
+                // locking reads must run on the primary
+                try (Connection conn = shape.lockingRead() ? getConnection(resolved) : getReadConnection(resolved)) {
+                    QueryGuardService.GuardDecision decision = queryGuardService.check(conn, resolved, shape,
+                            Boolean.TRUE.equals(confirm));
+                    if (decision.outcome() == QueryGuardService.Outcome.REJECT
+                            || decision.outcome() == QueryGuardService.Outcome.CONFIRMATION_REQUIRED) {
+                        return "Error: " + decision.message();
                     }
-                    result.append("\n");
 
-                    // Add data rows
-                    while (rs.next()) {
-                        for (int i = 1; i <= columnCount; i++) {
-                            if (i > 1)
-                                result.append(",");
-                            Object value = rs.getObject(i);
-                            result.append(formatResultValue(value));
+                    try (PreparedStatement stmt = conn.prepareStatement(decision.sql())) {
+                        // size the fetch before executing, so the first round trip is not limited to the driver default
+                        ResultSetRowReader.applyFetchSize(stmt, oracleToolConfig.getFetchBufferBytes());
+                        try (ResultSet rs = stmt.executeQuery()) {
+
+                            // plan one typed extractor per column instead of inspecting each value
+                            ResultSetRowReader reader = ResultSetRowReader.plan(rs, false);
+
+                            StringBuilder result = new StringBuilder();
+                            reader.appendHeader(result);
+                            while (rs.next()) {
+                                reader.appendRow(result);
+                            }
+
+                            if (decision.message() != null) {
+                                result.append("-- ").append(decision.message()).append("\n");
+                            }
+                            return result.toString();
                         }
-                        result.append("\n");
                     }
-
-                    return result.toString();
                 }
             } else {
                 // Handle non-query statements (INSERT, UPDATE, DELETE, etc.)
-                try (OracleConnection conn = getConnection();
+                try (Connection conn = getConnection(resolved);
                         Statement stmt = conn.createStatement()) {
 
-                    int affectedRows = stmt.executeUpdate(sql);
+                    int affectedRows = stmt.executeUpdate(shape.sql());
+                    if (shape.kind() == QueryGuardService.Kind.DDL && resolved == null) {
+                        // re-check the schema snapshot without waiting for the next interval
+                        schemaSnapshotService.requestValidation();
+                    }
                     return "Success: " + affectedRows + " rows affected";
                 }
             }
@@ -277,6 +383,72 @@ public class OracleToolService {
         }
     }
 
+    /**
+     * Execute Oracle SQL statement without confirming expensive queries
+     * 
+     * @param sql SQL statement to execute
+     * @return String containing query results or affected rows count
+     */
+    public String executeSql(String sql) {
+        return executeSql(sql, null, null, null);
+    }
+
+    /**
+     * Export the result of a query to a local spool file instead of returning it inline.
+     * The rows are streamed to disk and read back through the returned resource URI, chunk by chunk.
+     *
+     * @param sql         SELECT statement to export
+     * @param compress    whether to gzip the spooled chunks (default true)
+     * @param tenant      tenant datasource, optional
+     * @param toolContext tool context carrying the MCP exchange
+     * @return JSON containing the export resource URI and its size
+     */
+    @Tool(name = "export_sql", description = "Export the result of a large SELECT to a spool file; "
+            + "returns a resource URI whose chunks can be read with resources/read")
+    public String exportSql(
+            @ToolParam(description = "SELECT statement to export") String sql,
+            @ToolParam(description = "Gzip the spooled chunks (default true)", required = false) Boolean compress,
+            @ToolParam(description = "Tenant datasource; defaults to the tenant bound with use_tenant, else the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        String resolved = resolveTenant(tenant, toolContext);
+        log.info("export_sql tool invoked with sql='{}', tenant={}", abbreviateForLog(sql), resolved);
+        String tenantError = unknownTenantError(resolved);
+        if (tenantError != null) {
+            return tenantError;
+        }
+        QueryGuardService.StatementShape shape;
+        try {
+            shape = queryGuardService.shape(sql);
+        } catch (IllegalArgumentException e) {
+            return "Error: " + e.getMessage();
+        }
+        if (!shape.isQuery() || shape.lockingRead()) {
+            return "Error: export_sql only accepts queries (SELECT or WITH) without FOR UPDATE.";
+        }
+
+        try (Connection conn = getReadConnection(resolved);
+                PreparedStatement stmt = conn.prepareStatement(shape.sql())) {
+            ResultSetRowReader.applyFetchSize(stmt, oracleToolConfig.getFetchBufferBytes());
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultExportService.ExportSummary summary = resultExportService.export(rs, compress == null || compress);
+
+                StringBuilder json = new StringBuilder();
+                json.append("{\n");
+                json.append("  \"uri\": \"export://").append(summary.id()).append("\",\n");
+                json.append("  \"chunkUriTemplate\": \"export://").append(summary.id()).append("/chunk/{index}\",\n");
+                json.append("  \"rowCount\": ").append(summary.rowCount()).append(",\n");
+                json.append("  \"chunkCount\": ").append(summary.chunkCount()).append(",\n");
+                json.append("  \"bytes\": ").append(summary.bytes()).append(",\n");
+                json.append("  \"compressed\": ").append(summary.compressed()).append(",\n");
+                json.append("  \"expiresAtIso\": \"").append(toIsoString(new Timestamp(summary.expiresAt()))).append("\"\n");
+                json.append("}");
+                return json.toString();
+            }
+        } catch (Exception e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
     /**
      * Retrieve the most recent LOG entries for a component identifier that were created before the provided timestamp.
      * Results are ordered from newest to oldest.
@@ -284,19 +456,31 @@ public class OracleToolService {
      * @param compId     component identifier to search
      * @param beforeIso  exclusive upper bound timestamp in ISO8601 format
      * @param maxRecords maximum number of records to return; negative values return all matches
+     * @param dictionary whether repeated strings are written once into a dictionary and referenced by index
+     * @param tenant      tenant datasource, optional
+     * @param toolContext tool context carrying the MCP exchange
      * @return pretty-printed JSON containing the matching log entries
      */
     @Tool(name = "retrieve_log", description = "Retrieve LOG entries before a timestamp for a component identifier")
     public String retrieveLog(
             @ToolParam(description = "Component identifier to search") String compId,
             @ToolParam(description = "Exclusive upper bound timestamp (ISO8601)") String beforeIso,
-            @ToolParam(description = "Maximum number of records to return; negative for all") int maxRecords) {
-        log.info("retrieve_log tool invoked with compId='{}', beforeIso='{}', maxRecords={}",
-                abbreviateForLog(compId), abbreviateForLog(beforeIso), maxRecords);
+            @ToolParam(description = "Maximum number of records to return; negative for all") int maxRecords,
+            @ToolParam(description = "Write repeated entry, context, compUid and category strings once into a "
+                    + "\"dictionary\" array and reference them by index (default false)", required = false) Boolean dictionary,
+            @ToolParam(description = "Tenant datasource; defaults to the tenant bound with use_tenant, else the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        String resolved = resolveTenant(tenant, toolContext);
+        log.info("retrieve_log tool invoked with compId='{}', beforeIso='{}', maxRecords={}, dictionary={}, tenant={}",
+                abbreviateForLog(compId), abbreviateForLog(beforeIso), maxRecords, dictionary, resolved);
 
         if (compId == null || compId.trim().isEmpty()) {
             return "Error: comp_id is required.";
         }
+        String tenantError = unknownTenantError(resolved);
+        if (tenantError != null) {
+            return tenantError;
+        }
 
         try {
             Timestamp before = parseIsoTimestamp(beforeIso);
@@ -309,7 +493,7 @@ public class OracleToolService {
                     ? baseSql
                     : "SELECT * FROM (" + baseSql + ") WHERE ROWNUM <= ?";
 
-            try (OracleConnection conn = getConnection();
+            try (Connection conn = getReadConnection(resolved);
                     PreparedStatement ps = conn.prepareStatement(sql)) {
 
                 ps.setString(1, compId.trim());
@@ -318,16 +502,19 @@ public class OracleToolService {
                     ps.setInt(3, maxRecords);
                 }
 
+                // repeated strings share one instance while the response is built
+                LogStringDictionary strings = new LogStringDictionary();
                 List<LogRecord> records = new ArrayList<>();
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        records.add(mapLogRecord(rs));
+                        records.add(mapLogRecord(rs, strings));
                     }
                 }
 
-                populateLogCategoryNames(conn, records);
+                populateLogCategoryNames(conn, records, strings);
 
-                return formatLogRecordsJson(compId.trim(), before, maxRecords, records);
+                return formatLogRecordsJson(compId.trim(), before, maxRecords, records,
+                        Boolean.TRUE.equals(dictionary) ? strings : null);
             }
         } catch (IllegalArgumentException | DateTimeParseException e) {
             return "Error: Invalid timestamp format - " + e.getMessage();
@@ -339,21 +526,30 @@ public class OracleToolService {
     /**
      * Summarize LOG table entries for a specific component identifier by returning the first and last rows found.
      *
-     * @param compId component identifier to summarize
+     * @param compId      component identifier to summarize
+     * @param tenant      tenant datasource, optional
+     * @param toolContext tool context carrying the MCP exchange
      * @return JSON summary containing entry counts and first/last timestamps
      */
     @Tool(name = "summarize_log", description = "Summarize LOG entries for a component identifier")
     public String summarizeLog(
-            @ToolParam(description = "Component identifier to summarize") String compId) {
-        log.info("summarize_log tool invoked with compId='{}'", abbreviateForLog(compId));
+            @ToolParam(description = "Component identifier to summarize") String compId,
+            @ToolParam(description = "Tenant datasource; defaults to the tenant bound with use_tenant, else the default database", required = false) String tenant,
+            ToolContext toolContext) {
+        String resolved = resolveTenant(tenant, toolContext);
+        log.info("summarize_log tool invoked with compId='{}', tenant={}", abbreviateForLog(compId), resolved);
 
         if (compId == null || compId.trim().isEmpty()) {
             return "Error: comp_id is required.";
         }
+        String tenantError = unknownTenantError(resolved);
+        if (tenantError != null) {
+            return tenantError;
+        }
 
         String trimmedCompId = compId.trim();
 
-        try (OracleConnection conn = getConnection()) {
+        try (Connection conn = getReadConnection(resolved)) {
             long totalEntries = fetchLogCount(conn, trimmedCompId);
             LogEntrySummary firstEntry = totalEntries > 0 ? fetchLogEntry(conn, trimmedCompId, true) : null;
             LogEntrySummary lastEntry = totalEntries > 0 ? fetchLogEntry(conn, trimmedCompId, false) : null;
@@ -372,34 +568,78 @@ public class OracleToolService {
         }
     }
 
-    private String formatResultValue(Object value) {
-        if (value == null) {
-            return "NULL";
-        }
+    private String formatTableListJson(List<String> tables) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"tableCount\": ").append(tables.size()).append(",\n");
+        json.append("  \"tables\": [\n");
+
+        for (int i = 0; i < tables.size(); i++) {
+            String tableName = tables.get(i);
+            json.append("    ");
+            if (tableName == null) {
+                json.append("null");
+            } else {
+                String safeName = tableName.trim();
+                if (safeName.isEmpty()) {
+                    safeName = "(unnamed table)";
+                }
+                json.append("\"").append(jsonEscape(safeName)).append("\"");
+            }
 
-        if (value instanceof Clob) {
-            return readClob((Clob) value);
+            if (i < tables.size() - 1) {
+                json.append(",");
+            }
+            json.append("\n");
         }
 
-        return value.toString();
+        json.append("  ]\n");
+        json.append("}");
+
+        return json.toString();
     }
 
-    private String readClob(Clob clob) {
-        if (clob == null) {
-            return "NULL";
+    private String formatTableJson(String trimmedTable, String upperTable, List<String> pkColumnOrder,
+            List<ColumnDetail> columns) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"table\": \"").append(jsonEscape(trimmedTable)).append("\",\n");
+        json.append("  \"tableUpper\": \"").append(jsonEscape(upperTable)).append("\",\n");
+        json.append("  \"found\": ").append(columns.isEmpty() ? "false" : "true").append(",\n");
+        json.append("  \"primaryKeyColumns\": [\n");
+
+        for (int i = 0; i < pkColumnOrder.size(); i++) {
+            String pk = pkColumnOrder.get(i);
+            json.append("    \"").append(jsonEscape(pk)).append("\"");
+            if (i < pkColumnOrder.size() - 1) {
+                json.append(",");
+            }
+            json.append("\n");
         }
 
-        try (Reader reader = clob.getCharacterStream()) {
-            StringBuilder builder = new StringBuilder();
-            char[] buffer = new char[2048];
-            int read;
-            while ((read = reader.read(buffer)) != -1) {
-                builder.append(buffer, 0, read);
+        json.append("  ],\n");
+        json.append("  \"columnCount\": ").append(columns.size()).append(",\n");
+        json.append("  \"columns\": [\n");
+
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDetail detail = columns.get(i);
+            json.append("    {\n");
+            json.append("      \"name\": ").append(detail.name == null ? "null" : "\"" + jsonEscape(detail.name) + "\"").append(",\n");
+            json.append("      \"dataType\": ").append(detail.dataType == null ? "null" : "\"" + jsonEscape(detail.dataType) + "\"").append(",\n");
+            json.append("      \"nullable\": ").append(detail.nullable ? "true" : "false").append(",\n");
+            json.append("      \"dataLength\": ").append(detail.dataLength == null ? "null" : detail.dataLength.toString()).append(",\n");
+            json.append("      \"primaryKey\": ").append(detail.primaryKey ? "true" : "false").append("\n");
+            json.append("    }");
+            if (i < columns.size() - 1) {
+                json.append(",");
             }
-            return builder.toString();
-        } catch (Exception e) {
-            return "<CLOB read error: " + e.getMessage() + ">";
+            json.append("\n");
         }
+
+        json.append("  ]\n");
+        json.append("}");
+
+        return json.toString();
     }
 
     private Timestamp parseIsoTimestamp(String isoTimestamp) {
@@ -418,7 +658,7 @@ public class OracleToolService {
         }
     }
 
-    private long fetchLogCount(OracleConnection conn, String compId) throws Exception {
+    private long fetchLogCount(Connection conn, String compId) throws Exception {
         try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM LOG WHERE COMP_ID = ?")) {
             ps.setString(1, compId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -430,7 +670,7 @@ public class OracleToolService {
         return 0;
     }
 
-    private LogEntrySummary fetchLogEntry(OracleConnection conn, String compId, boolean first) throws Exception {
+    private LogEntrySummary fetchLogEntry(Connection conn, String compId, boolean first) throws Exception {
         String orderClause = first ? "ASC" : "DESC";
         String sql = "SELECT ID, COMP_ID, CREATED, ENTRY FROM ("
                 + "SELECT ID, COMP_ID, CREATED, ENTRY FROM LOG WHERE COMP_ID = ? ORDER BY CREATED " + orderClause
@@ -484,26 +724,27 @@ public class OracleToolService {
         return json.toString();
     }
 
-    private LogRecord mapLogRecord(ResultSet rs) throws Exception {
+    private LogRecord mapLogRecord(ResultSet rs, LogStringDictionary strings) throws Exception {
         LogRecord record = new LogRecord();
         record.id = getNullableLong(rs, "ID");
         record.compTypeId = getNullableLong(rs, "COMP_TYPE_ID");
         record.compId = rs.getString("COMP_ID");
-        record.compUid = rs.getString("COMP_UID");
+        record.compUid = strings.intern(rs.getString("COMP_UID"));
         record.created = rs.getTimestamp("CREATED");
         record.logLevelId = getNullableLong(rs, "LOG_LEVEL_ID");
         record.logCategoryId = getNullableLong(rs, "LOG_CATEGORY_ID");
         record.logSubCategory = rs.getString("LOG_SUB_CATEGORY");
-        record.entry = rs.getString("ENTRY");
+        record.entry = strings.intern(rs.getString("ENTRY"));
         record.userDefId = getNullableLong(rs, "USER_DEF_ID");
-        record.executionContext = rs.getString("EXECUTION_CONTEXT");
+        record.executionContext = strings.intern(rs.getString("EXECUTION_CONTEXT"));
         record.logErrorCategoryId = getNullableLong(rs, "LOG_ERROR_CATEGORY_ID");
         record.logCode = getNullableLong(rs, "LOG_CODE");
-        record.apiContext = rs.getString("API_CONTEXT");
+        record.apiContext = strings.intern(rs.getString("API_CONTEXT"));
         return record;
     }
 
-    private void populateLogCategoryNames(OracleConnection conn, List<LogRecord> records) throws Exception {
+    private void populateLogCategoryNames(Connection conn, List<LogRecord> records, LogStringDictionary strings)
+            throws Exception {
         if (records.isEmpty()) {
             return;
         }
@@ -518,7 +759,7 @@ public class OracleToolService {
                 }
 
                 if (cache.containsKey(categoryId)) {
-                    record.logCategoryName = cache.get(categoryId);
+                    record.logCategoryName = strings.intern(cache.get(categoryId));
                     continue;
                 }
 
@@ -531,7 +772,7 @@ public class OracleToolService {
                 }
 
                 cache.put(categoryId, name);
-                record.logCategoryName = name;
+                record.logCategoryName = strings.intern(name);
             }
         }
     }
@@ -541,7 +782,8 @@ public class OracleToolService {
         return rs.wasNull() ? null : value;
     }
 
-    private String formatLogRecordsJson(String compId, Timestamp before, int maxRecords, List<LogRecord> records) {
+    private String formatLogRecordsJson(String compId, Timestamp before, int maxRecords, List<LogRecord> records,
+            LogStringDictionary dictionary) {
         StringBuilder json = new StringBuilder();
         json.append("{\n");
         json.append("  \"compId\": \"").append(jsonEscape(compId)).append("\",\n");
@@ -549,6 +791,18 @@ public class OracleToolService {
         json.append("  \"beforeUnixMs\": ").append(before == null ? "null" : toUnixMillis(before)).append(",\n");
         json.append("  \"maxRecords\": ").append(maxRecords).append(",\n");
         json.append("  \"returnedCount\": ").append(records.size()).append(",\n");
+        if (dictionary != null) {
+            // compUid, logCategoryName, entry, executionContext and apiContext hold an index into this array
+            // when the value repeats, and the string itself otherwise
+            json.append("  \"encoding\": \"dictionary\",\n");
+            json.append("  \"dictionary\": [");
+            List<String> values = dictionary.values();
+            for (int i = 0; i < values.size(); i++) {
+                json.append(i == 0 ? "\n" : ",\n");
+                json.append("    \"").append(jsonEscape(values.get(i))).append("\"");
+            }
+            json.append(values.isEmpty() ? "],\n" : "\n  ],\n");
+        }
         json.append("  \"records\": [\n");
 
         for (int i = 0; i < records.size(); i++) {
@@ -557,19 +811,19 @@ public class OracleToolService {
             json.append("      \"id\": ").append(record.id == null ? "null" : record.id.toString()).append(",\n");
             json.append("      \"compTypeId\": ").append(record.compTypeId == null ? "null" : record.compTypeId.toString()).append(",\n");
             json.append("      \"compId\": ").append(record.compId == null ? "null" : "\"" + jsonEscape(record.compId) + "\"").append(",\n");
-            json.append("      \"compUid\": ").append(record.compUid == null ? "null" : "\"" + jsonEscape(record.compUid) + "\"").append(",\n");
+            json.append("      \"compUid\": ").append(encodeLogString(record.compUid, dictionary)).append(",\n");
             json.append("      \"createdIso\": ").append(record.created == null ? "null" : "\"" + jsonEscape(toIsoString(record.created)) + "\"").append(",\n");
             json.append("      \"createdUnixMs\": ").append(record.created == null ? "null" : toUnixMillis(record.created)).append(",\n");
             json.append("      \"logLevelId\": ").append(record.logLevelId == null ? "null" : record.logLevelId.toString()).append(",\n");
             json.append("      \"logCategoryId\": ").append(record.logCategoryId == null ? "null" : record.logCategoryId.toString()).append(",\n");
-            json.append("      \"logCategoryName\": ").append(record.logCategoryName == null ? "null" : "\"" + jsonEscape(record.logCategoryName) + "\"").append(",\n");
+            json.append("      \"logCategoryName\": ").append(encodeLogString(record.logCategoryName, dictionary)).append(",\n");
             json.append("      \"logSubCategory\": ").append(record.logSubCategory == null ? "null" : "\"" + jsonEscape(record.logSubCategory) + "\"").append(",\n");
-            json.append("      \"entry\": ").append(record.entry == null ? "null" : "\"" + jsonEscape(record.entry) + "\"").append(",\n");
+            json.append("      \"entry\": ").append(encodeLogString(record.entry, dictionary)).append(",\n");
             json.append("      \"userDefId\": ").append(record.userDefId == null ? "null" : record.userDefId.toString()).append(",\n");
-            json.append("      \"executionContext\": ").append(record.executionContext == null ? "null" : "\"" + jsonEscape(record.executionContext) + "\"").append(",\n");
+            json.append("      \"executionContext\": ").append(encodeLogString(record.executionContext, dictionary)).append(",\n");
             json.append("      \"logErrorCategoryId\": ").append(record.logErrorCategoryId == null ? "null" : record.logErrorCategoryId.toString()).append(",\n");
             json.append("      \"logCode\": ").append(record.logCode == null ? "null" : record.logCode.toString()).append(",\n");
-            json.append("      \"apiContext\": ").append(record.apiContext == null ? "null" : "\"" + jsonEscape(record.apiContext) + "\"").append("\n");
+            json.append("      \"apiContext\": ").append(encodeLogString(record.apiContext, dictionary)).append("\n");
             json.append("    }");
             if (i < records.size() - 1) {
                 json.append(",");
@@ -583,6 +837,19 @@ public class OracleToolService {
         return json.toString();
     }
 
+    private String encodeLogString(String value, LogStringDictionary dictionary) {
+        if (value == null) {
+            return "null";
+        }
+        if (dictionary != null) {
+            int index = dictionary.indexOf(value);
+            if (index >= 0) {
+                return Integer.toString(index);
+            }
+        }
+        return "\"" + jsonEscape(value) + "\"";
+    }
+
     private String jsonEscape(String value) {
         if (value == null) {
             return "";
@@ -0,0 +1,377 @@
+package com.mcp.oracle.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.mcp.oracle.config.OracleToolConfig;
+
+/**
+ * Pre-execution guard for execute_sql.
+ * Classifies statements by their first keyword (ignoring comments, literals and leading parentheses),
+ * and checks queries against the optimizer's cost and cardinality estimate from EXPLAIN PLAN before
+ * they run. Parsed shapes and plan estimates are cached by statement text. A query whose plan cannot be
+ * estimated is handled by oracle.query-guard.on-explain-failure, defaulting to the configured action.
+ *
+ */
+@Service
+public class QueryGuardService {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryGuardService.class);
+
+    private static final Set<String> QUERY_KEYWORDS = Set.of("SELECT", "WITH");
+    private static final Set<String> DML_KEYWORDS = Set.of("INSERT", "UPDATE", "DELETE", "MERGE");
+    private static final Set<String> DDL_KEYWORDS = Set.of("CREATE", "ALTER", "DROP", "TRUNCATE", "RENAME",
+            "COMMENT", "GRANT", "REVOKE", "ANALYZE", "FLASHBACK", "PURGE");
+    private static final Set<String> PLSQL_KEYWORDS = Set.of("BEGIN", "DECLARE", "CALL", "EXEC", "EXECUTE");
+
+    private final OracleToolConfig oracleToolConfig;
+    private final Map<String, StatementShape> shapes;
+    private final Map<String, PlanEstimate> estimates;
+    private final AtomicLong statementIds = new AtomicLong();
+
+    /**
+     * Constructor for QueryGuardService
+     *
+     * @param oracleToolConfig Oracle database configuration
+     */
+    public QueryGuardService(OracleToolConfig oracleToolConfig) {
+        this.oracleToolConfig = oracleToolConfig;
+        int maxEntries = Math.max(16, oracleToolConfig.getQueryGuard().getCacheEntries());
+        this.shapes = boundedCache(maxEntries);
+        this.estimates = boundedCache(maxEntries);
+    }
+
+    /**
+     * Statement category, decided by the first keyword
+     */
+    public enum Kind {
+        QUERY, DML, DDL, PLSQL, OTHER
+    }
+
+    /**
+     * Outcome of the guard check
+     */
+    public enum Outcome {
+        ALLOW, LIMITED, CONFIRMATION_REQUIRED, REJECT
+    }
+
+    /**
+     * Parsed shape of a statement
+     *
+     * @param sql         statement text to execute (trimmed, trailing semicolons removed for SQL)
+     * @param kind        statement category
+     * @param lockingRead whether a query contains FOR UPDATE and must run on the primary
+     */
+    public record StatementShape(String sql, Kind kind, boolean lockingRead) {
+
+        public boolean isQuery() {
+            return kind == Kind.QUERY;
+        }
+    }
+
+    /**
+     * Optimizer estimate for the top row of a plan
+     *
+     * @param cost        optimizer cost
+     * @param cardinality estimated row count
+     * @param createdAt   epoch millis when the estimate was taken
+     */
+    public record PlanEstimate(long cost, long cardinality, long createdAt) {
+    }
+
+    /**
+     * Result of the guard check
+     *
+     * @param outcome what the caller should do
+     * @param sql     statement to execute (rewritten for LIMITED)
+     * @param message explanation for anything other than ALLOW, or a note when a query runs unchecked
+     */
+    public record GuardDecision(Outcome outcome, String sql, String message) {
+    }
+
+    /**
+     * Classify a statement, using the cached shape when the same text was seen before
+     *
+     * @param sql statement text
+     * @return the statement shape
+     * @throws IllegalArgumentException if the statement is empty
+     */
+    public StatementShape shape(String sql) {
+        if (sql == null || sql.isBlank()) {
+            throw new IllegalArgumentException("SQL statement is required");
+        }
+        StatementShape cached = shapes.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        StatementShape parsed = parse(sql);
+        shapes.put(sql, parsed);
+        return parsed;
+    }
+
+    /**
+     * Check a statement before execution. Only queries are checked; an EXPLAIN PLAN failure is handled
+     * by on-explain-failure.
+     *
+     * @param conn      connection the query will run on
+     * @param shape     statement shape
+     * @param confirmed whether the caller confirmed an expensive query
+     * @return the decision
+     */
+    public GuardDecision check(Connection conn, StatementShape shape, boolean confirmed) {
+        return check(conn, null, shape, confirmed);
+    }
+
+    /**
+     * Check a statement before execution against a tenant datasource. Plan estimates are cached per tenant.
+     *
+     * @param conn      connection the query will run on
+     * @param tenant    tenant name, or null for the default database
+     * @param shape     statement shape
+     * @param confirmed whether the caller confirmed an expensive query
+     * @return the decision
+     */
+    public GuardDecision check(Connection conn, String tenant, StatementShape shape, boolean confirmed) {
+        if (!oracleToolConfig.getQueryGuard().isEnabled() || !shape.isQuery()) {
+            return new GuardDecision(Outcome.ALLOW, shape.sql(), null);
+        }
+        String cacheKey = tenant == null ? shape.sql() : tenant + '\0' + shape.sql();
+        PlanEstimate estimate;
+        try {
+            estimate = estimate(conn, cacheKey, shape.sql());
+        } catch (Exception e) {
+            log.warn("EXPLAIN PLAN failed: {}", e.getMessage());
+            return unestimated(shape, confirmed, e.getMessage());
+        }
+        return evaluate(shape, estimate, confirmed);
+    }
+
+    /**
+     * Decide on a query whose plan could not be estimated, per on-explain-failure
+     *
+     * @param shape     statement shape
+     * @param confirmed whether the caller confirmed an expensive query
+     * @param error     why EXPLAIN PLAN failed
+     * @return the decision; a query allowed to run carries a note that it ran unchecked
+     */
+    public GuardDecision unestimated(StatementShape shape, boolean confirmed, String error) {
+        OracleToolConfig.QueryGuard settings = oracleToolConfig.getQueryGuard();
+        String reason = "its cost could not be estimated (EXPLAIN PLAN failed: " + error + ")";
+        OracleToolConfig.QueryGuard.ExplainFailure onFailure = settings.getOnExplainFailure();
+        GuardDecision decision = onFailure == OracleToolConfig.QueryGuard.ExplainFailure.ALLOW
+                ? new GuardDecision(Outcome.ALLOW, shape.sql(), null)
+                : intervene(onFailure == null ? settings.getAction()
+                        : OracleToolConfig.QueryGuard.Action.valueOf(onFailure.name()), shape, confirmed, reason);
+        if (decision.outcome() == Outcome.ALLOW) {
+            return new GuardDecision(Outcome.ALLOW, shape.sql(), "Query ran unchecked: " + reason + ".");
+        }
+        return decision;
+    }
+
+    /**
+     * Apply the configured thresholds to a plan estimate
+     *
+     * @param shape     statement shape
+     * @param estimate  plan estimate, or null when unavailable
+     * @param confirmed whether the caller confirmed an expensive query
+     * @return the decision
+     */
+    public GuardDecision evaluate(StatementShape shape, PlanEstimate estimate, boolean confirmed) {
+        OracleToolConfig.QueryGuard settings = oracleToolConfig.getQueryGuard();
+        if (estimate == null || !shape.isQuery()) {
+            return new GuardDecision(Outcome.ALLOW, shape.sql(), null);
+        }
+
+        boolean costExceeded = settings.getMaxCost() > 0 && estimate.cost() > settings.getMaxCost();
+        boolean rowsExceeded = settings.getMaxCardinality() > 0 && estimate.cardinality() > settings.getMaxCardinality();
+        if (!costExceeded && !rowsExceeded) {
+            return new GuardDecision(Outcome.ALLOW, shape.sql(), null);
+        }
+
+        String reason = "estimated cost " + estimate.cost() + " and " + estimate.cardinality()
+                + " rows exceed the limits (cost " + settings.getMaxCost() + ", rows " + settings.getMaxCardinality() + ")";
+        return intervene(settings.getAction(), shape, confirmed, reason);
+    }
+
+    private GuardDecision intervene(OracleToolConfig.QueryGuard.Action action, StatementShape shape,
+            boolean confirmed, String reason) {
+        OracleToolConfig.QueryGuard settings = oracleToolConfig.getQueryGuard();
+        switch (action) {
+            case CONFIRM:
+                if (confirmed) {
+                    return new GuardDecision(Outcome.ALLOW, shape.sql(), null);
+                }
+                return new GuardDecision(Outcome.CONFIRMATION_REQUIRED, shape.sql(),
+                        "Query needs confirmation: " + reason + ". Narrow the query, or re-run with confirm=true.");
+            case LIMIT:
+                if (!shape.lockingRead()) {
+                    String limited = "SELECT * FROM (" + shape.sql() + ") WHERE ROWNUM <= " + settings.getLimitRows();
+                    return new GuardDecision(Outcome.LIMITED, limited,
+                            "Result limited to " + settings.getLimitRows() + " rows: " + reason);
+                }
+                // FOR UPDATE cannot be wrapped in an inline view
+                return new GuardDecision(Outcome.REJECT, shape.sql(), "Query rejected: " + reason + ".");
+            case REJECT:
+            default:
+                return new GuardDecision(Outcome.REJECT, shape.sql(),
+                        "Query rejected: " + reason + ". Narrow the query or add a row limit.");
+        }
+    }
+
+    private PlanEstimate estimate(Connection conn, String cacheKey, String sql) throws SQLException {
+        PlanEstimate cached = estimates.get(cacheKey);
+        long ttl = TimeUnit.SECONDS.toMillis(oracleToolConfig.getQueryGuard().getEstimateTtlSeconds());
+        if (cached != null && System.currentTimeMillis() - cached.createdAt() < ttl) {
+            return cached;
+        }
+
+        String statementId = "MCP_GUARD_" + statementIds.incrementAndGet();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + sql);
+        }
+
+        PlanEstimate estimate = null;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT cost, cardinality FROM plan_table WHERE statement_id = ? AND id = 0")) {
+            ps.setString(1, statementId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    estimate = new PlanEstimate(rs.getLong(1), rs.getLong(2), System.currentTimeMillis());
+                }
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM plan_table WHERE statement_id = ?")) {
+            ps.setString(1, statementId);
+            ps.executeUpdate();
+        }
+
+        if (estimate == null) {
+            throw new SQLException("no plan row for " + statementId);
+        }
+        estimates.put(cacheKey, estimate);
+        return estimate;
+    }
+
+    /**
+     * Tokenizes just enough of the statement to find its words outside comments, string literals
+     * (including q'[...]' literals) and quoted identifiers.
+     */
+    private StatementShape parse(String sql) {
+        List<String> words = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if ((c == 'q' || c == 'Q') && i + 2 < length && sql.charAt(i + 1) == '\'') {
+                char close = closingDelimiter(sql.charAt(i + 2));
+                int end = sql.indexOf(close + "'", i + 3);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+            } else if (c == '"') {
+                int end = sql.indexOf('"', i + 1);
+                i = end < 0 ? length : end + 1;
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                        || sql.charAt(i) == '$' || sql.charAt(i) == '#')) {
+                    i++;
+                }
+                words.add(sql.substring(start, i).toUpperCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+
+        String first = words.isEmpty() ? "" : words.get(0);
+        Kind kind;
+        if (QUERY_KEYWORDS.contains(first)) {
+            kind = Kind.QUERY;
+        } else if (DML_KEYWORDS.contains(first)) {
+            kind = Kind.DML;
+        } else if (DDL_KEYWORDS.contains(first)) {
+            kind = Kind.DDL;
+        } else if (PLSQL_KEYWORDS.contains(first)) {
+            kind = Kind.PLSQL;
+        } else {
+            kind = Kind.OTHER;
+        }
+
+        boolean lockingRead = false;
+        if (kind == Kind.QUERY) {
+            for (int w = 0; w + 1 < words.size(); w++) {
+                if (words.get(w).equals("FOR") && words.get(w + 1).equals("UPDATE")) {
+                    lockingRead = true;
+                    break;
+                }
+            }
+        }
+
+        String text = sql.trim();
+        if (kind != Kind.PLSQL && kind != Kind.OTHER) {
+            // a trailing ';' is a SQL*Plus terminator, not part of the statement
+            while (text.endsWith(";")) {
+                text = text.substring(0, text.length() - 1).trim();
+            }
+        }
+        return new StatementShape(text, kind, lockingRead);
+    }
+
+    private static char closingDelimiter(char open) {
+        switch (open) {
+            case '[':
+                return ']';
+            case '{':
+                return '}';
+            case '(':
+                return ')';
+            case '<':
+                return '>';
+            default:
+                return open;
+        }
+    }
+
+    private static <V> Map<String, V> boundedCache(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
@@ -5,8 +5,16 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
@@ -22,6 +30,7 @@ import io.modelcontextprotocol.spec.McpSchema;
 
 /**
  * MCP resources for serving release notes as Markdown plus an index.
+ * Release notes are parsed once at startup into a section model; every read is served from that model.
  *
  * Example JSON-RPC flows:
  * resources/list ->
@@ -30,23 +39,63 @@ import io.modelcontextprotocol.spec.McpSchema;
  *     {"uri": "relnote://index", "name": "releaseNotesIndex", "mimeType": "application/json"}
  *   ],
  *   "resourceTemplates": [
- *     {"uriTemplate": "relnote://{version}", "name": "releaseNotesByVersion", "mimeType": "text/markdown"}
+ *     {"uriTemplate": "relnote://{version}", "name": "releaseNotesByVersion", "mimeType": "text/markdown"},
+ *     {"uriTemplate": "relnote://{version}/sections", "name": "releaseNoteSections", "mimeType": "application/json"},
+ *     {"uriTemplate": "relnote://{version}/section/{section}", "name": "releaseNoteSection", "mimeType": "text/markdown"},
+ *     {"uriTemplate": "relnote://range/{from}/{to}", "name": "releaseNotesRange", "mimeType": "text/markdown"}
  *   ]
  * }
  * resources/read relnote://index ->
- * {"versions":["2026.0.5","2026.1.1"]}
+ * {"versions":["2026.1.1","2026.0.5"]}
  * resources/read relnote://2026.0.5 ->
- * "# 2026.0.5\n- Fixed transaction retries..."
+ * "# 2026.0.5\n## Fixes\n- Fixed transaction retries..."
+ * resources/read relnote://2026.0.5/sections ->
+ * {"version":"2026.0.5","sections":[{"slug":"fixes","heading":"Fixes","items":3}]}
+ * resources/read relnote://2026.0.5/section/fixes ->
+ * "## Fixes\n- Fixed transaction retries..."
+ * resources/read relnote://range/2026.0.5/2026.1.1 ->
+ * "# Release notes 2026.0.5 - 2026.1.1\n## Fixes\n- Fixed transaction retries... (2026.0.5)"
  */
 @Service
 public class ReleaseNotesResourceService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReleaseNotesResourceService.class);
     private static final Pattern VERSION_PATTERN = Pattern.compile("^\\d{4}\\.[0-3]\\.\\d+$");
+    private static final Pattern SLUG_SEPARATOR = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
     private static final String RELEASE_NOTES_GLOB = "classpath:release-notes/*.md";
-    private static final String RELEASE_NOTES_PREFIX = "classpath:release-notes/";
+    private static final int MAX_CACHED_RANGES = 64;
 
-    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    /**
+     * Orders versions numerically (2026.0.10 sorts after 2026.0.9).
+     */
+    private static final Comparator<String> VERSION_ORDER = (left, right) -> {
+        String[] a = left.split("\\.");
+        String[] b = right.split("\\.");
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int cmp = Long.compare(Long.parseLong(a[i]), Long.parseLong(b[i]));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    };
+
+    private final ResourcePatternResolver resolver;
+    private final NavigableMap<String, ReleaseNote> releaseNotes;
+    private final String indexJson;
+    private final Map<String, String> rangeCache = new ConcurrentHashMap<>();
+
+    public ReleaseNotesResourceService() {
+        this(new PathMatchingResourcePatternResolver());
+    }
+
+    ReleaseNotesResourceService(ResourcePatternResolver resolver) {
+        this.resolver = resolver;
+        this.releaseNotes = Collections.unmodifiableNavigableMap(loadReleaseNotes());
+        this.indexJson = "{\"versions\":" + toJsonArray(new ArrayList<>(releaseNotes.descendingKeySet())) + "}";
+        logger.info("Loaded {} release note(s)", releaseNotes.size());
+    }
 
     @McpResource(
             name = "releaseNotesIndex",
@@ -55,12 +104,7 @@ public class ReleaseNotesResourceService {
             description = "Lists available release note versions",
             mimeType = "application/json")
     public String releaseNotesIndex() {
-        List<String> versions = loadAvailableVersions();
-        try {
-            return "{\"versions\":" + toJsonArray(versions) + "}";
-        } catch (Exception ex) {
-            throw buildInternalError("Failed to render release notes index", ex);
-        }
+        return indexJson;
     }
 
     @McpResource(
@@ -70,50 +114,271 @@ public class ReleaseNotesResourceService {
             description = "Markdown content for a given release version",
             mimeType = "text/markdown")
     public String releaseNotesByVersion(String version) {
-        if (version == null || !VERSION_PATTERN.matcher(version).matches()) {
-            throw McpError.builder(McpSchema.ErrorCodes.INVALID_PARAMS)
-                    .message("Version must match YYYY.<quarter>.<count> (e.g., 2026.0.5)")
-                    .data(Map.of("version", version))
+        return requireReleaseNote(version).markdown;
+    }
+
+    @McpResource(
+            name = "releaseNoteSections",
+            title = "Release note sections",
+            uri = "relnote://{version}/sections",
+            description = "Lists the sections of a release version with their slugs and item counts",
+            mimeType = "application/json")
+    public String releaseNoteSections(String version) {
+        return requireReleaseNote(version).sectionsJson;
+    }
+
+    @McpResource(
+            name = "releaseNoteSection",
+            title = "Release note section",
+            uri = "relnote://{version}/section/{section}",
+            description = "Markdown for a single section (by slug, e.g. 'fixes') of a release version",
+            mimeType = "text/markdown")
+    public String releaseNoteSection(String version, String section) {
+        ReleaseNote note = requireReleaseNote(version);
+        Section match = section == null ? null : note.sections.get(toSlug(section));
+        if (match == null) {
+            throw McpError.builder(McpSchema.ErrorCodes.RESOURCE_NOT_FOUND)
+                    .message("Section '" + section + "' not found in release notes " + version)
+                    .data(Map.of("uri", "relnote://" + version + "/section/" + section,
+                            "sections", new ArrayList<>(note.sections.keySet())))
+                    .build();
+        }
+        return match.markdown;
+    }
+
+    @McpResource(
+            name = "releaseNotesRange",
+            title = "Release notes for a version range",
+            uri = "relnote://range/{from}/{to}",
+            description = "Merged, de-duplicated Markdown for all versions between two versions (inclusive)",
+            mimeType = "text/markdown")
+    public String releaseNotesRange(String from, String to) {
+        validateVersion(from);
+        validateVersion(to);
+
+        String lower = VERSION_ORDER.compare(from, to) <= 0 ? from : to;
+        String upper = lower.equals(from) ? to : from;
+        String key = lower + ".." + upper;
+
+        String cached = rangeCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        NavigableMap<String, ReleaseNote> range = releaseNotes.subMap(lower, true, upper, true);
+        if (range.isEmpty()) {
+            throw McpError.builder(McpSchema.ErrorCodes.RESOURCE_NOT_FOUND)
+                    .message("No release notes found between " + lower + " and " + upper)
+                    .data(Map.of("uri", "relnote://range/" + from + "/" + to))
                     .build();
         }
 
-        Resource resource = resolver.getResource(RELEASE_NOTES_PREFIX + version + ".md");
-        if (!resource.exists()) {
+        String merged = mergeRange(lower, upper, range.values());
+        if (rangeCache.size() < MAX_CACHED_RANGES) {
+            rangeCache.put(key, merged);
+        }
+        return merged;
+    }
+
+    private ReleaseNote requireReleaseNote(String version) {
+        validateVersion(version);
+        ReleaseNote note = releaseNotes.get(version);
+        if (note == null) {
             throw McpError.builder(McpSchema.ErrorCodes.RESOURCE_NOT_FOUND)
                     .message("Release notes not found for version " + version)
                     .data(Map.of("uri", "relnote://" + version))
                     .build();
         }
+        return note;
+    }
 
-        try (InputStream inputStream = resource.getInputStream()) {
-            byte[] bytes = inputStream.readAllBytes();
-            return new String(bytes, StandardCharsets.UTF_8);
-        } catch (IOException ex) {
-            throw buildInternalError("Failed to read release notes for " + version, ex);
+    private void validateVersion(String version) {
+        if (version == null || !VERSION_PATTERN.matcher(version).matches()) {
+            throw McpError.builder(McpSchema.ErrorCodes.INVALID_PARAMS)
+                    .message("Version must match YYYY.<quarter>.<count> (e.g., 2026.0.5)")
+                    .data(Map.of("version", String.valueOf(version)))
+                    .build();
         }
     }
 
-    private List<String> loadAvailableVersions() {
+    private NavigableMap<String, ReleaseNote> loadReleaseNotes() {
+        NavigableMap<String, ReleaseNote> notes = new TreeMap<>(VERSION_ORDER);
+        Resource[] resources;
         try {
-            Resource[] resources = resolver.getResources(RELEASE_NOTES_GLOB);
-            List<String> versions = new ArrayList<>();
-            for (Resource resource : resources) {
-                String filename = resource.getFilename();
-                if (filename == null || !filename.endsWith(".md")) {
-                    continue;
-                }
-                String version = filename.substring(0, filename.length() - 3);
-                if (VERSION_PATTERN.matcher(version).matches()) {
-                    versions.add(version);
+            resources = resolver.getResources(RELEASE_NOTES_GLOB);
+        } catch (IOException ex) {
+            logger.warn("Failed to list available release notes: {}", ex.getMessage());
+            return notes;
+        }
+
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null || !filename.endsWith(".md")) {
+                continue;
+            }
+            String version = filename.substring(0, filename.length() - 3);
+            if (!VERSION_PATTERN.matcher(version).matches()) {
+                logger.warn("Skipping release note with unexpected filename: {}", filename);
+                continue;
+            }
+
+            try (InputStream inputStream = resource.getInputStream()) {
+                String markdown = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+                notes.put(version, parseReleaseNote(version, markdown));
+            } catch (IOException ex) {
+                logger.error("Failed to read release notes for {}", version, ex);
+            }
+        }
+        return notes;
+    }
+
+    /**
+     * Splits a release note into its level-2 ("## ") sections. Each section body is further split into
+     * blocks: a bullet item together with its indented continuation lines, or a plain paragraph.
+     */
+    private ReleaseNote parseReleaseNote(String version, String markdown) {
+        ReleaseNote note = new ReleaseNote();
+        note.version = version;
+        note.markdown = markdown;
+
+        Section current = null;
+        StringBuilder block = null;
+        for (String line : markdown.split("\\R", -1)) {
+            if (line.startsWith("## ")) {
+                closeBlock(current, block);
+                block = null;
+                current = new Section();
+                current.heading = line.substring(3).trim();
+                current.slug = toSlug(current.heading);
+                Section existing = note.sections.get(current.slug);
+                if (existing != null) {
+                    // repeated heading in one file: keep appending to the first occurrence
+                    current = existing;
                 } else {
-                    logger.warn("Skipping release note with unexpected filename: {}", filename);
+                    note.sections.put(current.slug, current);
                 }
+                continue;
             }
-            Collections.sort(versions, Collections.reverseOrder());
-            return versions;
-        } catch (IOException ex) {
-            throw buildInternalError("Failed to list available release notes", ex);
+            if (current == null) {
+                continue;
+            }
+
+            boolean bullet = isBullet(line);
+            boolean continuation = !bullet && !line.isBlank() && Character.isWhitespace(line.charAt(0));
+            if (line.isBlank()) {
+                closeBlock(current, block);
+                block = null;
+            } else if (bullet || block == null || !continuation && isBullet(block.toString())) {
+                closeBlock(current, block);
+                block = new StringBuilder(line);
+            } else {
+                block.append('\n').append(line);
+            }
+        }
+        closeBlock(current, block);
+
+        StringBuilder sectionsJson = new StringBuilder();
+        sectionsJson.append("{\"version\":\"").append(version).append("\",\"sections\":[");
+        int i = 0;
+        for (Section section : note.sections.values()) {
+            StringBuilder sectionMarkdown = new StringBuilder();
+            sectionMarkdown.append("## ").append(section.heading).append('\n');
+            for (String item : section.blocks) {
+                sectionMarkdown.append(item).append('\n');
+            }
+            section.markdown = sectionMarkdown.toString();
+
+            if (i++ > 0) {
+                sectionsJson.append(',');
+            }
+            sectionsJson.append("{\"slug\":\"").append(jsonEscape(section.slug))
+                    .append("\",\"heading\":\"").append(jsonEscape(section.heading))
+                    .append("\",\"items\":").append(section.blocks.size()).append('}');
+        }
+        sectionsJson.append("]}");
+        note.sectionsJson = sectionsJson.toString();
+        return note;
+    }
+
+    private void closeBlock(Section section, StringBuilder block) {
+        if (section != null && block != null) {
+            section.blocks.add(block.toString());
+        }
+    }
+
+    /**
+     * Merges sections across versions (oldest first), keeping the first occurrence of each block and
+     * tagging bullet items with the version that introduced them.
+     */
+    private String mergeRange(String lower, String upper, Iterable<ReleaseNote> notes) {
+        Map<String, String> headings = new LinkedHashMap<>();
+        Map<String, List<String>> blocksBySection = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (ReleaseNote note : notes) {
+            for (Section section : note.sections.values()) {
+                headings.putIfAbsent(section.slug, section.heading);
+                List<String> merged = blocksBySection.computeIfAbsent(section.slug, slug -> new ArrayList<>());
+                for (String item : section.blocks) {
+                    if (!seen.add(section.slug + '\u0000' + normalizeBlock(item))) {
+                        continue;
+                    }
+                    merged.add(isBullet(item) ? tagWithVersion(item, note.version) : item);
+                }
+            }
+        }
+
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("# Release notes ").append(lower);
+        if (!lower.equals(upper)) {
+            markdown.append(" - ").append(upper);
+        }
+        markdown.append('\n');
+        for (Map.Entry<String, List<String>> entry : blocksBySection.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            markdown.append("## ").append(headings.get(entry.getKey())).append('\n');
+            for (String item : entry.getValue()) {
+                markdown.append(item).append('\n');
+            }
+        }
+        return markdown.toString();
+    }
+
+    private String tagWithVersion(String item, String version) {
+        int newline = item.indexOf('\n');
+        if (newline < 0) {
+            return item + " (" + version + ")";
         }
+        return item.substring(0, newline) + " (" + version + ")" + item.substring(newline);
+    }
+
+    private boolean isBullet(String line) {
+        String trimmed = line.stripLeading();
+        return (trimmed.startsWith("- ") || trimmed.startsWith("* ") || trimmed.startsWith("+ "))
+                && line.length() - trimmed.length() < 2;
+    }
+
+    private String normalizeBlock(String block) {
+        String text = block.strip();
+        if (isBullet(text)) {
+            text = text.substring(2);
+        }
+        return WHITESPACE.matcher(text.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private String toSlug(String heading) {
+        String slug = SLUG_SEPARATOR.matcher(heading.trim().toLowerCase(Locale.ROOT)).replaceAll("-");
+        int start = 0;
+        int end = slug.length();
+        while (start < end && slug.charAt(start) == '-') {
+            start++;
+        }
+        while (end > start && slug.charAt(end - 1) == '-') {
+            end--;
+        }
+        return slug.substring(start, end);
     }
 
     private String toJsonArray(List<String> values) {
@@ -129,11 +394,21 @@ public class ReleaseNotesResourceService {
         return builder.toString();
     }
 
-    private McpError buildInternalError(String message, Exception ex) {
-        logger.error(message, ex);
-        return McpError.builder(McpSchema.ErrorCodes.INTERNAL_ERROR)
-                .message(message)
-                .data(Map.of("cause", ex.getMessage()))
-                .build();
+    private String jsonEscape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static class ReleaseNote {
+        String version;
+        String markdown;
+        String sectionsJson;
+        final Map<String, Section> sections = new LinkedHashMap<>();
+    }
+
+    private static class Section {
+        String heading;
+        String slug;
+        String markdown;
+        final List<String> blocks = new ArrayList<>();
     }
 }
@@ -0,0 +1,409 @@
+package com.mcp.oracle.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springaicommunity.mcp.annotation.McpResource;
+import org.springframework.stereotype.Service;
+
+import com.mcp.oracle.config.OracleToolConfig;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Spools large query results to local files and serves them back as chunked MCP resources.
+ * Rows are written as RFC 4180 CSV into chunks that end on row boundaries; each chunk is optionally
+ * gzip-compressed on its own, so any chunk can be read back independently through a memory-mapped range.
+ * Only the chunk being built is held in memory. Spool files expire after a TTL and their total size is
+ * capped by a disk quota.
+ *
+ * Example JSON-RPC flows:
+ * tools/call export_sql {"sql":"SELECT * FROM LOG","compress":true} ->
+ * {"uri":"export://3f0c...","rowCount":5000000,"chunkCount":412,"bytes":98231455,"compressed":true,...}
+ * resources/read export://3f0c... ->
+ * {"columns":["ID","CREATED"],"rowCount":5000000,"chunks":[{"index":0,"firstRow":1,"rowCount":12288},...]}
+ * resources/read export://3f0c.../chunk/0 ->
+ * "ID,CREATED\n1,2026-10-19 08:00:00.0\n..."
+ */
+@Service
+public class ResultExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultExportService.class);
+    private static final Pattern EXPORT_ID_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+    private static final String SPOOL_SUFFIX = ".spool";
+
+    private final OracleToolConfig oracleToolConfig;
+    private final Map<String, Export> exports = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private Path directory;
+    private ScheduledExecutorService cleaner;
+
+    /**
+     * Constructor for ResultExportService
+     *
+     * @param oracleToolConfig Oracle database configuration
+     */
+    public ResultExportService(OracleToolConfig oracleToolConfig) {
+        this.oracleToolConfig = oracleToolConfig;
+    }
+
+    /**
+     * Summary of a finished export
+     *
+     * @param id         export identifier
+     * @param rowCount   number of exported rows
+     * @param chunkCount number of readable chunks
+     * @param bytes      size of the spool file
+     * @param compressed whether chunks are gzip-compressed on disk
+     * @param expiresAt  epoch millis after which the export is deleted
+     */
+    public record ExportSummary(String id, long rowCount, int chunkCount, long bytes, boolean compressed, long expiresAt) {
+    }
+
+    /**
+     * Prepare the spool directory and schedule TTL cleanup
+     *
+     * @throws IOException if the spool directory cannot be prepared
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Paths.get(oracleToolConfig.getExport().getDirectory()).toAbsolutePath();
+        Files.createDirectories(directory);
+        // spool files from a previous run have no index and can never be read again
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            leftovers.filter(path -> path.getFileName().toString().endsWith(SPOOL_SUFFIX)).forEach(this::deleteQuietly);
+        }
+
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "export-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop the cleanup task
+     */
+    @PreDestroy
+    public void stop() {
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+    }
+
+    /**
+     * Stream a result set to a new spool file.
+     *
+     * @param rs       result set positioned before the first row
+     * @param compress whether to gzip each chunk
+     * @return summary of the export
+     * @throws Exception if reading the result set or writing the spool file fails, or the disk quota is exceeded
+     */
+    public ExportSummary export(ResultSet rs, boolean compress) throws Exception {
+        removeExpired();
+
+        OracleToolConfig.Export settings = oracleToolConfig.getExport();
+        String id = UUID.randomUUID().toString().replace("-", "");
+        Path file = directory.resolve(id + SPOOL_SUFFIX);
+        int chunkLimit = Math.max(4096, settings.getChunkBytes());
+
+        ResultSetRowReader reader = ResultSetRowReader.plan(rs, true);
+        List<String> columns = List.of(reader.columnNames());
+
+        Export export = new Export(id, file, compress, columns);
+        ChunkBuffer buffer = new ChunkBuffer(chunkLimit + chunkLimit / 4);
+        StringBuilder line = new StringBuilder(256);
+        long reserved = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            reader.appendHeader(line);
+            buffer.write(line);
+            long row = 0;
+            long chunkFirstRow = 1;
+
+            while (rs.next()) {
+                line.setLength(0);
+                reader.appendRow(line);
+                buffer.write(line);
+                row++;
+
+                if (buffer.size() >= chunkLimit) {
+                    reserved += flushChunk(channel, buffer, export, chunkFirstRow, row - chunkFirstRow + 1);
+                    chunkFirstRow = row + 1;
+                }
+            }
+            if (buffer.size() > 0) {
+                reserved += flushChunk(channel, buffer, export, chunkFirstRow, row - chunkFirstRow + 1);
+            }
+            export.rowCount = row;
+            export.bytes = channel.size();
+        } catch (Exception e) {
+            usedBytes.addAndGet(-reserved);
+            deleteQuietly(file);
+            throw e;
+        }
+
+        export.expiresAt = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(settings.getTtlMinutes());
+        exports.put(id, export);
+        log.info("Exported {} rows in {} chunks ({} bytes) to {}", export.rowCount, export.chunks.size(), export.bytes, file);
+        return new ExportSummary(id, export.rowCount, export.chunks.size(), export.bytes, compress, export.expiresAt);
+    }
+
+    @McpResource(
+            name = "exportManifest",
+            title = "Query export manifest",
+            uri = "export://{id}",
+            description = "Columns, row count and chunk layout of a spooled export_sql result",
+            mimeType = "application/json")
+    public String exportManifest(String id) {
+        Export export = requireExport(id);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":\"").append(id).append("\",\"columns\":[");
+        for (int i = 0; i < export.columns.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(export.columns.get(i).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        json.append("],\"rowCount\":").append(export.rowCount)
+                .append(",\"bytes\":").append(export.bytes)
+                .append(",\"compressed\":").append(export.compressed)
+                .append(",\"expiresAtIso\":\"")
+                .append(Instant.ofEpochMilli(export.expiresAt).atOffset(ZoneOffset.UTC)).append('"')
+                .append(",\"chunkUriTemplate\":\"export://").append(id).append("/chunk/{index}\"")
+                .append(",\"chunks\":[");
+        for (int i = 0; i < export.chunks.size(); i++) {
+            Chunk chunk = export.chunks.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"index\":").append(i)
+                    .append(",\"firstRow\":").append(chunk.firstRow)
+                    .append(",\"rowCount\":").append(chunk.rowCount).append('}');
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    @McpResource(
+            name = "exportChunk",
+            title = "Query export chunk",
+            uri = "export://{id}/chunk/{index}",
+            description = "One chunk of a spooled export_sql result as CSV; chunk 0 starts with the header row",
+            mimeType = "text/csv")
+    public String exportChunk(String id, String index) {
+        Export export = requireExport(id);
+        int chunkIndex;
+        try {
+            chunkIndex = Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+            chunkIndex = -1;
+        }
+        if (chunkIndex < 0 || chunkIndex >= export.chunks.size()) {
+            throw McpError.builder(McpSchema.ErrorCodes.INVALID_PARAMS)
+                    .message("Chunk index must be between 0 and " + (export.chunks.size() - 1))
+                    .data(Map.of("uri", "export://" + id + "/chunk/" + index))
+                    .build();
+        }
+
+        Chunk chunk = export.chunks.get(chunkIndex);
+        try (FileChannel channel = FileChannel.open(export.file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset, chunk.length);
+            if (!export.compressed) {
+                return StandardCharsets.UTF_8.decode(mapped).toString();
+            }
+            try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(mapped), 64 * 1024)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            log.error("Failed to read chunk {} of export {}", chunkIndex, id, e);
+            throw McpError.builder(McpSchema.ErrorCodes.INTERNAL_ERROR)
+                    .message("Failed to read export chunk")
+                    .data(Map.of("cause", String.valueOf(e.getMessage())))
+                    .build();
+        }
+    }
+
+    private Export requireExport(String id) {
+        Export export = id == null || !EXPORT_ID_PATTERN.matcher(id).matches() ? null : exports.get(id);
+        if (export == null || export.expiresAt < System.currentTimeMillis()) {
+            throw McpError.builder(McpSchema.ErrorCodes.RESOURCE_NOT_FOUND)
+                    .message("Export not found or expired")
+                    .data(Map.of("uri", "export://" + id))
+                    .build();
+        }
+        return export;
+    }
+
+    private long flushChunk(FileChannel channel, ChunkBuffer buffer, Export export, long firstRow, long rowCount)
+            throws IOException {
+        ByteBuffer payload;
+        if (export.compressed) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(buffer.size() / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 64 * 1024)) {
+                gzip.write(buffer.array(), 0, buffer.size());
+            }
+            payload = ByteBuffer.wrap(compressed.toByteArray());
+        } else {
+            payload = ByteBuffer.wrap(buffer.array(), 0, buffer.size());
+        }
+        buffer.reset();
+
+        int length = payload.remaining();
+        long maxDiskBytes = oracleToolConfig.getExport().getMaxDiskBytes();
+        if (usedBytes.addAndGet(length) > maxDiskBytes) {
+            usedBytes.addAndGet(-length);
+            throw new IOException("Export disk quota of " + maxDiskBytes + " bytes exceeded");
+        }
+
+        long offset = channel.position();
+        while (payload.hasRemaining()) {
+            channel.write(payload);
+        }
+        export.chunks.add(new Chunk(offset, length, firstRow, rowCount));
+        return length;
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        exports.values().removeIf(export -> {
+            if (export.expiresAt >= now) {
+                return false;
+            }
+            usedBytes.addAndGet(-export.bytes);
+            deleteQuietly(export.file);
+            log.info("Removed expired export {}", export.id);
+            return true;
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Growable byte buffer for the chunk being built, reused across chunks.
+     */
+    private static class ChunkBuffer {
+        private byte[] bytes;
+        private int size;
+
+        ChunkBuffer(int initialCapacity) {
+            bytes = new byte[initialCapacity];
+        }
+
+        void write(CharSequence text) {
+            byte[] encoded = text.toString().getBytes(StandardCharsets.UTF_8);
+            if (size + encoded.length > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + encoded.length)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+    }
+
+    private static class Chunk {
+        final long offset;
+        final int length;
+        final long firstRow;
+        final long rowCount;
+
+        Chunk(long offset, int length, long firstRow, long rowCount) {
+            this.offset = offset;
+            this.length = length;
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+        }
+    }
+
+    private static class Export {
+        final String id;
+        final Path file;
+        final boolean compressed;
+        final List<String> columns;
+        final List<Chunk> chunks = new ArrayList<>();
+        long rowCount;
+        long bytes;
+        volatile long expiresAt;
+
+        Export(String id, Path file, boolean compressed, List<String> columns) {
+            this.id = id;
+            this.file = file;
+            this.compressed = compressed;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.mcp.oracle.service;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Reads result set rows as delimited text using one extractor per column, planned once from
+ * ResultSetMetaData. Integral numbers are read with getLong, binary floating point with
+ * getDouble/getFloat, dates and timestamps as LocalDateTime, and binary columns with getBytes,
+ * which avoids boxing and java.sql.Timestamp construction for every cell. A fetch size is picked from
+ * the estimated row width of the described statement before it executes, so the rows returned with the
+ * execute call already come in full-size batches and wide rows need fewer round trips.
+ *
+ * Values are rendered as execute_sql always rendered them (Timestamp-style date text, plain
+ * BigDecimal text, NULL for SQL NULL); binary values are rendered as hex.
+ *
+ */
+public final class ResultSetRowReader {
+
+    private static final int MIN_FETCH_SIZE = 10;
+    private static final int MAX_FETCH_SIZE = 10_000;
+    private static final int LOB_LOCATOR_BYTES = 100;
+    private static final int UNKNOWN_COLUMN_BYTES = 64;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final ResultSet rs;
+    private final String[] columnNames;
+    private final ColumnExtractor[] extractors;
+    private final boolean csvQuote;
+    private final int estimatedRowBytes;
+
+    private ResultSetRowReader(ResultSet rs, boolean csvQuote) throws SQLException {
+        this.rs = rs;
+        this.csvQuote = csvQuote;
+
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        columnNames = new String[columnCount];
+        extractors = new ColumnExtractor[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            int column = i + 1;
+            columnNames[i] = metaData.getColumnName(column);
+            extractors[i] = planColumn(metaData, column);
+        }
+        estimatedRowBytes = estimateRowBytes(metaData);
+    }
+
+    /**
+     * Plan extractors for a result set
+     *
+     * @param rs       result set positioned before the first row
+     * @param csvQuote whether text values containing separators, quotes or line breaks are CSV-quoted
+     * @return the planned reader
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static ResultSetRowReader plan(ResultSet rs, boolean csvQuote) throws SQLException {
+        return new ResultSetRowReader(rs, csvQuote);
+    }
+
+    /**
+     * Set the fetch size of a query that has not executed yet, so that every round trip, including the one
+     * made by executeQuery, carries about the given number of bytes. The row width comes from describing the
+     * statement; a driver that cannot describe it before execution keeps its default fetch size.
+     *
+     * @param ps               prepared query, not yet executed
+     * @param fetchBufferBytes target bytes per round trip
+     * @return the fetch size that was applied, or 0 when the statement could not be described
+     * @throws SQLException if the statement cannot be described or the fetch size cannot be set
+     */
+    public static int applyFetchSize(PreparedStatement ps, long fetchBufferBytes) throws SQLException {
+        ResultSetMetaData metaData = ps.getMetaData();
+        if (metaData == null) {
+            return 0;
+        }
+        int fetchSize = fetchSize(estimateRowBytes(metaData), fetchBufferBytes);
+        ps.setFetchSize(fetchSize);
+        return fetchSize;
+    }
+
+    /**
+     * Number of rows of the given width that fit the fetch buffer, within the fetch size bounds
+     *
+     * @param rowBytes         estimated row width
+     * @param fetchBufferBytes target bytes per round trip
+     * @return fetch size
+     */
+    public static int fetchSize(int rowBytes, long fetchBufferBytes) {
+        long rows = fetchBufferBytes / Math.max(1, rowBytes);
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, rows));
+    }
+
+    /**
+     * Estimated size of one row in bytes, from the column metadata
+     *
+     * @return estimated row width
+     */
+    public int estimatedRowBytes() {
+        return estimatedRowBytes;
+    }
+
+    /**
+     * Column names in result order
+     *
+     * @return column names
+     */
+    public String[] columnNames() {
+        return columnNames.clone();
+    }
+
+    /**
+     * Append the column names, comma-separated and terminated by a newline
+     *
+     * @param out target buffer
+     */
+    public void appendHeader(StringBuilder out) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendText(out, columnNames[i]);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Append the current row, comma-separated and terminated by a newline
+     *
+     * @param out target buffer
+     * @throws Exception if a value cannot be read
+     */
+    public void appendRow(StringBuilder out) throws Exception {
+        for (int i = 0; i < extractors.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            extractors[i].append(this, i + 1, out);
+        }
+        out.append('\n');
+    }
+
+    @FunctionalInterface
+    private interface ColumnExtractor {
+        void append(ResultSetRowReader reader, int column, StringBuilder out) throws Exception;
+    }
+
+    private static ColumnExtractor planColumn(ResultSetMetaData metaData, int column) throws SQLException {
+        int type = metaData.getColumnType(column);
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return ResultSetRowReader::appendLong;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                int precision = metaData.getPrecision(column);
+                int scale = metaData.getScale(column);
+                if (scale == 0 && precision > 0 && precision <= 18) {
+                    return ResultSetRowReader::appendLong;
+                }
+                return ResultSetRowReader::appendDecimal;
+            case Types.DOUBLE:
+                return ResultSetRowReader::appendDouble;
+            case Types.REAL:
+                return ResultSetRowReader::appendFloat;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return ResultSetRowReader::appendString;
+            case Types.CLOB:
+            case Types.NCLOB:
+                return ResultSetRowReader::appendClob;
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return ResultSetRowReader::appendTimestamp;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return ResultSetRowReader::appendBytes;
+            default:
+                return ResultSetRowReader::appendObject;
+        }
+    }
+
+    private static int estimateRowBytes(ResultSetMetaData metaData) throws SQLException {
+        int rowBytes = 0;
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            rowBytes += estimateColumnBytes(metaData, column);
+        }
+        return Math.max(1, rowBytes);
+    }
+
+    private static int estimateColumnBytes(ResultSetMetaData metaData, int column) throws SQLException {
+        switch (metaData.getColumnType(column)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.DOUBLE:
+            case Types.REAL:
+            case Types.FLOAT:
+                return 22;
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return 11;
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.BLOB:
+                return LOB_LOCATOR_BYTES;
+            default:
+                int size = metaData.getColumnDisplaySize(column);
+                return size > 0 ? Math.min(size, 4000) : UNKNOWN_COLUMN_BYTES;
+        }
+    }
+
+    private static void appendLong(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        long value = reader.rs.getLong(column);
+        if (reader.rs.wasNull()) {
+            out.append("NULL");
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void appendDouble(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        double value = reader.rs.getDouble(column);
+        if (reader.rs.wasNull()) {
+            out.append("NULL");
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void appendFloat(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        float value = reader.rs.getFloat(column);
+        if (reader.rs.wasNull()) {
+            out.append("NULL");
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void appendDecimal(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        BigDecimal value = reader.rs.getBigDecimal(column);
+        out.append(value == null ? "NULL" : value.toString());
+    }
+
+    private static void appendString(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        String value = reader.rs.getString(column);
+        if (value == null) {
+            out.append("NULL");
+        } else {
+            reader.appendText(out, value);
+        }
+    }
+
+    private static void appendClob(ResultSetRowReader reader, int column, StringBuilder out) throws Exception {
+        Clob clob = reader.rs.getClob(column);
+        if (clob == null) {
+            out.append("NULL");
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        try (Reader in = clob.getCharacterStream()) {
+            char[] buffer = new char[2048];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                text.append(buffer, 0, read);
+            }
+        } finally {
+            clob.free();
+        }
+        reader.appendText(out, text.toString());
+    }
+
+    /**
+     * Renders like java.sql.Timestamp#toString: yyyy-MM-dd HH:mm:ss.f with trailing zeros of the fraction removed.
+     */
+    private static void appendTimestamp(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        LocalDateTime value = reader.rs.getObject(column, LocalDateTime.class);
+        if (value == null) {
+            out.append("NULL");
+            return;
+        }
+        int year = value.getYear();
+        if (year < 1000) {
+            pad(out, year, 4);
+        } else {
+            out.append(year);
+        }
+        out.append('-');
+        pad(out, value.getMonthValue(), 2);
+        out.append('-');
+        pad(out, value.getDayOfMonth(), 2);
+        out.append(' ');
+        pad(out, value.getHour(), 2);
+        out.append(':');
+        pad(out, value.getMinute(), 2);
+        out.append(':');
+        pad(out, value.getSecond(), 2);
+        out.append('.');
+        int nanos = value.getNano();
+        if (nanos == 0) {
+            out.append('0');
+            return;
+        }
+        int digits = 9;
+        while (nanos % 10 == 0) {
+            nanos /= 10;
+            digits--;
+        }
+        pad(out, nanos, digits);
+    }
+
+    private static void appendBytes(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        byte[] value = reader.rs.getBytes(column);
+        if (value == null) {
+            out.append("NULL");
+            return;
+        }
+        for (byte b : value) {
+            out.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+        }
+    }
+
+    private static void appendObject(ResultSetRowReader reader, int column, StringBuilder out) throws SQLException {
+        Object value = reader.rs.getObject(column);
+        if (value == null) {
+            out.append("NULL");
+        } else {
+            reader.appendText(out, value.toString());
+        }
+    }
+
+    private static void pad(StringBuilder out, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            out.append('0');
+        }
+        out.append(digits);
+    }
+
+    /**
+     * With CSV quoting on, values containing separators, quotes or line breaks are quoted, and a literal
+     * "NULL" string is quoted to keep it apart from SQL NULL.
+     */
+    private void appendText(StringBuilder out, String value) {
+        if (csvQuote && (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0 || value.equals("NULL"))) {
+            out.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.mcp.oracle.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springaicommunity.mcp.annotation.McpResource;
+import org.springframework.stereotype.Service;
+
+import com.mcp.oracle.config.OracleToolConfig;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local snapshot of the schema dictionary (tables, columns, primary keys).
+ * The snapshot is captured with a few set-based queries, written to a compact gzip file and reloaded at
+ * startup, so list_tables and describe_table are answered without dictionary queries from the first request.
+ * A background check compares the latest table DDL time and table count against the snapshot and
+ * recaptures it when they differ.
+ *
+ * Example JSON-RPC flow:
+ * resources/read schema://snapshot ->
+ * {"capturedAtIso":"2026-10-19T08:00:00Z","validated":true,"tableCount":1,
+ *  "tables":[{"name":"LOG","primaryKeyColumns":["ID"],"columns":[{"name":"ID","dataType":"NUMBER","nullable":false,"dataLength":22}]}]}
+ */
+@Service
+public class SchemaSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaSnapshotService.class);
+    private static final String FILE_HEADER = "#oracle-mcp-schema-snapshot v1";
+    private static final int DICTIONARY_FETCH_SIZE = 1000;
+
+    private static final String FINGERPRINT_SQL =
+            "SELECT MAX(last_ddl_time), COUNT(*) FROM user_objects WHERE object_type = 'TABLE'";
+    private static final String TABLES_SQL = "SELECT table_name FROM user_tables ORDER BY table_name";
+    private static final String COLUMNS_SQL = "SELECT table_name, column_name, data_type, nullable, data_length "
+            + "FROM user_tab_columns ORDER BY table_name, column_id";
+    private static final String PRIMARY_KEYS_SQL = "SELECT cols.table_name, cols.column_name "
+            + "FROM user_constraints cons JOIN user_cons_columns cols ON cons.constraint_name = cols.constraint_name "
+            + "WHERE cons.constraint_type = 'P' ORDER BY cols.table_name, cols.position";
+
+    private final OracleToolConfig oracleToolConfig;
+    private final OracleConnectionProvider connectionProvider;
+
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor for SchemaSnapshotService
+     *
+     * @param oracleToolConfig   Oracle database configuration
+     * @param connectionProvider source of database connections
+     */
+    public SchemaSnapshotService(OracleToolConfig oracleToolConfig, OracleConnectionProvider connectionProvider) {
+        this.oracleToolConfig = oracleToolConfig;
+        this.connectionProvider = connectionProvider;
+    }
+
+    /**
+     * Column metadata as captured in the snapshot
+     */
+    public record ColumnSnapshot(String name, String dataType, boolean nullable, Integer dataLength) {
+    }
+
+    /**
+     * Table metadata as captured in the snapshot
+     */
+    public record TableSnapshot(String name, List<ColumnSnapshot> columns, List<String> primaryKeyColumns) {
+    }
+
+    /**
+     * Load the snapshot file synchronously, then validate and refresh it in the background
+     */
+    @PostConstruct
+    public void start() {
+        OracleToolConfig.SchemaSnapshot settings = oracleToolConfig.getSchemaSnapshot();
+        if (!settings.isEnabled()) {
+            log.info("Schema snapshot disabled");
+            return;
+        }
+
+        snapshot = readSnapshotFile(snapshotFile());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10, settings.getCheckIntervalSeconds());
+        scheduler.scheduleWithFixedDelay(this::validateQuietly, 0, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background validation
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Table names from the snapshot
+     *
+     * @return sorted table names, or null when no snapshot is loaded
+     */
+    public List<String> tableNames() {
+        Snapshot current = snapshot;
+        return current == null ? null : current.tableNames;
+    }
+
+    /**
+     * Table metadata from the snapshot
+     *
+     * @param upperTable upper-cased table name
+     * @return table metadata, or null when no snapshot is loaded or the table is not in it
+     */
+    public TableSnapshot table(String upperTable) {
+        Snapshot current = snapshot;
+        return current == null ? null : current.tables.get(upperTable);
+    }
+
+    @McpResource(
+            name = "schemaSnapshot",
+            title = "Schema snapshot",
+            uri = "schema://snapshot",
+            description = "All tables with their columns and primary keys from the local schema snapshot",
+            mimeType = "application/json")
+    public String schemaSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw McpError.builder(McpSchema.ErrorCodes.RESOURCE_NOT_FOUND)
+                    .message("Schema snapshot is not available yet")
+                    .data(Map.of("uri", "schema://snapshot"))
+                    .build();
+        }
+        return current.toJson();
+    }
+
+    /**
+     * Compare the database fingerprint with the snapshot and recapture when they differ.
+     *
+     * @throws Exception if the database cannot be queried or the snapshot cannot be written
+     */
+    public void validate() throws Exception {
+        try (Connection conn = connectionProvider.getConnection()) {
+            String fingerprint = fetchFingerprint(conn);
+            Snapshot current = snapshot;
+            if (current != null && current.source.equals(sourceId()) && current.fingerprint.equals(fingerprint)) {
+                if (!current.validated) {
+                    snapshot = current.withValidated();
+                    log.info("Schema snapshot confirmed current ({} tables)", current.tables.size());
+                }
+                return;
+            }
+
+            long start = System.nanoTime();
+            Snapshot captured = capture(conn, fingerprint);
+            snapshot = captured;
+            log.info("Captured schema snapshot of {} tables in {} ms", captured.tables.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            writeSnapshotFile(captured, snapshotFile());
+        }
+    }
+
+    /**
+     * Schedule an immediate validation in the background
+     */
+    public void requestValidation() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null && !current.isShutdown()) {
+            current.execute(this::validateQuietly);
+        }
+    }
+
+    private void validateQuietly() {
+        try {
+            validate();
+        } catch (Exception e) {
+            log.warn("Schema snapshot validation failed: {}", e.getMessage());
+        }
+    }
+
+    private String fetchFingerprint(Connection conn) throws Exception {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(FINGERPRINT_SQL)) {
+            rs.next();
+            Timestamp lastDdl = rs.getTimestamp(1);
+            return (lastDdl == null ? "none" : Long.toString(lastDdl.getTime())) + ":" + rs.getLong(2);
+        }
+    }
+
+    private Snapshot capture(Connection conn, String fingerprint) throws Exception {
+        Map<String, TableBuilder> builders = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(DICTIONARY_FETCH_SIZE);
+
+            try (ResultSet rs = stmt.executeQuery(TABLES_SQL)) {
+                while (rs.next()) {
+                    String table = rs.getString(1);
+                    builders.put(table, new TableBuilder(table));
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery(COLUMNS_SQL)) {
+                while (rs.next()) {
+                    TableBuilder builder = builders.get(rs.getString(1));
+                    if (builder == null) {
+                        // columns of views and other non-table objects
+                        continue;
+                    }
+                    int length = rs.getInt(5);
+                    Integer dataLength = rs.wasNull() ? null : Integer.valueOf(length);
+                    builder.columns.add(new ColumnSnapshot(rs.getString(2), rs.getString(3),
+                            "Y".equalsIgnoreCase(rs.getString(4)), dataLength));
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery(PRIMARY_KEYS_SQL)) {
+                while (rs.next()) {
+                    TableBuilder builder = builders.get(rs.getString(1));
+                    if (builder != null) {
+                        builder.primaryKeyColumns.add(rs.getString(2));
+                    }
+                }
+            }
+        }
+
+        Map<String, TableSnapshot> tables = new LinkedHashMap<>();
+        for (TableBuilder builder : builders.values()) {
+            tables.put(builder.name, builder.build());
+        }
+        return new Snapshot(sourceId(), fingerprint, System.currentTimeMillis(), true, tables);
+    }
+
+    private String sourceId() {
+        return oracleToolConfig.getConnectionString() + "|" + oracleToolConfig.getUsername();
+    }
+
+    /**
+     * Configured snapshot file, or a per-database default when none is configured
+     */
+    private Path snapshotFile() {
+        String path = oracleToolConfig.getSchemaSnapshot().getPath();
+        if (path != null && !path.isBlank()) {
+            return Paths.get(path.trim());
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sourceId().getBytes(StandardCharsets.UTF_8));
+            String fingerprint = HexFormat.of().formatHex(hash, 0, 8);
+            return Paths.get(System.getProperty("java.io.tmpdir"), "oracle-mcp-schema-snapshot-" + fingerprint + ".gz");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private Snapshot readSnapshotFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            if (!FILE_HEADER.equals(reader.readLine())) {
+                log.warn("Ignoring schema snapshot {} with unknown format", file);
+                return null;
+            }
+
+            String source = null;
+            String fingerprint = null;
+            long capturedAt = 0;
+            Map<String, TableBuilder> builders = new LinkedHashMap<>();
+            TableBuilder current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                for (int i = 1; i < fields.length; i++) {
+                    fields[i] = unescape(fields[i]);
+                }
+                switch (fields[0]) {
+                    case "S" -> source = fields[1];
+                    case "F" -> {
+                        fingerprint = fields[1];
+                        capturedAt = Long.parseLong(fields[2]);
+                    }
+                    case "T" -> {
+                        current = new TableBuilder(fields[1]);
+                        builders.put(current.name, current);
+                    }
+                    case "C" -> current.columns.add(new ColumnSnapshot(fields[1], fields[2], "Y".equals(fields[3]),
+                            fields[4].isEmpty() ? null : Integer.valueOf(fields[4])));
+                    case "P" -> current.primaryKeyColumns.add(fields[1]);
+                    default -> throw new IOException("Unexpected record type '" + fields[0] + "'");
+                }
+            }
+
+            if (!sourceId().equals(source) || fingerprint == null) {
+                log.info("Ignoring schema snapshot {} captured from a different database or user", file);
+                return null;
+            }
+
+            Map<String, TableSnapshot> tables = new LinkedHashMap<>();
+            for (TableBuilder builder : builders.values()) {
+                tables.put(builder.name, builder.build());
+            }
+            log.info("Loaded schema snapshot of {} tables from {} in {} ms", tables.size(), file,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return new Snapshot(source, fingerprint, capturedAt, false, tables);
+        } catch (Exception e) {
+            log.warn("Failed to read schema snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSnapshotFile(Snapshot snapshot, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            writer.write(FILE_HEADER);
+            writer.write('\n');
+            writer.write("S\t" + escape(snapshot.source) + "\n");
+            writer.write("F\t" + escape(snapshot.fingerprint) + "\t" + snapshot.capturedAt + "\n");
+            for (TableSnapshot table : snapshot.tables.values()) {
+                writer.write("T\t" + escape(table.name()) + "\n");
+                for (ColumnSnapshot column : table.columns()) {
+                    writer.write("C\t" + escape(column.name()) + "\t" + escape(column.dataType()) + "\t"
+                            + (column.nullable() ? "Y" : "N") + "\t"
+                            + (column.dataLength() == null ? "" : column.dataLength()) + "\n");
+                }
+                for (String pk : table.primaryKeyColumns()) {
+                    writer.write("P\t" + escape(pk) + "\n");
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '"' -> escaped.append("\\\"");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    private static class TableBuilder {
+        final String name;
+        final List<ColumnSnapshot> columns = new ArrayList<>();
+        final List<String> primaryKeyColumns = new ArrayList<>();
+
+        TableBuilder(String name) {
+            this.name = name;
+        }
+
+        TableSnapshot build() {
+            return new TableSnapshot(name, List.copyOf(columns), List.copyOf(primaryKeyColumns));
+        }
+    }
+
+    private static class Snapshot {
+        final String source;
+        final String fingerprint;
+        final long capturedAt;
+        final boolean validated;
+        final Map<String, TableSnapshot> tables;
+        final List<String> tableNames;
+        private volatile String json;
+
+        Snapshot(String source, String fingerprint, long capturedAt, boolean validated, Map<String, TableSnapshot> tables) {
+            this.source = source;
+            this.fingerprint = fingerprint;
+            this.capturedAt = capturedAt;
+            this.validated = validated;
+            this.tables = Collections.unmodifiableMap(tables);
+            this.tableNames = List.copyOf(tables.keySet());
+        }
+
+        Snapshot withValidated() {
+            return new Snapshot(source, fingerprint, capturedAt, true, tables);
+        }
+
+        String toJson() {
+            String rendered = json;
+            if (rendered != null) {
+                return rendered;
+            }
+
+            StringBuilder builder = new StringBuilder();
+            builder.append("{\"capturedAtIso\":")
+                    .append(jsonString(Instant.ofEpochMilli(capturedAt).atOffset(ZoneOffset.UTC).toString()))
+                    .append(",\"validated\":").append(validated)
+                    .append(",\"tableCount\":").append(tables.size())
+                    .append(",\"tables\":[");
+            int t = 0;
+            for (TableSnapshot table : tables.values()) {
+                if (t++ > 0) {
+                    builder.append(',');
+                }
+                builder.append("{\"name\":").append(jsonString(table.name())).append(",\"primaryKeyColumns\":[");
+                for (int i = 0; i < table.primaryKeyColumns().size(); i++) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append(jsonString(table.primaryKeyColumns().get(i)));
+                }
+                builder.append("],\"columns\":[");
+                for (int i = 0; i < table.columns().size(); i++) {
+                    ColumnSnapshot column = table.columns().get(i);
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append("{\"name\":").append(jsonString(column.name()))
+                            .append(",\"dataType\":").append(jsonString(column.dataType()))
+                            .append(",\"nullable\":").append(column.nullable())
+                            .append(",\"dataLength\":").append(column.dataLength())
+                            .append('}');
+                }
+                builder.append("]}");
+            }
+            builder.append("]}");
+            rendered = builder.toString();
+            json = rendered;
+            return rendered;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.mcp.oracle.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.mcp.oracle.config.CodeReviewConfig;
+
+/**
+ * Loads source files for the java_code_review prompt and splits them into token-budgeted chunks.
+ * Chunks end at type or member boundaries where possible and are cached by content hash,
+ * so reviewing an unchanged file again only costs a read and a digest.
+ *
+ */
+@Service
+public class SourceContentService {
+
+    private static final Logger log = LoggerFactory.getLogger(SourceContentService.class);
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final CodeReviewConfig codeReviewConfig;
+    private final Map<String, List<SourceChunk>> chunkCache;
+
+    /**
+     * Constructor for SourceContentService
+     *
+     * @param codeReviewConfig code review configuration
+     */
+    public SourceContentService(CodeReviewConfig codeReviewConfig) {
+        this.codeReviewConfig = codeReviewConfig;
+        int maxEntries = Math.max(1, codeReviewConfig.getCacheEntries());
+        this.chunkCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SourceChunk>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * A contiguous slice of a source file
+     *
+     * @param startLine       first line of the chunk (1-based)
+     * @param endLine         last line of the chunk (inclusive)
+     * @param text            chunk content
+     * @param estimatedTokens approximate token count of the content
+     */
+    public record SourceChunk(int startLine, int endLine, String text, int estimatedTokens) {
+    }
+
+    /**
+     * Read a file and return its chunks, reusing the cached split when the content hash is unchanged.
+     *
+     * @param file file to load
+     * @return chunks in file order, or null when the file exceeds code-review.max-file-bytes
+     * @throws IOException if the file cannot be read
+     */
+    public List<SourceChunk> load(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size > codeReviewConfig.getMaxFileBytes()) {
+            log.info("Not embedding {} ({} bytes exceeds code-review.max-file-bytes)", file, size);
+            return null;
+        }
+
+        byte[] content = Files.readAllBytes(file);
+        String key = sha256(content) + ":" + codeReviewConfig.getMaxChunkTokens();
+        List<SourceChunk> cached = chunkCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<SourceChunk> chunks = Collections.unmodifiableList(chunk(new String(content, StandardCharsets.UTF_8)));
+        chunkCache.put(key, chunks);
+        return chunks;
+    }
+
+    /**
+     * Split source text into chunks of at most code-review.max-chunk-tokens (estimated).
+     * The file is first cut into units that end where a top-level type or one of its members closes;
+     * units are then packed greedily. A unit larger than the budget is split by lines.
+     *
+     * @param source source text
+     * @return chunks in file order
+     */
+    public List<SourceChunk> chunk(String source) {
+        int budgetChars = Math.max(1, codeReviewConfig.getMaxChunkTokens()) * CHARS_PER_TOKEN;
+        String[] lines = source.split("\\R", -1);
+        int lineCount = lines.length;
+        if (lineCount > 0 && lines[lineCount - 1].isEmpty()) {
+            lineCount--;
+        }
+
+        List<int[]> units = findUnits(lines, lineCount);
+        List<SourceChunk> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentStart = 1;
+
+        for (int[] unit : units) {
+            int unitChars = 0;
+            for (int i = unit[0]; i <= unit[1]; i++) {
+                unitChars += lines[i].length() + 1;
+            }
+
+            if (current.length() > 0 && current.length() + unitChars > budgetChars) {
+                chunks.add(toChunk(currentStart, unit[0], current));
+                current.setLength(0);
+            }
+            if (current.length() == 0) {
+                currentStart = unit[0] + 1;
+            }
+
+            for (int i = unit[0]; i <= unit[1]; i++) {
+                if (current.length() > 0 && current.length() + lines[i].length() + 1 > budgetChars) {
+                    chunks.add(toChunk(currentStart, i, current));
+                    current.setLength(0);
+                    currentStart = i + 1;
+                }
+                current.append(lines[i]).append('\n');
+            }
+        }
+        if (current.length() > 0) {
+            chunks.add(toChunk(currentStart, lineCount, current));
+        }
+        return chunks;
+    }
+
+    private SourceChunk toChunk(int startLine, int endLine, StringBuilder text) {
+        int chars = text.length();
+        return new SourceChunk(startLine, endLine, text.toString(), (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+    }
+
+    /**
+     * Returns [firstLine, lastLine] index pairs (0-based, inclusive). A unit closes on a line that ends at
+     * brace depth 0 or 1 after a '}' or ';', i.e. the end of a type, member or statement at class level.
+     * Braces inside comments, string, char and text block literals are ignored.
+     */
+    private List<int[]> findUnits(String[] lines, int lineCount) {
+        List<int[]> units = new ArrayList<>();
+        int depth = 0;
+        boolean inBlockComment = false;
+        boolean inTextBlock = false;
+        int unitStart = 0;
+
+        for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
+            String line = lines[lineIndex];
+            boolean closed = false;
+            int i = 0;
+            while (i < line.length()) {
+                char c = line.charAt(i);
+                if (inBlockComment) {
+                    if (line.startsWith("*/", i)) {
+                        inBlockComment = false;
+                        i += 2;
+                        continue;
+                    }
+                } else if (inTextBlock) {
+                    if (line.startsWith("\"\"\"", i)) {
+                        inTextBlock = false;
+                        i += 3;
+                        continue;
+                    }
+                    if (c == '\\') {
+                        i++;
+                    }
+                } else if (line.startsWith("//", i)) {
+                    break;
+                } else if (line.startsWith("/*", i)) {
+                    inBlockComment = true;
+                    i += 2;
+                    continue;
+                } else if (line.startsWith("\"\"\"", i)) {
+                    inTextBlock = true;
+                    i += 3;
+                    continue;
+                } else if (c == '"' || c == '\'') {
+                    i = skipLiteral(line, i, c);
+                    continue;
+                } else if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth = Math.max(0, depth - 1);
+                    closed = true;
+                } else if (c == ';') {
+                    closed = true;
+                }
+                i++;
+            }
+
+            if (closed && depth <= 1 && !inBlockComment && !inTextBlock) {
+                units.add(new int[] { unitStart, lineIndex });
+                unitStart = lineIndex + 1;
+            }
+        }
+        if (unitStart < lineCount) {
+            units.add(new int[] { unitStart, lineCount - 1 });
+        }
+        return units;
+    }
+
+    private int skipLiteral(String line, int start, char quote) {
+        int i = start + 1;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.mcp.oracle.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.mcp.oracle.config.CodeReviewConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory index of source file paths under the configured code review root.
+ * The index is built on a background thread at startup and kept current with a WatchService,
+ * so prefix lookups never touch the file system.
+ *
+ */
+@Service
+public class SourceFileIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SourceFileIndexService.class);
+    private static final char NAME_KEY_SEPARATOR = '\u0000';
+    private static final Comparator<String> RANKING =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private final CodeReviewConfig codeReviewConfig;
+
+    /**
+     * Lower-cased relative path to relative path
+     */
+    private final ConcurrentNavigableMap<String, String> byPath = new ConcurrentSkipListMap<>();
+
+    /**
+     * Lower-cased file name + NUL + lower-cased relative path to relative path
+     */
+    private final ConcurrentNavigableMap<String, String> byName = new ConcurrentSkipListMap<>();
+
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    private Path root;
+    private Set<String> extensions;
+    private Set<String> excludedDirectories;
+    private volatile WatchService watchService;
+    private Thread indexThread;
+
+    /**
+     * Constructor for SourceFileIndexService
+     *
+     * @param codeReviewConfig code review configuration
+     */
+    public SourceFileIndexService(CodeReviewConfig codeReviewConfig) {
+        this.codeReviewConfig = codeReviewConfig;
+    }
+
+    /**
+     * Start building the index in the background when a source root is configured
+     */
+    @PostConstruct
+    public void start() {
+        String sourceRoot = codeReviewConfig.getSourceRoot();
+        if (sourceRoot == null || sourceRoot.isBlank()) {
+            log.info("code-review.source-root not set; file name completion disabled");
+            ready.countDown();
+            return;
+        }
+
+        root = Paths.get(sourceRoot.trim()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            log.warn("code-review.source-root '{}' is not a directory; file name completion disabled", root);
+            root = null;
+            ready.countDown();
+            return;
+        }
+
+        extensions = new HashSet<>();
+        for (String extension : codeReviewConfig.getFileExtensions()) {
+            extensions.add("." + extension.trim().toLowerCase(Locale.ROOT).replaceFirst("^\\.", ""));
+        }
+        excludedDirectories = new HashSet<>(codeReviewConfig.getExcludedDirectories());
+
+        indexThread = new Thread(this::buildAndWatch, "source-file-index");
+        indexThread.setDaemon(true);
+        indexThread.start();
+    }
+
+    /**
+     * Stop watching the source root
+     */
+    @PreDestroy
+    public void stop() {
+        closeWatchService();
+        if (indexThread != null) {
+            indexThread.interrupt();
+        }
+    }
+
+    /**
+     * Wait until the initial scan has finished
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return true if the index is ready
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    /**
+     * Resolve a relative path returned by {@link #complete(String)} against the source root.
+     * Only indexed files resolve, so configuration, VCS metadata and other files under the root that do not
+     * match code-review.file-extensions or sit in an excluded directory are never handed out.
+     *
+     * @param relativePath path relative to the source root
+     * @return the absolute path, or null when no root is configured or the path is not an indexed source file
+     */
+    public Path resolve(String relativePath) {
+        if (root == null || relativePath == null) {
+            return null;
+        }
+        Path resolved = root.resolve(relativePath.trim()).normalize();
+        if (!resolved.startsWith(root)) {
+            return null;
+        }
+        String indexed = byPath.get(toRelative(resolved).toLowerCase(Locale.ROOT));
+        return indexed == null ? null : root.resolve(indexed);
+    }
+
+    /**
+     * Number of indexed files
+     *
+     * @return indexed file count
+     */
+    public int size() {
+        return byPath.size();
+    }
+
+    /**
+     * Find indexed files whose file name or relative path starts with the given prefix (case-insensitive).
+     * File name matches rank ahead of path matches, shorter paths ahead of longer ones.
+     *
+     * @param prefix text typed so far
+     * @return at most code-review.max-completions relative paths
+     */
+    public List<String> complete(String prefix) {
+        int limit = Math.max(1, codeReviewConfig.getMaxCompletions());
+        String key = prefix == null ? "" : prefix.trim().replace('\\', '/').toLowerCase(Locale.ROOT);
+        if (key.startsWith("@")) {
+            key = key.substring(1);
+        }
+        if (key.startsWith("./")) {
+            key = key.substring(2);
+        }
+
+        Set<String> result = new LinkedHashSet<>(top(key.indexOf('/') < 0 ? byName : null, key, limit, Set.of()));
+        result.addAll(top(byPath, key, limit - result.size(), result));
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Best-ranked paths of the whole prefix range, kept in a bounded heap so the ranking is not limited to
+     * the lexically first entries
+     */
+    private List<String> top(ConcurrentNavigableMap<String, String> index, String key, int max, Set<String> excluded) {
+        if (index == null || max <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<String> best = new PriorityQueue<>(max + 1, RANKING.reversed());
+        Map<String, String> range = key.isEmpty() ? index : index.subMap(key, true, key + Character.MAX_VALUE, true);
+        for (String path : range.values()) {
+            if (excluded.contains(path)) {
+                continue;
+            }
+            best.offer(path);
+            if (best.size() > max) {
+                best.poll();
+            }
+        }
+        List<String> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    private void buildAndWatch() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            log.warn("WatchService unavailable, file index will not be refreshed: {}", e.getMessage());
+        }
+
+        long start = System.nanoTime();
+        scan(root);
+        log.info("Indexed {} source files under {} in {} ms", byPath.size(), root,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        ready.countDown();
+
+        if (watchService != null) {
+            watchLoop();
+        }
+    }
+
+    private void watchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW || directory == null) {
+                    log.info("File watch overflow, rescanning {}", root);
+                    rescan();
+                    continue;
+                }
+
+                Path child = directory.resolve((Path) event.context());
+                if (event.kind() == ENTRY_CREATE) {
+                    if (Files.isDirectory(child)) {
+                        scan(child);
+                    } else {
+                        addFile(child);
+                    }
+                } else if (event.kind() == ENTRY_DELETE) {
+                    removeTree(child);
+                }
+            }
+
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    private void rescan() {
+        for (WatchKey key : watchedDirectories.keySet()) {
+            key.cancel();
+        }
+        watchedDirectories.clear();
+        byPath.clear();
+        byName.clear();
+        scan(root);
+    }
+
+    private void scan(Path start) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && excludedDirectories.contains(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    register(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        addFile(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to scan {}: {}", start, e.getMessage());
+        }
+    }
+
+    private void register(Path dir) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchedDirectories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE), dir);
+        } catch (IOException | ClosedWatchServiceException e) {
+            log.debug("Cannot watch {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void addFile(Path file) {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || !extensions.contains(fileName.substring(dot).toLowerCase(Locale.ROOT))) {
+            return;
+        }
+
+        String relative = toRelative(file);
+        byPath.put(relative.toLowerCase(Locale.ROOT), relative);
+        byName.put(nameKey(relative), relative);
+    }
+
+    private void removeTree(Path path) {
+        String lowerPath = toRelative(path).toLowerCase(Locale.ROOT);
+        String removed = byPath.remove(lowerPath);
+        if (removed != null) {
+            byName.remove(nameKey(removed));
+        }
+
+        Map<String, String> children = byPath.subMap(lowerPath + "/", lowerPath + "/" + Character.MAX_VALUE);
+        for (String child : children.values()) {
+            byName.remove(nameKey(child));
+        }
+        children.clear();
+        watchedDirectories.values().removeIf(dir -> dir.startsWith(path));
+    }
+
+    private String nameKey(String relativePath) {
+        String lowerPath = relativePath.toLowerCase(Locale.ROOT);
+        return lowerPath.substring(lowerPath.lastIndexOf('/') + 1) + NAME_KEY_SEPARATOR + lowerPath;
+    }
+
+    private String toRelative(Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private void closeWatchService() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Failed to close WatchService: {}", e.getMessage());
+        }
+    }
+}
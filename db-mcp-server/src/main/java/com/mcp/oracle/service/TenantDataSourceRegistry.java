@@ -0,0 +1,269 @@
+package com.mcp.oracle.service;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.mcp.oracle.config.OracleToolConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Named tenant datasources for serving many schemas from one server.
+ * Each tenant gets its own size-limited HikariCP pool, created on first use. Pools keep no minimum
+ * idle connections, so a quiet tenant drops to zero connections, and a pool unused for
+ * closeAfterIdleMinutes is closed entirely and reopened on demand. MCP sessions can be bound to a
+ * tenant so that tool calls without an explicit tenant use it.
+ *
+ */
+@Component
+public class TenantDataSourceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantDataSourceRegistry.class);
+    private static final long SESSION_BINDING_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private final OracleToolConfig oracleToolConfig;
+    private final Map<String, TenantPool> pools = new ConcurrentHashMap<>();
+    private final Map<String, SessionBinding> sessions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Constructor for TenantDataSourceRegistry
+     *
+     * @param oracleToolConfig Oracle database configuration
+     */
+    public TenantDataSourceRegistry(OracleToolConfig oracleToolConfig) {
+        this.oracleToolConfig = oracleToolConfig;
+        for (String name : oracleToolConfig.getTenants().keySet()) {
+            pools.put(name, new TenantPool(name));
+        }
+    }
+
+    /**
+     * Start closing idle pools and expired session bindings
+     */
+    @PostConstruct
+    public void start() {
+        if (pools.isEmpty()) {
+            return;
+        }
+        log.info("Serving {} tenant datasource(s): {}", pools.size(), pools.keySet());
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tenant-pool-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            closeIdlePools(TimeUnit.MINUTES.toMillis(oracleToolConfig.getTenantPool().getCloseAfterIdleMinutes()));
+            long now = System.currentTimeMillis();
+            sessions.values().removeIf(binding -> now - binding.lastUsed > SESSION_BINDING_TTL_MILLIS);
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Close all pools
+     */
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        for (TenantPool pool : pools.values()) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Configured tenant names
+     *
+     * @return tenant names
+     */
+    public Set<String> tenantNames() {
+        return oracleToolConfig.getTenants().keySet();
+    }
+
+    /**
+     * Get a pooled connection for a tenant, opening its pool if needed
+     *
+     * @param tenant tenant name
+     * @return Connection instance; closing it returns it to the pool
+     * @throws IllegalArgumentException if the tenant is not configured
+     * @throws Exception if no connection can be obtained
+     */
+    public Connection getConnection(String tenant) throws Exception {
+        TenantPool pool = pools.get(tenant);
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown tenant '" + tenant + "'; configured tenants: " + tenantNames());
+        }
+        return pool.getConnection();
+    }
+
+    /**
+     * Bind an MCP session to a tenant
+     *
+     * @param sessionId MCP session id
+     * @param tenant    tenant name, or null to return the session to the default datasource
+     * @throws IllegalArgumentException if the tenant is not configured
+     */
+    public void bindSession(String sessionId, String tenant) {
+        if (tenant == null) {
+            sessions.remove(sessionId);
+            return;
+        }
+        if (!pools.containsKey(tenant)) {
+            throw new IllegalArgumentException("Unknown tenant '" + tenant + "'; configured tenants: " + tenantNames());
+        }
+        sessions.put(sessionId, new SessionBinding(tenant));
+    }
+
+    /**
+     * Tenant bound to an MCP session
+     *
+     * @param sessionId MCP session id, may be null
+     * @return tenant name, or null when the session is not bound
+     */
+    public String boundTenant(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        SessionBinding binding = sessions.get(sessionId);
+        if (binding == null) {
+            return null;
+        }
+        binding.lastUsed = System.currentTimeMillis();
+        return binding.tenant;
+    }
+
+    /**
+     * Number of tenant pools currently open
+     *
+     * @return open pool count
+     */
+    public int openPoolCount() {
+        int count = 0;
+        for (TenantPool pool : pools.values()) {
+            if (pool.isOpen()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Close pools that have no connections in use and were not used for the given time
+     *
+     * @param idleMillis minimum time since the last checkout
+     */
+    public void closeIdlePools(long idleMillis) {
+        long now = System.currentTimeMillis();
+        for (TenantPool pool : pools.values()) {
+            pool.closeIfIdle(now - idleMillis);
+        }
+    }
+
+    private static class SessionBinding {
+        final String tenant;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        SessionBinding(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Holds one tenant's pool. Checkouts share the read lock; closing takes the write lock, so a pool
+     * is never closed under a caller that is about to borrow from it.
+     */
+    private class TenantPool {
+        final String name;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile HikariDataSource dataSource;
+        volatile long lastUsed;
+
+        TenantPool(String name) {
+            this.name = name;
+        }
+
+        Connection getConnection() throws Exception {
+            lock.readLock().lock();
+            try {
+                lastUsed = System.currentTimeMillis();
+                return open().getConnection();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean isOpen() {
+            return dataSource != null;
+        }
+
+        void closeIfIdle(long usedBefore) {
+            if (dataSource == null || lastUsed > usedBefore || !lock.writeLock().tryLock()) {
+                return;
+            }
+            try {
+                HikariDataSource current = dataSource;
+                if (current != null && lastUsed <= usedBefore
+                        && current.getHikariPoolMXBean().getActiveConnections() == 0) {
+                    dataSource = null;
+                    current.close();
+                    log.info("Closed idle pool for tenant {}", name);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void close() {
+            lock.writeLock().lock();
+            try {
+                if (dataSource != null) {
+                    dataSource.close();
+                    dataSource = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private HikariDataSource open() {
+            HikariDataSource current = dataSource;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (dataSource == null) {
+                    OracleToolConfig.Tenant tenant = oracleToolConfig.getTenants().get(name);
+                    OracleToolConfig.TenantPool settings = oracleToolConfig.getTenantPool();
+                    HikariConfig config = new HikariConfig();
+                    config.setPoolName("tenant-" + name);
+                    config.setJdbcUrl(tenant.getConnectionString());
+                    config.setUsername(tenant.getUsername());
+                    config.setPassword(tenant.getPassword());
+                    config.setMaximumPoolSize(Math.max(1, tenant.getMaxPoolSize()));
+                    config.setMinimumIdle(0);
+                    config.setIdleTimeout(TimeUnit.SECONDS.toMillis(Math.max(10, settings.getIdleTimeoutSeconds())));
+                    config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(Math.max(1, settings.getConnectionTimeoutSeconds())));
+                    // do not connect until the first checkout
+                    config.setInitializationFailTimeout(-1);
+                    dataSource = new HikariDataSource(config);
+                    log.info("Opened pool for tenant {} (max {} connections)", name, config.getMaximumPoolSize());
+                }
+                return dataSource;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mcp.oracle.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Reusable gzip encoder writing to a target stream. Unlike GZIPOutputStream it keeps its Deflater and buffers
+ * across responses, so a pool of encoders avoids allocating native zlib state for every response. Flushing
+ * uses a sync flush, which makes everything written so far decodable by the client without ending the stream.
+ * The staging buffer holds the start of a response while it is still undecided whether to compress it.
+ *
+ */
+public class GzipEncoder {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] output;
+    private final byte[] staging;
+    private OutputStream target;
+
+    /**
+     * @param level         deflate level
+     * @param stagingBytes  size of the staging buffer
+     * @param outputBytes   size of the compressed output buffer
+     */
+    public GzipEncoder(int level, int stagingBytes, int outputBytes) {
+        this.deflater = new Deflater(level, true);
+        this.staging = new byte[stagingBytes];
+        this.output = new byte[outputBytes];
+    }
+
+    /**
+     * Buffer for the start of a response, before the compression decision
+     *
+     * @return staging buffer
+     */
+    public byte[] staging() {
+        return staging;
+    }
+
+    /**
+     * Start a gzip stream on the target by writing the gzip header
+     *
+     * @param target stream receiving the compressed bytes
+     * @throws IOException if writing fails
+     */
+    public void start(OutputStream target) throws IOException {
+        this.target = target;
+        target.write(HEADER);
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        crc.update(bytes, offset, length);
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    /**
+     * Write out everything compressed so far, so the client can decode it without waiting for the end
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        int written;
+        do {
+            written = drain(Deflater.SYNC_FLUSH);
+        } while (written == output.length);
+    }
+
+    /**
+     * End the gzip stream: remaining compressed bytes, then the CRC and length trailer
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(Deflater.NO_FLUSH);
+        }
+        long size = deflater.getBytesRead();
+        byte[] trailer = new byte[8];
+        writeInt(trailer, 0, crc.getValue());
+        writeInt(trailer, 4, size);
+        target.write(trailer);
+    }
+
+    /**
+     * Prepare for reuse by another response
+     */
+    public void reset() {
+        deflater.reset();
+        crc.reset();
+        target = null;
+    }
+
+    /**
+     * Release the native zlib state; the encoder cannot be used afterwards
+     */
+    public void end() {
+        deflater.end();
+    }
+
+    private int drain(int flush) throws IOException {
+        int written = deflater.deflate(output, 0, output.length, flush);
+        if (written > 0) {
+            target.write(output, 0, written);
+        }
+        return written;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, long value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >> 8);
+        bytes[offset + 2] = (byte) (value >> 16);
+        bytes[offset + 3] = (byte) (value >> 24);
+    }
+}
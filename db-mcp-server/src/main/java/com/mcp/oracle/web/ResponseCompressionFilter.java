@@ -0,0 +1,413 @@
+package com.mcp.oracle.web;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.mcp.oracle.config.CompressionConfig;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Negotiated gzip compression for the MCP endpoint. A response is held in a staging buffer until it grows
+ * beyond mcp.compression.min-response-bytes. From then on it is compressed as it is written: compressed bytes
+ * go to the client as they come out of the deflater, and every flush (one per SSE event of the streamable
+ * transport) is a sync flush, so large tool results are never buffered whole and events still reach the client
+ * one by one. Responses that stay below the threshold, are flushed before reaching it, or have a content type
+ * outside mcp.compression.mime-types are sent unchanged. Encoders (deflater and buffers) come from a bounded pool.
+ * Streamed responses end on an async dispatch, which is when the gzip trailer is written.
+ *
+ */
+@Component
+@ConditionalOnProperty(prefix = "mcp.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final String RESPONSE_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".response";
+    private static final int OUTPUT_BUFFER_BYTES = 8192;
+
+    private final CompressionConfig config;
+    private final BlockingQueue<GzipEncoder> pool;
+
+    public ResponseCompressionFilter(CompressionConfig config) {
+        this.config = config;
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, config.getPoolSize()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return config.getPaths().stream().noneMatch(p -> path.equals(p) || path.startsWith(p + "/"));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompressingResponse compressing = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (compressing == null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (!acceptsGzip(request)) {
+                chain.doFilter(request, response);
+                return;
+            }
+            compressing = new CompressingResponse(response);
+            request.setAttribute(RESPONSE_ATTRIBUTE, compressing);
+        }
+        try {
+            chain.doFilter(request, compressing);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // the stream is ended on the async dispatch; the listener covers streams that never get one
+                request.getAsyncContext().addListener(compressing.stream);
+            } else {
+                compressing.finish();
+            }
+        }
+    }
+
+    /**
+     * Number of idle encoders in the pool
+     *
+     * @return idle encoders
+     */
+    public int idleEncoders() {
+        return pool.size();
+    }
+
+    /**
+     * Whether the request accepts gzip, honouring q=0 and the * wildcard
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                boolean accepted = quality(parts) > 0;
+                if (name.equals("gzip") || name.equals("x-gzip")) {
+                    gzip = accepted;
+                } else if (name.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private GzipEncoder acquire() {
+        GzipEncoder encoder = pool.poll();
+        return encoder != null
+                ? encoder
+                : new GzipEncoder(config.getLevel(), config.getMinResponseBytes(), OUTPUT_BUFFER_BYTES);
+    }
+
+    private void release(GzipEncoder encoder) {
+        encoder.reset();
+        if (!pool.offer(encoder)) {
+            encoder.end();
+        }
+    }
+
+    private boolean compressible(HttpServletResponse response) {
+        int status = response.getStatus();
+        if (status < 200 || status == HttpServletResponse.SC_NO_CONTENT
+                || status == HttpServletResponse.SC_NOT_MODIFIED
+                || response.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        String contentType = response.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        String mimeType = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        return config.getMimeTypes().stream().anyMatch(mimeType::equalsIgnoreCase);
+    }
+
+    /**
+     * Response whose body goes through the compressing stream; a declared content length is held back until
+     * it is known whether the body is compressed
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final CompressingStream stream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        private CompressingResponse(HttpServletResponse response) {
+            super(response);
+            this.stream = new CompressingStream(this, response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (stream.state == State.RAW) {
+                super.setContentLengthLong(length);
+            } else if (stream.state == State.UNDECIDED) {
+                contentLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+                setContentLengthLong(Long.parseLong(value.trim()));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+                setContentLengthLong(Long.parseLong(value.trim()));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            stream.flush();
+        }
+
+        @Override
+        public void resetBuffer() {
+            stream.discard();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            stream.discard();
+            contentLength = -1;
+            super.reset();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            stream.finish();
+        }
+    }
+
+    private enum State {
+        UNDECIDED, RAW, GZIP, FINISHED
+    }
+
+    /**
+     * Stages the start of the body, then writes it either unchanged or through a pooled gzip encoder
+     */
+    private final class CompressingStream extends ServletOutputStream implements AsyncListener {
+
+        private final CompressingResponse response;
+        private final ServletOutputStream target;
+        private volatile State state = State.UNDECIDED;
+        private GzipEncoder encoder;
+        private int staged;
+
+        private CompressingStream(CompressingResponse response, HttpServletResponse target) {
+            this.response = response;
+            try {
+                this.target = target.getOutputStream();
+            } catch (IOException e) {
+                throw new IllegalStateException("Response output stream unavailable", e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            switch (state) {
+                case UNDECIDED -> {
+                    if (encoder == null) {
+                        encoder = acquire();
+                    }
+                    byte[] staging = encoder.staging();
+                    if (staged + length <= staging.length) {
+                        System.arraycopy(bytes, offset, staging, staged, length);
+                        staged += length;
+                    } else {
+                        decide(true);
+                        write(bytes, offset, length);
+                    }
+                }
+                case RAW -> target.write(bytes, offset, length);
+                case GZIP -> encoder.write(bytes, offset, length);
+                case FINISHED -> throw new IOException("Response already finished");
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (state == State.UNDECIDED) {
+                if (staged == 0) {
+                    return;
+                }
+                decide(false);
+            }
+            if (state == State.GZIP) {
+                encoder.flush();
+            }
+            if (state != State.FINISHED) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            target.setWriteListener(listener);
+        }
+
+        private synchronized void finish() throws IOException {
+            try {
+                if (state == State.UNDECIDED) {
+                    if (staged > 0 && response.contentLength < 0 && !response.isCommitted()) {
+                        response.contentLength = staged;
+                    }
+                    decide(false);
+                }
+                if (state == State.GZIP) {
+                    encoder.finish();
+                    target.flush();
+                }
+            } finally {
+                state = State.FINISHED;
+                releaseEncoder();
+            }
+        }
+
+        /**
+         * Drop staged bytes when the response buffer is reset
+         */
+        private synchronized void discard() {
+            if (state == State.UNDECIDED) {
+                staged = 0;
+            }
+        }
+
+        private void decide(boolean large) throws IOException {
+            HttpServletResponse wrapped = (HttpServletResponse) response.getResponse();
+            if (large && !response.isCommitted() && compressible(response)) {
+                wrapped.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                state = State.GZIP;
+                encoder.start(target);
+                encoder.write(encoder.staging(), 0, staged);
+            } else {
+                if (response.contentLength >= 0 && !response.isCommitted()) {
+                    wrapped.setContentLengthLong(response.contentLength);
+                }
+                state = State.RAW;
+                if (staged > 0) {
+                    target.write(encoder.staging(), 0, staged);
+                }
+                releaseEncoder();
+            }
+            staged = 0;
+        }
+
+        private void releaseEncoder() {
+            if (encoder != null) {
+                release(encoder);
+                encoder = null;
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            abandon();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            abandon();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        /**
+         * Return the encoder of a stream that ended without being finished, e.g. when the client went away
+         */
+        private synchronized void abandon() {
+            state = State.FINISHED;
+            releaseEncoder();
+        }
+    }
+}
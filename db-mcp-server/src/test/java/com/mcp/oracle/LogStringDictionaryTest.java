@@ -0,0 +1,39 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mcp.oracle.service.LogStringDictionary;
+
+/**
+ * Test class for LogStringDictionary
+ * Covers interning and index assignment for repeated log strings
+ */
+public class LogStringDictionaryTest {
+
+    /**
+     * Equal values share one instance, and only repeated values get a dictionary index
+     */
+    @Test
+    public void testRepeatedValuesAreIndexed() {
+        LogStringDictionary dictionary = new LogStringDictionary();
+
+        String first = dictionary.intern(new String("Order %s accepted"));
+        String second = dictionary.intern(new String("Order %s accepted"));
+        assertSame(first, second);
+        dictionary.intern("only once");
+        dictionary.intern("ctx-a");
+        dictionary.intern("ctx-a");
+        assertNull(dictionary.intern(null));
+
+        assertEquals(List.of("Order %s accepted", "ctx-a"), dictionary.values());
+        assertEquals(0, dictionary.indexOf("Order %s accepted"));
+        assertEquals(1, dictionary.indexOf("ctx-a"));
+        assertEquals(-1, dictionary.indexOf("only once"));
+        assertEquals(-1, dictionary.indexOf("unknown"));
+        assertEquals(-1, dictionary.indexOf(null));
+    }
+}
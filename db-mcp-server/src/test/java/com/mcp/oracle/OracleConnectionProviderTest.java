@@ -0,0 +1,131 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mcp.oracle.config.OracleToolConfig;
+import com.mcp.oracle.service.OracleConnectionProvider;
+
+/**
+ * Test class for OracleConnectionProvider read/write routing
+ * Uses embedded H2 databases as primary and read endpoints
+ */
+public class OracleConnectionProviderTest {
+
+    private static final String PRIMARY = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    private static final String READER_A = "jdbc:h2:mem:routing_reader_a;DB_CLOSE_DELAY=-1";
+    private static final String READER_B = "jdbc:h2:mem:routing_reader_b;DB_CLOSE_DELAY=-1";
+
+    private OracleConnectionProvider provider;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (String url : List.of(PRIMARY, READER_A, READER_B)) {
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                    Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS endpoint_name (name VARCHAR(32))");
+                stmt.execute("DELETE FROM endpoint_name");
+                stmt.execute("INSERT INTO endpoint_name VALUES ('" + url.substring("jdbc:h2:mem:routing_".length(), url.indexOf(';')) + "')");
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (provider != null) {
+            provider.stop();
+        }
+    }
+
+    /**
+     * Writes go to the primary, reads to the reader with the fewest outstanding connections
+     */
+    @Test
+    public void testReadsUseLeastOutstandingReader() throws Exception {
+        provider = start(READER_A, READER_B);
+
+        try (Connection write = provider.getConnection()) {
+            assertEquals("primary", endpointName(write));
+        }
+
+        try (Connection first = provider.getReadConnection();
+                Connection second = provider.getReadConnection()) {
+            String firstName = endpointName(first);
+            String secondName = endpointName(second);
+            assertTrue(firstName.startsWith("reader_"));
+            assertTrue(secondName.startsWith("reader_"));
+            assertNotEquals(firstName, secondName);
+        }
+    }
+
+    /**
+     * An unreachable reader is skipped and reads fall back to the primary when none is left
+     */
+    @Test
+    public void testFailoverToPrimary() throws Exception {
+        provider = start("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+
+        try (Connection read = provider.getReadConnection()) {
+            assertEquals("primary", endpointName(read));
+        }
+        assertEquals(0, provider.healthyReaderCount());
+    }
+
+    /**
+     * A reader that accepts the TCP connection but never answers times out and reads fall back to the primary
+     */
+    @Test
+    public void testNonRespondingReaderTimesOut() throws Exception {
+        try (ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            provider = start(1, "jdbc:oracle:thin:@//127.0.0.1:" + silent.getLocalPort() + "/standby");
+
+            long start = System.nanoTime();
+            try (Connection read = provider.getReadConnection()) {
+                assertEquals("primary", endpointName(read));
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(millis < 10_000, "connect took " + millis + " ms");
+            assertEquals(0, provider.healthyReaderCount());
+        }
+    }
+
+    private OracleConnectionProvider start(String... readers) {
+        return start(5, readers);
+    }
+
+    private OracleConnectionProvider start(long connectTimeoutSeconds, String... readers) {
+        OracleToolConfig config = new OracleToolConfig();
+        config.setReadConnectTimeoutSeconds(connectTimeoutSeconds);
+        config.setConnectionString(PRIMARY);
+        config.setUsername("sa");
+        config.setPassword("");
+        for (String reader : readers) {
+            OracleToolConfig.ReadEndpoint endpoint = new OracleToolConfig.ReadEndpoint();
+            endpoint.setConnectionString(reader);
+            config.getReadEndpoints().add(endpoint);
+        }
+        OracleConnectionProvider started = new OracleConnectionProvider(config);
+        started.start();
+        return started;
+    }
+
+    private String endpointName(Connection conn) throws Exception {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT name FROM endpoint_name")) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import org.junit.jupiter.api.Test;
+
+import com.mcp.oracle.config.OracleToolConfig;
+import com.mcp.oracle.service.QueryGuardService;
+import com.mcp.oracle.service.QueryGuardService.GuardDecision;
+import com.mcp.oracle.service.QueryGuardService.Kind;
+import com.mcp.oracle.service.QueryGuardService.Outcome;
+import com.mcp.oracle.service.QueryGuardService.PlanEstimate;
+import com.mcp.oracle.service.QueryGuardService.StatementShape;
+
+/**
+ * Test class for QueryGuardService
+ * Covers statement classification, threshold handling and EXPLAIN PLAN failures
+ */
+public class QueryGuardServiceTest {
+
+    /**
+     * WITH queries, leading comments and parentheses are recognized as queries
+     */
+    @Test
+    public void testClassification() {
+        QueryGuardService guard = new QueryGuardService(new OracleToolConfig());
+
+        assertEquals(Kind.QUERY, guard.shape("WITH t AS (SELECT 1 FROM dual) SELECT * FROM t").kind());
+        assertEquals(Kind.QUERY, guard.shape("-- latest rows\n/* agent */ select * from log").kind());
+        assertEquals(Kind.QUERY, guard.shape("  (SELECT 1 FROM dual) UNION ALL (SELECT 2 FROM dual)").kind());
+        assertEquals(Kind.DML, guard.shape("/* SELECT */ UPDATE log SET entry = 'x'").kind());
+        assertEquals(Kind.DDL, guard.shape("create table t (id number)").kind());
+        assertEquals(Kind.PLSQL, guard.shape("BEGIN dbms_stats.gather_schema_stats(user); END;").kind());
+
+        StatementShape locking = guard.shape("SELECT * FROM log WHERE id = 1 FOR UPDATE;");
+        assertTrue(locking.lockingRead());
+        assertEquals("SELECT * FROM log WHERE id = 1 FOR UPDATE", locking.sql());
+        assertFalse(guard.shape("SELECT 'for update' FROM dual").lockingRead());
+        assertFalse(guard.shape("SELECT q'[it's for update]' FROM dual").lockingRead());
+
+        assertSame(guard.shape("SELECT 1 FROM dual"), guard.shape("SELECT 1 FROM dual"));
+        assertThrows(IllegalArgumentException.class, () -> guard.shape("  "));
+    }
+
+    /**
+     * Each configured action is applied once a threshold is exceeded
+     */
+    @Test
+    public void testThresholdActions() {
+        OracleToolConfig config = new OracleToolConfig();
+        config.getQueryGuard().setMaxCost(1000);
+        config.getQueryGuard().setMaxCardinality(0);
+        config.getQueryGuard().setLimitRows(50);
+        QueryGuardService guard = new QueryGuardService(config);
+
+        StatementShape query = guard.shape("SELECT * FROM log");
+        PlanEstimate cheap = new PlanEstimate(10, 5_000_000, System.currentTimeMillis());
+        PlanEstimate expensive = new PlanEstimate(50_000, 5_000_000, System.currentTimeMillis());
+
+        assertEquals(Outcome.ALLOW, guard.evaluate(query, cheap, false).outcome());
+        assertEquals(Outcome.ALLOW, guard.evaluate(query, null, false).outcome());
+
+        config.getQueryGuard().setAction(OracleToolConfig.QueryGuard.Action.CONFIRM);
+        assertEquals(Outcome.CONFIRMATION_REQUIRED, guard.evaluate(query, expensive, false).outcome());
+        assertEquals(Outcome.ALLOW, guard.evaluate(query, expensive, true).outcome());
+
+        config.getQueryGuard().setAction(OracleToolConfig.QueryGuard.Action.REJECT);
+        assertEquals(Outcome.REJECT, guard.evaluate(query, expensive, true).outcome());
+
+        config.getQueryGuard().setAction(OracleToolConfig.QueryGuard.Action.LIMIT);
+        GuardDecision limited = guard.evaluate(query, expensive, false);
+        assertEquals(Outcome.LIMITED, limited.outcome());
+        assertEquals("SELECT * FROM (SELECT * FROM log) WHERE ROWNUM <= 50", limited.sql());
+    }
+
+    /**
+     * When EXPLAIN PLAN fails, on-explain-failure decides, defaulting to the action; queries that run carry a note
+     */
+    @Test
+    public void testExplainFailure() throws Exception {
+        OracleToolConfig config = new OracleToolConfig();
+        config.getQueryGuard().setLimitRows(50);
+        QueryGuardService guard = new QueryGuardService(config);
+        StatementShape query = guard.shape("SELECT 1 FROM dual");
+
+        // H2 has no EXPLAIN PLAN ... SET STATEMENT_ID, so every estimate fails
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:guard", "sa", "")) {
+            GuardDecision confirm = guard.check(conn, query, false);
+            assertEquals(Outcome.CONFIRMATION_REQUIRED, confirm.outcome());
+            assertTrue(confirm.message().contains("could not be estimated"), confirm.message());
+
+            GuardDecision confirmed = guard.check(conn, query, true);
+            assertEquals(Outcome.ALLOW, confirmed.outcome());
+            assertTrue(confirmed.message().startsWith("Query ran unchecked: "), confirmed.message());
+
+            config.getQueryGuard().setAction(OracleToolConfig.QueryGuard.Action.REJECT);
+            assertEquals(Outcome.REJECT, guard.check(conn, query, true).outcome());
+
+            config.getQueryGuard().setOnExplainFailure(OracleToolConfig.QueryGuard.ExplainFailure.LIMIT);
+            GuardDecision limited = guard.check(conn, query, false);
+            assertEquals(Outcome.LIMITED, limited.outcome());
+            assertEquals("SELECT * FROM (SELECT 1 FROM dual) WHERE ROWNUM <= 50", limited.sql());
+
+            config.getQueryGuard().setOnExplainFailure(OracleToolConfig.QueryGuard.ExplainFailure.ALLOW);
+            GuardDecision unchecked = guard.check(conn, query, false);
+            assertEquals(Outcome.ALLOW, unchecked.outcome());
+            assertEquals("SELECT 1 FROM dual", unchecked.sql());
+            assertNotNull(unchecked.message());
+
+            assertNull(guard.check(conn, guard.shape("DELETE FROM log"), false).message());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.mcp.oracle.service.ReleaseNotesResourceService;
+
+import io.modelcontextprotocol.spec.McpError;
+
+/**
+ * Test class for ReleaseNotesResourceService
+ * Uses the sample release notes under src/test/resources/release-notes
+ */
+public class ReleaseNotesResourceServiceTest {
+
+    private final ReleaseNotesResourceService service = new ReleaseNotesResourceService();
+
+    /**
+     * Versions are listed newest first using numeric ordering
+     */
+    @Test
+    public void testIndexOrdersVersionsNumerically() {
+        assertEquals("{\"versions\":[\"2026.1.1\",\"2026.0.10\",\"2026.0.5\"]}", service.releaseNotesIndex());
+    }
+
+    /**
+     * A single section is served without the rest of the file
+     */
+    @Test
+    public void testReadSingleSection() {
+        String fixes = service.releaseNoteSection("2026.0.5", "fixes");
+        assertTrue(fixes.startsWith("## Fixes\n"));
+        assertTrue(fixes.contains("Corrected timezone handling"));
+        assertFalse(fixes.contains("Known Issues"));
+
+        assertTrue(service.releaseNoteSections("2026.0.5").contains("{\"slug\":\"known-issues\",\"heading\":\"Known Issues\",\"items\":1}"));
+        assertThrows(McpError.class, () -> service.releaseNoteSection("2026.0.5", "features"));
+    }
+
+    /**
+     * A range merges sections across versions and drops duplicated items
+     */
+    @Test
+    public void testRangeMergesAndDeduplicates() {
+        String merged = service.releaseNotesRange("2026.1.1", "2026.0.5");
+        assertTrue(merged.startsWith("# Release notes 2026.0.5 - 2026.1.1\n"));
+        assertEquals(1, countOccurrences(merged, "Large CLOB columns"));
+        assertEquals(1, countOccurrences(merged.toLowerCase(), "fixed transaction retries"));
+        assertTrue(merged.contains("- Closed leaked statements in `describe_table`. (2026.0.10)"));
+        assertTrue(merged.contains("- Added `summarize_log` tool. (2026.1.1)\n  Returns the first and last entries"));
+
+        assertThrows(McpError.class, () -> service.releaseNotesRange("2025.0.1", "2025.3.9"));
+        assertThrows(McpError.class, () -> service.releaseNotesRange("latest", "2026.1.1"));
+    }
+
+    private int countOccurrences(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,153 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.mcp.oracle.config.CompressionConfig;
+import com.mcp.oracle.web.ResponseCompressionFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+
+/**
+ * Test class for ResponseCompressionFilter
+ * Covers negotiation, the size threshold and sync-flushed streaming of compressed responses
+ */
+public class ResponseCompressionFilterTest {
+
+    private static final String LARGE_RESULT = "{\"rows\":[" + "{\"ID\":1,\"NAME\":\"ORDER_LINE\"},".repeat(500) + "]}";
+
+    /**
+     * A large JSON result is gzipped for a client that accepts gzip, and decodes to the original
+     */
+    @Test
+    public void testLargeResponseIsCompressed() throws Exception {
+        MockHttpServletResponse response = run(request("gzip, deflate"), body("application/json", LARGE_RESULT));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertTrue(response.getHeaders("Vary").contains("Accept-Encoding"));
+        assertNull(response.getHeader("Content-Length"));
+        byte[] compressed = response.getContentAsByteArray();
+        assertTrue(compressed.length < LARGE_RESULT.length() / 5);
+        assertEquals(LARGE_RESULT, gunzip(compressed));
+    }
+
+    /**
+     * Responses below the threshold, for clients without gzip, or of other content types are left unchanged
+     */
+    @Test
+    public void testResponsesLeftUncompressed() throws Exception {
+        MockHttpServletResponse small = run(request("gzip"), body("application/json", "{\"ok\":true}"));
+        assertNull(small.getHeader("Content-Encoding"));
+        assertEquals(11, small.getContentLength());
+        assertEquals("{\"ok\":true}", small.getContentAsString());
+
+        MockHttpServletResponse identity = run(request("gzip;q=0, identity"), body("application/json", LARGE_RESULT));
+        assertNull(identity.getHeader("Content-Encoding"));
+        assertEquals(LARGE_RESULT, identity.getContentAsString());
+
+        MockHttpServletResponse binary = run(request("*"), body("application/octet-stream", LARGE_RESULT));
+        assertNull(binary.getHeader("Content-Encoding"));
+        assertEquals(LARGE_RESULT, binary.getContentAsString());
+
+        MockHttpServletRequest other = request("gzip");
+        other.setRequestURI("/actuator/health");
+        MockHttpServletResponse unfiltered = run(other, body("application/json", LARGE_RESULT));
+        assertNull(unfiltered.getHeader("Content-Encoding"));
+        assertEquals(LARGE_RESULT, unfiltered.getContentAsString());
+    }
+
+    /**
+     * Each flushed SSE event can be decoded before the stream ends, and the finished stream is valid gzip
+     */
+    @Test
+    public void testStreamedEventsDecodeOnFlush() throws Exception {
+        String first = "id: 1\nevent: message\ndata: " + LARGE_RESULT + "\n\n";
+        String second = "id: 2\nevent: message\ndata: {\"done\":true}\n\n";
+        byte[][] afterFirstFlush = new byte[1][];
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType("text/event-stream");
+            ServletOutputStream out = res.getOutputStream();
+            out.write(first.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            afterFirstFlush[0] = ((MockHttpServletResponse) response).getContentAsByteArray();
+            out.write(second.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        };
+        filter().doFilter(request("gzip"), response, chain);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(first, inflatePartial(afterFirstFlush[0]));
+        assertEquals(first + second, gunzip(response.getContentAsByteArray()));
+    }
+
+    /**
+     * Encoders go back to the pool and are reused by later responses
+     */
+    @Test
+    public void testEncodersArePooled() throws Exception {
+        ResponseCompressionFilter filter = filter();
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("gzip"), response, body("application/json", LARGE_RESULT));
+            assertEquals(LARGE_RESULT, gunzip(response.getContentAsByteArray()));
+        }
+        assertEquals(1, filter.idleEncoders());
+    }
+
+    private static ResponseCompressionFilter filter() {
+        CompressionConfig config = new CompressionConfig();
+        config.setMinResponseBytes(1024);
+        return new ResponseCompressionFilter(config);
+    }
+
+    private static MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter().doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mcp");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static FilterChain body(String contentType, String body) {
+        return (req, res) -> {
+            res.setContentType(contentType);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            res.setContentLength(bytes.length);
+            res.getOutputStream().write(bytes);
+        };
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Decode a gzip stream that has not ended yet (no trailer)
+     */
+    private static String inflatePartial(byte[] compressed) throws Exception {
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(Arrays.copyOfRange(compressed, 10, compressed.length));
+        byte[] out = new byte[LARGE_RESULT.length() * 2];
+        int length = inflater.inflate(out);
+        inflater.end();
+        return new String(out, 0, length, StandardCharsets.UTF_8);
+    }
+}
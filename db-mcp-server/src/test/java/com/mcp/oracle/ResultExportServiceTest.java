@@ -0,0 +1,114 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mcp.oracle.config.OracleToolConfig;
+import com.mcp.oracle.service.ResultExportService;
+import com.mcp.oracle.service.ResultExportService.ExportSummary;
+
+import io.modelcontextprotocol.spec.McpError;
+
+/**
+ * Test class for ResultExportService
+ * Spools an embedded H2 result set and reads it back chunk by chunk
+ */
+public class ResultExportServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:export_test;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 2000;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private ResultExportService service;
+
+    @BeforeAll
+    public static void createTable() throws Exception {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE export_rows (id INT PRIMARY KEY, note VARCHAR(64))");
+            stmt.execute("INSERT INTO export_rows SELECT x, CASE WHEN MOD(x, 7) = 0 THEN NULL "
+                    + "ELSE CONCAT('note, \"', x, '\"') END FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    /**
+     * Compressed and plain exports read back to the same CSV, split on row boundaries
+     */
+    @Test
+    public void testExportReadsBackInChunks() throws Exception {
+        service = start(10L * 1024 * 1024);
+
+        String plain = readAll(export(false));
+        String compressed = readAll(export(true));
+        assertEquals(plain, compressed);
+
+        String[] lines = plain.split("\n");
+        assertEquals(ROWS + 1, lines.length);
+        assertEquals("ID,NOTE", lines[0]);
+        assertEquals("1,\"note, \"\"1\"\"\"", lines[1]);
+        assertEquals("7,NULL", lines[7]);
+    }
+
+    /**
+     * An export that would exceed the disk quota fails and leaves nothing behind
+     */
+    @Test
+    public void testDiskQuota() throws Exception {
+        service = start(8 * 1024);
+        Exception error = assertThrows(Exception.class, () -> export(false));
+        assertTrue(error.getMessage().contains("quota"));
+        assertEquals(0, spoolDirectory.toFile().list().length);
+    }
+
+    private ResultExportService start(long maxDiskBytes) throws Exception {
+        OracleToolConfig config = new OracleToolConfig();
+        config.getExport().setDirectory(spoolDirectory.toString());
+        config.getExport().setChunkBytes(4096);
+        config.getExport().setMaxDiskBytes(maxDiskBytes);
+        ResultExportService started = new ResultExportService(config);
+        started.start();
+        return started;
+    }
+
+    private ExportSummary export(boolean compress) throws Exception {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id, note FROM export_rows ORDER BY id")) {
+            ExportSummary summary = service.export(rs, compress);
+            assertEquals(ROWS, summary.rowCount());
+            assertTrue(summary.chunkCount() > 1);
+            return summary;
+        }
+    }
+
+    private String readAll(ExportSummary summary) {
+        assertTrue(service.exportManifest(summary.id()).contains("\"rowCount\":" + ROWS));
+        StringBuilder all = new StringBuilder();
+        for (int i = 0; i < summary.chunkCount(); i++) {
+            String chunk = service.exportChunk(summary.id(), Integer.toString(i));
+            assertTrue(chunk.endsWith("\n"));
+            all.append(chunk);
+        }
+        assertThrows(McpError.class, () -> service.exportChunk(summary.id(), Integer.toString(summary.chunkCount())));
+        return all.toString();
+    }
+}
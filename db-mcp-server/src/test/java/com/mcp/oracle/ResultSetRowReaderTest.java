@@ -0,0 +1,106 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.mcp.oracle.service.ResultSetRowReader;
+
+/**
+ * Test class for ResultSetRowReader
+ * Reads typed columns from an embedded H2 database
+ */
+public class ResultSetRowReaderTest {
+
+    private static Connection conn;
+
+    @BeforeAll
+    public static void createTable() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:row_reader_test;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE typed_rows (id NUMBER(10), amount NUMBER(12,2), ratio DOUBLE PRECISION, "
+                    + "created TIMESTAMP, note VARCHAR(40), body CLOB, raw_bytes VARBINARY(4))");
+            stmt.execute("INSERT INTO typed_rows VALUES (1, 12.50, 0.25, TIMESTAMP '2026-03-01 10:15:30.120', "
+                    + "'a, b', 'clob text', X'0AFF')");
+            stmt.execute("INSERT INTO typed_rows VALUES (2, NULL, NULL, TIMESTAMP '2026-03-01 00:00:00', "
+                    + "'NULL', NULL, NULL)");
+            stmt.execute("INSERT INTO typed_rows VALUES (NULL, 0, 1, NULL, NULL, NULL, NULL)");
+        }
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        conn.close();
+    }
+
+    /**
+     * Each column type renders as the generic getObject path did, with NULL for SQL NULL
+     */
+    @Test
+    public void testTypedRows() throws Exception {
+        assertEquals("ID,AMOUNT,RATIO,CREATED,NOTE,BODY,RAW_BYTES\n"
+                + "1,12.50,0.25,2026-03-01 10:15:30.12,a, b,clob text,0AFF\n"
+                + "2,NULL,NULL,2026-03-01 00:00:00.0,NULL,NULL,NULL\n"
+                + "NULL,0.00,1.0,NULL,NULL,NULL,NULL\n", read(false));
+    }
+
+    /**
+     * With CSV quoting, separators and literal NULL strings are quoted
+     */
+    @Test
+    public void testCsvQuoting() throws Exception {
+        String[] lines = read(true).split("\n");
+        assertEquals("1,12.50,0.25,2026-03-01 10:15:30.12,\"a, b\",clob text,0AFF", lines[1]);
+        assertEquals("2,NULL,NULL,2026-03-01 00:00:00.0,\"NULL\",NULL,NULL", lines[2]);
+    }
+
+    /**
+     * The fetch size follows the estimated row width and stays within bounds
+     */
+    @Test
+    public void testFetchSize() throws Exception {
+        int rowBytes;
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT * FROM typed_rows")) {
+            rowBytes = ResultSetRowReader.plan(rs, false).estimatedRowBytes();
+        }
+        assertEquals(100, ResultSetRowReader.fetchSize(rowBytes, 100L * rowBytes));
+        assertEquals(10, ResultSetRowReader.fetchSize(rowBytes, 1));
+        assertEquals(10_000, ResultSetRowReader.fetchSize(rowBytes, Long.MAX_VALUE));
+    }
+
+    /**
+     * The fetch size is set on the statement from its description, before the query executes
+     */
+    @Test
+    public void testFetchSizeAppliedBeforeExecute() throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM typed_rows")) {
+            int rowBytes = ResultSetRowReader.plan(ps.executeQuery(), false).estimatedRowBytes();
+            try (PreparedStatement fresh = conn.prepareStatement("SELECT * FROM typed_rows")) {
+                assertEquals(200, ResultSetRowReader.applyFetchSize(fresh, 200L * rowBytes));
+                assertEquals(200, fresh.getFetchSize());
+            }
+        }
+    }
+
+    private String read(boolean csvQuote) throws Exception {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT * FROM typed_rows ORDER BY id NULLS LAST")) {
+            ResultSetRowReader reader = ResultSetRowReader.plan(rs, csvQuote);
+            StringBuilder out = new StringBuilder();
+            reader.appendHeader(out);
+            while (rs.next()) {
+                reader.appendRow(out);
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mcp.oracle.config.OracleToolConfig;
+import com.mcp.oracle.service.OracleConnectionProvider;
+import com.mcp.oracle.service.SchemaSnapshotService;
+
+import io.modelcontextprotocol.spec.McpError;
+
+/**
+ * Test class for SchemaSnapshotService
+ * Uses an embedded H2 database whose tables stand in for the Oracle dictionary views
+ */
+public class SchemaSnapshotServiceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final String ODD_COLUMN = "NOTE\t\"A\\B\"\nC";
+
+    @TempDir
+    Path directory;
+
+    private String url;
+    private SchemaSnapshotService service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        url = "jdbc:h2:mem:snapshot_" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        sql("CREATE TABLE user_objects (object_type VARCHAR(30), last_ddl_time TIMESTAMP)",
+                "CREATE TABLE user_tables (table_name VARCHAR(128))",
+                "CREATE TABLE user_tab_columns (table_name VARCHAR(128), column_name VARCHAR(128), "
+                        + "data_type VARCHAR(30), nullable CHAR(1), data_length INT, column_id INT)",
+                "CREATE TABLE user_constraints (constraint_name VARCHAR(128), constraint_type CHAR(1))",
+                "CREATE TABLE user_cons_columns (constraint_name VARCHAR(128), table_name VARCHAR(128), "
+                        + "column_name VARCHAR(128), position INT)");
+        addTable("ORDERS", "2026-10-01 08:00:00");
+        sql("INSERT INTO user_tab_columns VALUES ('ORDERS', 'ID', 'NUMBER', 'N', 22, 1)",
+                "INSERT INTO user_tab_columns VALUES ('ORDERS', '" + ODD_COLUMN + "', 'VARCHAR2', 'Y', NULL, 2)",
+                "INSERT INTO user_tab_columns VALUES ('ORDERS_V', 'ID', 'NUMBER', 'N', 22, 1)",
+                "INSERT INTO user_constraints VALUES ('ORDERS_PK', 'P')",
+                "INSERT INTO user_cons_columns VALUES ('ORDERS_PK', 'ORDERS', 'ID', 1)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    /**
+     * validate() captures tables, columns and primary keys; views' columns are left out
+     */
+    @Test
+    public void testCapture() throws Exception {
+        service = service("sa");
+        assertNull(service.tableNames());
+        assertThrows(McpError.class, service::schemaSnapshot);
+
+        service.validate();
+
+        assertEquals(List.of("ORDERS"), service.tableNames());
+        SchemaSnapshotService.TableSnapshot orders = service.table("ORDERS");
+        assertEquals(List.of("ID"), orders.primaryKeyColumns());
+        assertEquals(new SchemaSnapshotService.ColumnSnapshot("ID", "NUMBER", false, 22), orders.columns().get(0));
+        assertEquals(new SchemaSnapshotService.ColumnSnapshot(ODD_COLUMN, "VARCHAR2", true, null),
+                orders.columns().get(1));
+        assertTrue(Files.isRegularFile(snapshotFile()));
+    }
+
+    /**
+     * The snapshot file reloads at startup with escaped names intact, and is marked unvalidated until checked
+     */
+    @Test
+    public void testFileRoundTrip() throws Exception {
+        service("sa").validate();
+        // the reloaded service cannot reach the dictionary, so it keeps what it read from the file
+        sql("DROP TABLE user_objects");
+
+        service = service("sa");
+        service.start();
+
+        assertEquals(List.of("ORDERS"), service.tableNames());
+        assertEquals(ODD_COLUMN, service.table("ORDERS").columns().get(1).name());
+        assertEquals(List.of("ID"), service.table("ORDERS").primaryKeyColumns());
+        assertTrue(service.schemaSnapshot().contains("\"validated\":false"));
+    }
+
+    /**
+     * A snapshot file captured for another user of the database is ignored
+     */
+    @Test
+    public void testSourceMismatchIgnored() throws Exception {
+        service("sa").validate();
+
+        service = service("other");
+        service.start();
+
+        assertNull(service.tableNames());
+    }
+
+    /**
+     * An unchanged fingerprint keeps the snapshot; a new table changes it and triggers a recapture
+     */
+    @Test
+    public void testFingerprintDrivesRecapture() throws Exception {
+        service = service("sa");
+        service.validate();
+        String captured = service.schemaSnapshot();
+
+        sql("INSERT INTO user_tab_columns VALUES ('ORDERS', 'STATUS', 'VARCHAR2', 'Y', 10, 3)");
+        service.validate();
+        assertSame(captured, service.schemaSnapshot());
+        assertEquals(2, service.table("ORDERS").columns().size());
+
+        addTable("CUSTOMERS", "2026-10-02 09:30:00");
+        service.validate();
+        assertEquals(List.of("CUSTOMERS", "ORDERS"), service.tableNames());
+        assertEquals(3, service.table("ORDERS").columns().size());
+    }
+
+    /**
+     * The schema://snapshot resource renders tables, keys and columns as JSON with escaped names
+     */
+    @Test
+    public void testToJson() throws Exception {
+        service = service("sa");
+        service.validate();
+
+        String json = service.schemaSnapshot();
+        assertTrue(json.startsWith("{\"capturedAtIso\":\""), json);
+        assertTrue(json.contains("\"validated\":true,\"tableCount\":1,\"tables\":[{\"name\":\"ORDERS\","
+                + "\"primaryKeyColumns\":[\"ID\"],\"columns\":[{\"name\":\"ID\",\"dataType\":\"NUMBER\","
+                + "\"nullable\":false,\"dataLength\":22},"), json);
+        assertTrue(json.contains("{\"name\":\"NOTE\\t\\\"A\\\\B\\\"\\nC\",\"dataType\":\"VARCHAR2\","
+                + "\"nullable\":true,\"dataLength\":null}"), json);
+    }
+
+    private SchemaSnapshotService service(String username) {
+        OracleToolConfig config = new OracleToolConfig();
+        config.setConnectionString(url);
+        config.setUsername(username);
+        config.setPassword("");
+        config.getSchemaSnapshot().setPath(snapshotFile().toString());
+        config.getSchemaSnapshot().setCheckIntervalSeconds(3600);
+        return new SchemaSnapshotService(config, new OracleConnectionProvider(config));
+    }
+
+    private Path snapshotFile() {
+        return directory.resolve("snapshot.gz");
+    }
+
+    private void addTable(String table, String ddlTime) throws Exception {
+        sql("INSERT INTO user_tables VALUES ('" + table + "')",
+                "INSERT INTO user_objects VALUES ('TABLE', TIMESTAMP '" + ddlTime + "')");
+    }
+
+    private void sql(String... statements) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                Statement stmt = conn.createStatement()) {
+            for (String statement : statements) {
+                stmt.execute(statement);
+            }
+        }
+    }
+}
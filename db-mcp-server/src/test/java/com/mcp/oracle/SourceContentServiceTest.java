@@ -0,0 +1,94 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mcp.oracle.config.CodeReviewConfig;
+import com.mcp.oracle.service.SourceContentService;
+import com.mcp.oracle.service.SourceContentService.SourceChunk;
+
+/**
+ * Test class for SourceContentService
+ * Verifies chunk boundaries and the content-hash cache
+ */
+public class SourceContentServiceTest {
+
+    private static final String SOURCE = """
+            package com.acme;
+
+            import java.util.List;
+
+            public class Orders {
+
+                private final String greeting = "}{ not a brace";
+
+                public int count(List<String> orders) {
+                    // closing brace in a comment }
+                    return orders.size();
+                }
+
+                public String describe() {
+                    String text = \"""
+                            { text block }
+                            \""";
+                    return text + greeting;
+                }
+            }
+            """;
+
+    @TempDir
+    Path sourceRoot;
+
+    /**
+     * Chunks stay within budget, split only at member boundaries and reassemble to the original file
+     */
+    @Test
+    public void testChunksEndAtMemberBoundaries() {
+        CodeReviewConfig config = new CodeReviewConfig();
+        config.setMaxChunkTokens(40);
+        SourceContentService service = new SourceContentService(config);
+
+        List<SourceChunk> chunks = service.chunk(SOURCE);
+        assertTrue(chunks.size() > 1);
+
+        StringBuilder joined = new StringBuilder();
+        int expectedStart = 1;
+        for (SourceChunk chunk : chunks) {
+            assertEquals(expectedStart, chunk.startLine());
+            assertTrue(chunk.estimatedTokens() <= 40);
+            joined.append(chunk.text());
+            expectedStart = chunk.endLine() + 1;
+        }
+        assertEquals(SOURCE, joined.toString());
+
+        boolean methodKeptWhole = chunks.stream().anyMatch(c -> c.text().contains("public int count")
+                && c.text().contains("return orders.size();"));
+        assertTrue(methodKeptWhole);
+    }
+
+    /**
+     * A small file fits in one chunk, and unchanged content is served from the cache
+     */
+    @Test
+    public void testLoadIsCachedByContentHash() throws Exception {
+        CodeReviewConfig config = new CodeReviewConfig();
+        SourceContentService service = new SourceContentService(config);
+        Path file = Files.writeString(sourceRoot.resolve("Orders.java"), SOURCE);
+
+        List<SourceChunk> first = service.load(file);
+        assertEquals(1, first.size());
+        assertSame(first, service.load(file));
+
+        Files.writeString(file, SOURCE + "// changed\n");
+        assertNotSame(first, service.load(file));
+
+        config.setMaxFileBytes(10);
+        assertNull(service.load(file));
+    }
+}
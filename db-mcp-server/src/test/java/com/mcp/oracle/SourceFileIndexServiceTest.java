@@ -0,0 +1,130 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mcp.oracle.config.CodeReviewConfig;
+import com.mcp.oracle.service.SourceFileIndexService;
+
+/**
+ * Test class for SourceFileIndexService
+ * Builds an index over a temporary source tree
+ */
+public class SourceFileIndexServiceTest {
+
+    @TempDir
+    Path sourceRoot;
+
+    private SourceFileIndexService index;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        write("src/main/java/com/acme/OrderService.java");
+        write("src/main/java/com/acme/OrderRepository.java");
+        write("src/main/java/com/acme/order/Order.java");
+        write("src/main/resources/application.yml");
+        write("target/classes/com/acme/OrderService.java");
+
+        CodeReviewConfig config = new CodeReviewConfig();
+        config.setSourceRoot(sourceRoot.toString());
+        config.setMaxCompletions(2);
+        index = new SourceFileIndexService(config);
+        index.start();
+        assertTrue(index.awaitReady(10, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.stop();
+    }
+
+    /**
+     * File name matches come first, shortest path first, bounded by max-completions
+     */
+    @Test
+    public void testCompleteByFileName() {
+        assertEquals(3, index.size());
+        assertEquals(List.of("src/main/java/com/acme/order/Order.java", "src/main/java/com/acme/OrderService.java"),
+                index.complete("order"));
+        assertEquals(List.of("src/main/java/com/acme/OrderRepository.java"), index.complete("@OrderRep"));
+        assertTrue(index.complete("application").isEmpty());
+    }
+
+    /**
+     * A short match that sorts lexically after many longer ones still ranks first
+     */
+    @Test
+    public void testRankingCoversWholePrefixRange() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            write(String.format("src/main/java/com/acme/PaymentAdjustmentHandler%02d.java", i));
+        }
+        write("src/main/java/com/acme/PaymentX.java");
+        awaitCondition(() -> index.size() == 16);
+
+        assertEquals(List.of("src/main/java/com/acme/PaymentX.java",
+                "src/main/java/com/acme/PaymentAdjustmentHandler00.java"), index.complete("payment"));
+    }
+
+    /**
+     * Prefixes containing a slash match the relative path
+     */
+    @Test
+    public void testCompleteByPath() {
+        assertEquals(List.of("src/main/java/com/acme/order/Order.java"), index.complete("src/main/java/com/acme/order/"));
+    }
+
+    /**
+     * Files created or deleted after startup are picked up by the watcher
+     */
+    @Test
+    public void testIncrementalUpdates() throws Exception {
+        write("src/main/java/com/acme/InvoiceService.java");
+        awaitCondition(() -> index.complete("invoice").size() == 1);
+
+        Files.delete(sourceRoot.resolve("src/main/java/com/acme/OrderRepository.java"));
+        awaitCondition(() -> index.complete("orderrep").isEmpty());
+    }
+
+    /**
+     * Only indexed source files resolve; other files under the root and paths outside it are refused
+     */
+    @Test
+    public void testResolveOnlyIndexedFiles() throws Exception {
+        write(".env");
+        write(".git/config");
+
+        assertEquals(sourceRoot.resolve("src/main/java/com/acme/OrderService.java"),
+                index.resolve("src/main/java/com/acme/OrderService.java"));
+        assertEquals(sourceRoot.resolve("src/main/java/com/acme/OrderService.java"),
+                index.resolve("./src/main/java/com/acme/order/../OrderService.java"));
+        assertNull(index.resolve(".env"));
+        assertNull(index.resolve(".git/config"));
+        assertNull(index.resolve("src/main/resources/application.yml"));
+        assertNull(index.resolve("target/classes/com/acme/OrderService.java"));
+        assertNull(index.resolve("../outside.java"));
+    }
+
+    private void write(String relativePath) throws Exception {
+        Path file = sourceRoot.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "class X {}");
+    }
+
+    private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "index was not updated in time");
+            Thread.sleep(50);
+        }
+    }
+}
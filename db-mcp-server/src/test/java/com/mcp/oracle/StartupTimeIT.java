@@ -0,0 +1,115 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Integration test for the fast-startup build (mvn -Pfast-startup verify)
+ * Launches the thin jar with and without AOT and the AppCDS archive, and measures the time from
+ * process start until the MCP endpoint answers an initialize request
+ */
+@Slf4j
+public class StartupTimeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final String INITIALIZE = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":"
+            + "{\"protocolVersion\":\"2025-03-26\",\"capabilities\":{},"
+            + "\"clientInfo\":{\"name\":\"startup-time-it\",\"version\":\"1.0\"}}}";
+
+    /**
+     * Time-to-first-response with AOT and class data sharing, compared with a plain start
+     */
+    @Test
+    public void testTimeToFirstResponse() throws Exception {
+        String jar = System.getProperty("fastStartup.jar");
+        String archive = System.getProperty("fastStartup.archive");
+        assumeTrue(jar != null && new File(jar).isFile(), "fast-startup jar not built");
+
+        long plain = timeToFirstResponse(jar, List.of());
+        List<String> fastOptions = new ArrayList<>(List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast"));
+        if (archive != null && new File(archive).isFile()) {
+            fastOptions.add("-XX:SharedArchiveFile=" + archive);
+        }
+        long fast = timeToFirstResponse(jar, fastOptions);
+
+        String report = "time-to-first-response plain=" + plain + "ms fast=" + fast + "ms options=" + fastOptions;
+        log.info(report);
+        String reportFile = System.getProperty("fastStartup.report");
+        if (reportFile != null) {
+            Files.writeString(Paths.get(reportFile), report + System.lineSeparator());
+        }
+
+        long maxMillis = Long.getLong("fastStartup.maxMillis", 0);
+        if (maxMillis > 0) {
+            assertTrue(fast <= maxMillis, report);
+        }
+    }
+
+    private long timeToFirstResponse(String jar, List<String> options) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/mcp"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json, text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(INITIALIZE))
+                .build();
+
+        Path output = Files.createTempFile("startup-time-it", ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(new File(jar).getParentFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        try {
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                assertTrue(process.isAlive(), () -> "server exited during startup, see " + output);
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (java.io.IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            fail("no response within " + STARTUP_TIMEOUT + ", see " + output);
+            return -1;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mcp.oracle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.mcp.oracle.config.OracleToolConfig;
+import com.mcp.oracle.service.TenantDataSourceRegistry;
+
+/**
+ * Test class for TenantDataSourceRegistry
+ * Serves two embedded H2 databases as tenants
+ */
+public class TenantDataSourceRegistryTest {
+
+    private TenantDataSourceRegistry registry;
+
+    @AfterEach
+    public void tearDown() {
+        if (registry != null) {
+            registry.stop();
+        }
+    }
+
+    /**
+     * Pools open on first use, reach their own database, and reopen after being closed as idle
+     */
+    @Test
+    public void testPoolsOpenLazilyAndReopen() throws Exception {
+        registry = new TenantDataSourceRegistry(config());
+        assertEquals(0, registry.openPoolCount());
+
+        assertEquals("TENANT_A", currentDatabase("alpha"));
+        assertEquals(1, registry.openPoolCount());
+        assertEquals("TENANT_B", currentDatabase("beta"));
+        assertEquals(2, registry.openPoolCount());
+
+        try (Connection inUse = registry.getConnection("alpha")) {
+            registry.closeIdlePools(0);
+            // alpha has a connection checked out, so only beta is closed
+            assertEquals(1, registry.openPoolCount());
+        }
+        registry.closeIdlePools(0);
+        assertEquals(0, registry.openPoolCount());
+
+        assertEquals("TENANT_B", currentDatabase("beta"));
+        assertEquals(1, registry.openPoolCount());
+
+        assertThrows(IllegalArgumentException.class, () -> registry.getConnection("gamma"));
+    }
+
+    /**
+     * Sessions can be bound to a configured tenant and returned to the default database
+     */
+    @Test
+    public void testSessionBinding() {
+        registry = new TenantDataSourceRegistry(config());
+        assertNull(registry.boundTenant("session-1"));
+
+        registry.bindSession("session-1", "beta");
+        assertEquals("beta", registry.boundTenant("session-1"));
+        assertNull(registry.boundTenant("session-2"));
+        assertNull(registry.boundTenant(null));
+
+        registry.bindSession("session-1", null);
+        assertNull(registry.boundTenant("session-1"));
+        assertThrows(IllegalArgumentException.class, () -> registry.bindSession("session-1", "gamma"));
+    }
+
+    private OracleToolConfig config() {
+        OracleToolConfig config = new OracleToolConfig();
+        config.getTenants().put("alpha", tenant("jdbc:h2:mem:tenant_a;DB_CLOSE_DELAY=-1"));
+        config.getTenants().put("beta", tenant("jdbc:h2:mem:tenant_b;DB_CLOSE_DELAY=-1"));
+        return config;
+    }
+
+    private OracleToolConfig.Tenant tenant(String url) {
+        OracleToolConfig.Tenant tenant = new OracleToolConfig.Tenant();
+        tenant.setConnectionString(url);
+        tenant.setUsername("sa");
+        tenant.setPassword("");
+        tenant.setMaxPoolSize(2);
+        return tenant;
+    }
+
+    private String currentDatabase(String tenant) throws Exception {
+        try (Connection conn = registry.getConnection(tenant);
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT DATABASE()")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
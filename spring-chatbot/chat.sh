@@ -1,20 +1,49 @@
 #!/usr/bin/env bash
 
 # Simple helper to call the chatbot REST API with a single prompt argument.
+# Tokens are streamed as they are generated; set CHAT_STREAM=0 to wait for the full answer.
+# With --batch FILE, every non-blank line of FILE is sent as one prompt to the batch endpoint and
+# one NDJSON result line per prompt is printed as it completes.
 
 set -euo pipefail
 
 if [[ $# -lt 1 ]]; then
   echo "Usage: $0 \"your question here\"" >&2
+  echo "       $0 --batch prompts.txt" >&2
   exit 1
 fi
 
-QUESTION="$*"
 HOST="${CHAT_HOST:-http://localhost:8080}"
 PROVIDER="${CHAT_PROVIDER:-ollama}"
+STREAM="${CHAT_STREAM:-1}"
 ENDPOINT="${HOST%/}/chat/${PROVIDER}"
 
-curl -sS -X POST \
-  -H "Content-Type: text/plain" \
-  --data "$QUESTION" \
-  "$ENDPOINT"
+if [[ "$1" == "--batch" ]]; then
+  if [[ $# -lt 2 || ! -f "$2" ]]; then
+    echo "Usage: $0 --batch prompts.txt" >&2
+    exit 1
+  fi
+  curl -sS -N -X POST \
+    -H "Content-Type: text/plain" \
+    -H "Accept: application/x-ndjson" \
+    --data-binary "@$2" \
+    "${ENDPOINT}/batch"
+  exit 0
+fi
+
+QUESTION="$*"
+
+if [[ "$STREAM" == "1" ]]; then
+  # -N disables curl's output buffering so each chunk is printed on arrival
+  curl -sS -N -X POST \
+    -H "Content-Type: text/plain" \
+    -H "Accept: text/plain" \
+    --data "$QUESTION" \
+    "${ENDPOINT}/stream"
+  echo
+else
+  curl -sS -X POST \
+    -H "Content-Type: text/plain" \
+    --data "$QUESTION" \
+    "$ENDPOINT"
+fi
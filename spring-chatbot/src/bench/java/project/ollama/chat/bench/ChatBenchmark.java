@@ -0,0 +1,169 @@
+package project.ollama.chat.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import project.ollama.chat.ChatbotApplication;
+
+/**
+ * Throughput benchmark for the chat endpoints, runnable without a real Ollama (mvn -Pbenchmark verify).
+ * Starts a {@link StubOllamaServer}, starts ChatbotApplication routed to it, and drives concurrent clients
+ * against the chat endpoint. Reports requests/sec, latency and time-to-first-byte percentiles, and the
+ * server-side overhead per request: client latency minus the time the request spent in the stub model.
+ *
+ * Settings are system properties (defaults in brackets): bench.concurrency [16], bench.requests [2000],
+ * bench.warmup [200], bench.path [/chat/ollama], bench.distinctPrompts [0 = every prompt unique, so the
+ * response cache never hits], bench.report [none], stub.firstTokenMillis [20], stub.tokensPerSecond
+ * [0 = no delay between tokens], stub.tokens [32], stub.tokensPerChunk [1]. Program arguments are passed to
+ * the application, e.g. --chat.cache.enabled=false.
+ */
+public final class ChatBenchmark {
+
+    private ChatBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("bench.concurrency", 16);
+        int requests = Integer.getInteger("bench.requests", 2000);
+        int warmup = Integer.getInteger("bench.warmup", 200);
+        String path = System.getProperty("bench.path", "/chat/ollama");
+        int distinctPrompts = Integer.getInteger("bench.distinctPrompts", 0);
+
+        try (StubOllamaServer stub = new StubOllamaServer(
+                Long.getLong("stub.firstTokenMillis", 20),
+                Double.parseDouble(System.getProperty("stub.tokensPerSecond", "0")),
+                Integer.getInteger("stub.tokens", 32),
+                Integer.getInteger("stub.tokensPerChunk", 1),
+                warmup + requests)) {
+            stub.start();
+
+            List<String> appArgs = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.ai.ollama.base-url=" + stub.baseUrl(),
+                    "--chat.routing.ollama[0].name=stub",
+                    "--chat.routing.ollama[0].base-url=" + stub.baseUrl(),
+                    "--chat.admission.providers.ollama.max-concurrent=" + concurrency,
+                    "--chat.admission.providers.ollama.max-queue=" + concurrency,
+                    // the OCI client reads ~/.oci/config at startup
+                    "--spring.autoconfigure.exclude="
+                            + "org.springframework.ai.model.oci.genai.autoconfigure.OCIGenAiChatAutoConfiguration,"
+                            + "org.springframework.ai.model.oci.genai.autoconfigure.OCIGenAiEmbeddingAutoConfiguration",
+                    "--logging.level.root=WARN"));
+            appArgs.addAll(List.of(args));
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ChatbotApplication.class)
+                    .run(appArgs.toArray(String[]::new))) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                URI uri = URI.create("http://127.0.0.1:" + port + path);
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                run(client, uri, "Warm-up question ", concurrency, warmup, distinctPrompts, null, null);
+                stub.serviceTimes().reset();
+
+                LatencyRecorder latency = new LatencyRecorder(requests);
+                LatencyRecorder firstByte = new LatencyRecorder(requests);
+                long start = System.nanoTime();
+                int errors = run(client, uri, "Benchmark question ", concurrency, requests, distinctPrompts,
+                        latency, firstByte);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                LatencyRecorder model = stub.serviceTimes();
+                String report = String.join(System.lineSeparator(),
+                        String.format(Locale.ROOT, "endpoint=%s concurrency=%d requests=%d errors=%d",
+                                path, concurrency, requests, errors),
+                        String.format(Locale.ROOT, "throughput=%.1f req/s duration=%.2fs", requests / seconds, seconds),
+                        String.format(Locale.ROOT, "latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f",
+                                latency.percentileMillis(0.5), latency.percentileMillis(0.9),
+                                latency.percentileMillis(0.99), latency.percentileMillis(1.0)),
+                        String.format(Locale.ROOT, "first byte ms: p50=%.2f p99=%.2f",
+                                firstByte.percentileMillis(0.5), firstByte.percentileMillis(0.99)),
+                        String.format(Locale.ROOT, "stub model ms: calls=%d p50=%.2f p99=%.2f mean=%.2f",
+                                model.count(), model.percentileMillis(0.5), model.percentileMillis(0.99),
+                                model.meanMillis()),
+                        // cache hits and coalesced requests never reach the stub, so the mean is per request
+                        String.format(Locale.ROOT, "server overhead ms/request: mean=%.2f p50=%.2f",
+                                latency.meanMillis() - model.meanMillis() * model.count() / requests,
+                                latency.percentileMillis(0.5) - model.percentileMillis(0.5)));
+                System.out.println(report);
+                String reportFile = System.getProperty("bench.report");
+                if (reportFile != null && !reportFile.isBlank()) {
+                    Path file = Paths.get(reportFile);
+                    if (file.getParent() != null) {
+                        Files.createDirectories(file.getParent());
+                    }
+                    Files.writeString(file, report + System.lineSeparator());
+                }
+            }
+        }
+    }
+
+    /**
+     * Send requests from concurrent clients until the count is reached
+     *
+     * @return number of failed requests
+     */
+    private static int run(HttpClient client, URI uri, String prompt, int concurrency, int requests,
+            int distinctPrompts, LatencyRecorder latency, LatencyRecorder firstByte) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    int promptIndex = distinctPrompts > 0 ? index % distinctPrompts : index;
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "text/plain")
+                            .timeout(Duration.ofMinutes(2))
+                            .POST(HttpRequest.BodyPublishers.ofString(prompt + promptIndex))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<InputStream> response = client.send(request,
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            body.read();
+                            long first = System.nanoTime();
+                            body.transferTo(OutputStream.nullOutputStream());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else if (latency != null) {
+                                firstByte.record(first - start);
+                                latency.record(System.nanoTime() - start);
+                            }
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+        return errors.get();
+    }
+}
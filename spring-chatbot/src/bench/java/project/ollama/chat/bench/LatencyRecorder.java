@@ -0,0 +1,67 @@
+package project.ollama.chat.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-capacity, lock-free recorder of latency samples in nanoseconds
+ */
+public final class LatencyRecorder {
+
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Record a sample; samples beyond the capacity are dropped
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+        }
+    }
+
+    public void reset() {
+        count.set(0);
+    }
+
+    public int count() {
+        return Math.min(count.get(), samples.length);
+    }
+
+    /**
+     * @return mean latency in milliseconds
+     */
+    public double meanMillis() {
+        int n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += samples[i];
+        }
+        return total / (double) n / 1e6;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 1
+     * @return latency at the percentile in milliseconds
+     */
+    public double percentileMillis(double percentile) {
+        int n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * n) - 1;
+        return sorted[Math.max(0, Math.min(rank, n - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,199 @@
+package project.ollama.chat.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal stand-in for an Ollama server. Answers POST /api/chat with a fixed number of tokens after a
+ * configurable delay, streamed as NDJSON chunks when the request asks for streaming, or as one JSON document
+ * otherwise. A chat request without messages is a model load and is answered at once, like Ollama does.
+ * GET /api/ps lists every model requested so far as loaded, so the warm-up sees a warm model. Records how
+ * long each chat request spent inside the stub so the benchmark can separate model time from the overhead
+ * of the server under test.
+ */
+public final class StubOllamaServer implements AutoCloseable {
+
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long firstTokenMillis;
+    private final double tokensPerSecond;
+    private final int tokens;
+    private final int tokensPerChunk;
+    private final LatencyRecorder serviceTimes;
+    private final AtomicInteger threads = new AtomicInteger();
+    private final Map<String, Instant> loadedModels = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param firstTokenMillis delay before the first token, standing in for prompt processing
+     * @param tokensPerSecond  generation rate after the first token; 0 sends the remaining tokens at once
+     * @param tokens           tokens per answer
+     * @param tokensPerChunk   tokens per streamed chunk
+     * @param maxRequests      capacity of the service time recorder
+     */
+    public StubOllamaServer(long firstTokenMillis, double tokensPerSecond, int tokens, int tokensPerChunk,
+            int maxRequests) {
+        this.firstTokenMillis = firstTokenMillis;
+        this.tokensPerSecond = tokensPerSecond;
+        this.tokens = Math.max(1, tokens);
+        this.tokensPerChunk = Math.max(1, tokensPerChunk);
+        this.serviceTimes = new LatencyRecorder(maxRequests);
+    }
+
+    public void start() throws IOException {
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "stub-ollama-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/api/chat", this::chat);
+        server.createContext("/api/tags", exchange -> respond(exchange, "{\"models\":[]}"));
+        server.createContext("/api/ps", this::runningModels);
+        server.start();
+    }
+
+    /**
+     * @return base URL of the stub, e.g. http://127.0.0.1:40123
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return time each request spent inside the stub
+     */
+    public LatencyRecorder serviceTimes() {
+        return serviceTimes;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void chat(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+        String model = request.path("model").asText("stub");
+        loadedModels.put(model, Instant.now().plus(KEEP_ALIVE));
+        if (request.path("messages").isEmpty()) {
+            respond(exchange, objectMapper.writeValueAsString(chunk(model, "", true, 0).put("done_reason", "load")));
+            return;
+        }
+        try {
+            int promptTokens = 0;
+            for (JsonNode message : request.path("messages")) {
+                promptTokens += message.path("content").asText().length() / 4;
+            }
+            boolean stream = request.path("stream").asBoolean(true);
+            exchange.getResponseHeaders().set("Content-Type", stream ? "application/x-ndjson" : "application/json");
+            sleep(firstTokenMillis);
+            if (stream) {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                for (int sent = 0; sent < tokens; sent += tokensPerChunk) {
+                    int count = Math.min(tokensPerChunk, tokens - sent);
+                    if (sent > 0) {
+                        sleep(generationMillis(count));
+                    }
+                    write(out, chunk(model, "tok ".repeat(count), false, promptTokens));
+                }
+                write(out, chunk(model, "", true, promptTokens));
+            } else {
+                sleep(generationMillis(tokens - 1));
+                byte[] body = objectMapper.writeValueAsBytes(chunk(model, "tok ".repeat(tokens), true, promptTokens));
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        } finally {
+            exchange.close();
+            serviceTimes.record(System.nanoTime() - start);
+        }
+    }
+
+    private void runningModels(HttpExchange exchange) throws IOException {
+        ObjectNode running = objectMapper.createObjectNode();
+        ArrayNode models = running.putArray("models");
+        loadedModels.forEach((model, expiresAt) -> models.addObject()
+                .put("name", model)
+                .put("model", model)
+                .put("expires_at", expiresAt.toString()));
+        respond(exchange, objectMapper.writeValueAsString(running));
+    }
+
+    private ObjectNode chunk(String model, String content, boolean done, int promptTokens) {
+        ObjectNode chunk = objectMapper.createObjectNode()
+                .put("model", model)
+                .put("created_at", Instant.now().toString())
+                .put("done", done);
+        chunk.putObject("message").put("role", "assistant").put("content", content);
+        if (done) {
+            chunk.put("done_reason", "stop")
+                    .put("prompt_eval_count", promptTokens)
+                    .put("eval_count", tokens);
+        }
+        return chunk;
+    }
+
+    private void write(OutputStream out, ObjectNode chunk) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(chunk));
+        out.write('\n');
+        out.flush();
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        try {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private long generationMillis(int count) {
+        return tokensPerSecond <= 0 ? 0 : (long) (count * 1000 / tokensPerSecond);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package project.ollama.chat.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Per-provider admission control settings for the chat endpoints
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.admission")
+@Data
+public class ChatAdmissionConfig {
+
+    /**
+     * Limits for providers without an entry in providers
+     */
+    private Limit defaults = new Limit();
+
+    /**
+     * Limits by provider name (ollama, oci)
+     */
+    private Map<String, Limit> providers = new LinkedHashMap<>();
+
+    /**
+     * Limits for a provider
+     *
+     * @param provider provider name
+     * @return the provider's limits, or the defaults
+     */
+    public Limit limit(String provider) {
+        return providers.getOrDefault(provider, defaults);
+    }
+
+    /**
+     * Concurrency and queue limits of one provider
+     */
+    @Data
+    public static class Limit {
+
+        /**
+         * Requests allowed to call the model at the same time
+         */
+        private int maxConcurrent = 4;
+
+        /**
+         * Requests allowed to wait for a free slot; further requests are rejected immediately
+         */
+        private int maxQueue = 16;
+
+        /**
+         * Longest time a request waits for a free slot before it is rejected
+         */
+        private long maxWaitMillis = 30000;
+    }
+}
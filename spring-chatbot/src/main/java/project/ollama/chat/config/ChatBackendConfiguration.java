@@ -0,0 +1,78 @@
+package project.ollama.chat.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.model.ollama.autoconfigure.OllamaChatProperties;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import project.ollama.chat.service.ChatBackendRouter;
+
+/**
+ * Builds the backend router for the Ollama provider. Each host in chat.routing.ollama gets its own
+ * ChatClient with the default Ollama chat options; without hosts the router has a single backend on the
+ * autoconfigured OllamaChatModel, which keeps its options, observation registry and retry template.
+ * RestClients use the JDK HttpClient, so interrupting a call aborts its request; the router relies on this to
+ * stop the losing call of a hedge.
+ */
+@Configuration
+public class ChatBackendConfiguration {
+
+    @Bean
+    public RestClientCustomizer interruptibleRestClient() {
+        return builder -> builder.requestFactory(new JdkClientHttpRequestFactory());
+    }
+
+    @Bean
+    public ChatBackendRouter ollamaBackendRouter(ChatRoutingConfig routingConfig,
+            ChatAdmissionConfig admissionConfig,
+            ObjectProvider<OllamaChatProperties> chatProperties,
+            ObjectProvider<OllamaChatModel> ollamaChatModel,
+            ObjectProvider<RestClient.Builder> restClientBuilders,
+            MeterRegistry meterRegistry,
+            @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl) {
+        List<ChatBackendRouter.Backend> backends = new ArrayList<>();
+        OllamaChatProperties properties = chatProperties.getIfAvailable();
+        for (ChatRoutingConfig.Backend backend : routingConfig.getOllama()) {
+            String name = backend.getName() != null ? backend.getName() : backend.getBaseUrl();
+            backends.add(backend(name, backend.getBaseUrl(), backend.getModel(), properties, restClientBuilders));
+        }
+        OllamaChatModel defaultModel = ollamaChatModel.getIfAvailable();
+        if (backends.isEmpty() && defaultModel != null) {
+            backends.add(new ChatBackendRouter.Backend("default", defaultModel.getDefaultOptions().getModel(),
+                    ChatClient.create(defaultModel)));
+        } else if (backends.isEmpty()) {
+            backends.add(backend("default", baseUrl, null, properties, restClientBuilders));
+        }
+        return new ChatBackendRouter("ollama", backends, routingConfig,
+                admissionConfig.limit("ollama").getMaxConcurrent(), meterRegistry);
+    }
+
+    private static ChatBackendRouter.Backend backend(String name, String baseUrl, String model,
+            OllamaChatProperties properties, ObjectProvider<RestClient.Builder> restClientBuilders) {
+        OllamaOptions options = properties != null
+                ? OllamaOptions.fromOptions(properties.getOptions())
+                : OllamaOptions.builder().build();
+        if (model != null && !model.isBlank()) {
+            options.setModel(model);
+        }
+        OllamaChatModel chatModel = OllamaChatModel.builder()
+                .ollamaApi(OllamaApi.builder()
+                        .baseUrl(baseUrl)
+                        .restClientBuilder(restClientBuilders.getIfAvailable(RestClient::builder))
+                        .build())
+                .defaultOptions(options)
+                .build();
+        return new ChatBackendRouter.Backend(name, options.getModel(), ChatClient.create(chatModel));
+    }
+}
@@ -0,0 +1,25 @@
+package project.ollama.chat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Settings for the batch chat endpoints
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.batch")
+@Data
+public class ChatBatchConfig {
+
+    /**
+     * Prompts of one batch sent to the model at the same time; capped at the provider's admission max-concurrent
+     */
+    private int parallelism = 4;
+
+    /**
+     * Largest number of prompts accepted in one batch
+     */
+    private int maxPrompts = 1000;
+}
@@ -0,0 +1,41 @@
+package project.ollama.chat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Response cache settings for the chat services
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.cache")
+@Data
+public class ChatCacheConfig {
+
+    /**
+     * Whether responses are cached at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Seconds a cached response stays valid
+     */
+    private long ttlSeconds = 600;
+
+    /**
+     * Upper bound on cached responses; the least recently used entry is evicted first
+     */
+    private int maxEntries = 1000;
+
+    /**
+     * Upper bound on the estimated memory held by cached prompts and responses
+     */
+    private long maxBytes = 16L * 1024 * 1024;
+
+    /**
+     * Highest sampling temperature whose responses are cached; answers at higher temperatures vary
+     * from call to call and are never cached
+     */
+    private double maxTemperature = 0.1;
+}
@@ -0,0 +1,45 @@
+package project.ollama.chat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Conversation memory settings for chat sessions
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.memory")
+@Data
+public class ChatMemoryConfig {
+
+    /**
+     * Whether requests with a session header keep conversation history
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on sessions kept; the least recently used session is dropped first
+     */
+    private int maxSessions = 10000;
+
+    /**
+     * Minutes without a request after which a session is dropped
+     */
+    private long idleMinutes = 30;
+
+    /**
+     * Estimated tokens of history (summary plus recent turns) sent with each request
+     */
+    private int tokenBudget = 2048;
+
+    /**
+     * Estimated tokens the summary of older turns is asked to stay within
+     */
+    private int summaryTokens = 256;
+
+    /**
+     * Characters per token used to estimate token counts
+     */
+    private int charsPerToken = 4;
+}
@@ -0,0 +1,89 @@
+package project.ollama.chat.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Routing settings for chat providers served by several backends
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.routing")
+@Data
+public class ChatRoutingConfig {
+
+    /**
+     * Ollama hosts to route between; when empty, spring.ai.ollama.base-url is the only host
+     */
+    private List<Backend> ollama = new ArrayList<>();
+
+    /**
+     * Latency samples kept per backend for percentile estimates
+     */
+    private int latencyWindow = 64;
+
+    /**
+     * Seconds a backend is skipped after a failure; doubles with each consecutive failure
+     */
+    private long failureCooldownSeconds = 5;
+
+    /**
+     * Upper bound on the failure cooldown
+     */
+    private long maxFailureCooldownSeconds = 120;
+
+    /**
+     * Hedged request settings
+     */
+    private Hedge hedge = new Hedge();
+
+    /**
+     * One backend of a provider
+     */
+    @Data
+    public static class Backend {
+
+        /**
+         * Name used in logs and metrics
+         */
+        private String name;
+
+        /**
+         * Base URL of the Ollama server
+         */
+        private String baseUrl;
+
+        /**
+         * Model to use on this host; defaults to spring.ai.ollama.chat.options.model. Responses are not cached
+         * while hosts serve different models
+         */
+        private String model;
+    }
+
+    /**
+     * Hedged requests send a duplicate to the next best backend when the first has not answered
+     * within its usual latency; the first answer wins and the other call is cancelled
+     */
+    @Data
+    public static class Hedge {
+
+        /**
+         * Whether hedged requests are sent
+         */
+        private boolean enabled = false;
+
+        /**
+         * Latency percentile of the primary backend after which the duplicate is sent
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Lower bound on the hedge delay, also used while a backend has no latency samples
+         */
+        private long minDelayMillis = 500;
+    }
+}
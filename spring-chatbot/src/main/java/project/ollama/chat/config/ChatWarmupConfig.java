@@ -0,0 +1,36 @@
+package project.ollama.chat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Model warm-up and keep-alive settings for the Ollama provider
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.warmup")
+@Data
+public class ChatWarmupConfig {
+
+    /**
+     * Whether the model is preloaded at startup and kept loaded while there is traffic
+     */
+    private boolean enabled = true;
+
+    /**
+     * Ollama keep_alive sent with the preload and keep-alive requests, e.g. 10m
+     */
+    private String keepAlive = "10m";
+
+    /**
+     * Seconds between checks of the loaded models; a keep-alive request is sent when the model would
+     * unload within two checks
+     */
+    private long checkIntervalSeconds = 30;
+
+    /**
+     * Minutes without a chat request after which the model is left to unload; 0 keeps it loaded
+     */
+    private long idleMinutes = 60;
+}
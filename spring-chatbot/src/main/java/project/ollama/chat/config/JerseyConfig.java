@@ -0,0 +1,20 @@
+package project.ollama.chat.config;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.springframework.stereotype.Component;
+import project.ollama.chat.controller.ChatController;
+
+/**
+ * Jersey application; registers the chat resources. Actuator endpoints are added by Spring Boot.
+ * The outbound content-length buffer is turned off: Jersey would otherwise hold back the first 8 KB of every
+ * response to compute a Content-Length, so streamed answers would arrive all at once instead of token by token.
+ */
+@Component
+public class JerseyConfig extends ResourceConfig {
+
+    public JerseyConfig() {
+        property(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, 0);
+        register(ChatController.class);
+    }
+}
@@ -1,48 +1,294 @@
 package project.ollama.chat.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.ObjectProvider;
+import project.ollama.chat.service.ChatBatchService;
+import project.ollama.chat.service.ChatOverloadedException;
+import project.ollama.chat.service.ChatResponseCache;
+import project.ollama.chat.service.ConversationMemoryService;
 import project.ollama.chat.service.OciChatbotService;
 import project.ollama.chat.service.OllamaChatbotService;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
 
 /**
  * REST entrypoint for the Ollama-backed chatbot using Jersey (JAX-RS).
+ * The /stream variants return tokens as they are generated: as chunked text/plain by default,
+ * or as Server-Sent Events when the client accepts text/event-stream.
+ * Cache-Control: no-cache skips the response cache lookup for a request and no-store bypasses the cache entirely.
+ * Each provider admits a limited number of concurrent model calls; when a request needs the model and the wait
+ * queue is full or the request waits too long, it is answered with 429 Too Many Requests and a Retry-After header.
+ * The /batch variants answer many prompts in one request and stream one NDJSON line per prompt as it completes.
+ * Requests carrying an X-Chat-Session header continue that session's conversation.
  */
 @Component
 @Path("/chat")
 public class ChatController {
 
+    private static final String OLLAMA = "ollama";
+    private static final String OCI = "oci";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String SESSION_HEADER = "X-Chat-Session";
+
     private final OllamaChatbotService chatbotService;
     private final OciChatbotService ociChatbotService;
+    private final ChatBatchService batchService;
+    private final ConversationMemoryService memory;
 
-    public ChatController(OllamaChatbotService chatbotService, ObjectProvider<OciChatbotService> ociChatbotService) {
+    public ChatController(OllamaChatbotService chatbotService, ObjectProvider<OciChatbotService> ociChatbotService,
+            ChatBatchService batchService, ConversationMemoryService memory) {
         this.chatbotService = chatbotService;
         this.ociChatbotService = ociChatbotService.getIfAvailable();
+        this.batchService = batchService;
+        this.memory = memory;
     }
 
     @POST
     @Path("/ollama")
     @Consumes(MediaType.TEXT_PLAIN)
     @Produces(MediaType.TEXT_PLAIN)
-    public Response chatOllama(String message) {
-        return Response.ok(chatbotService.chat(message)).build();
+    public Response chatOllama(String message, @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl,
+            @HeaderParam(SESSION_HEADER) String sessionId) {
+        try {
+            return Response.ok(chatbotService.chat(message, cacheMode(cacheControl), sessionId)).build();
+        } catch (ChatOverloadedException e) {
+            return tooManyRequests(e);
+        }
     }
 
     @POST
     @Path("/oci")
     @Consumes(MediaType.TEXT_PLAIN)
     @Produces(MediaType.TEXT_PLAIN)
-    public Response chatOci(String message) {
+    public Response chatOci(String message, @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl,
+            @HeaderParam(SESSION_HEADER) String sessionId) {
         if (ociChatbotService == null) {
-            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
-                    .entity("OCI chat is not configured").build();
+            return ociUnavailable();
+        }
+        try {
+            return Response.ok(ociChatbotService.chat(message, cacheMode(cacheControl), sessionId)).build();
+        } catch (ChatOverloadedException e) {
+            return tooManyRequests(e);
+        }
+    }
+
+    @POST
+    @Path("/ollama/stream")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response streamOllama(String message, @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl,
+            @HeaderParam(SESSION_HEADER) String sessionId) {
+        ChatResponseCache.Mode mode = cacheMode(cacheControl);
+        try {
+            return streamText(chatbotService.stream(message, mode, sessionId));
+        } catch (ChatOverloadedException e) {
+            return tooManyRequests(e);
+        }
+    }
+
+    @POST
+    @Path("/ollama/stream")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamOllamaEvents(String message, @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl,
+            @HeaderParam(SESSION_HEADER) String sessionId, @Context SseEventSink sink, @Context Sse sse) {
+        ChatResponseCache.Mode mode = cacheMode(cacheControl);
+        streamEvents(startStream(() -> chatbotService.stream(message, mode, sessionId)), sink, sse);
+    }
+
+    @POST
+    @Path("/oci/stream")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response streamOci(String message, @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl,
+            @HeaderParam(SESSION_HEADER) String sessionId) {
+        if (ociChatbotService == null) {
+            return ociUnavailable();
+        }
+        ChatResponseCache.Mode mode = cacheMode(cacheControl);
+        try {
+            return streamText(ociChatbotService.stream(message, mode, sessionId));
+        } catch (ChatOverloadedException e) {
+            return tooManyRequests(e);
+        }
+    }
+
+    @POST
+    @Path("/oci/stream")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamOciEvents(String message, @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl,
+            @HeaderParam(SESSION_HEADER) String sessionId, @Context SseEventSink sink, @Context Sse sse) {
+        if (ociChatbotService == null) {
+            throw new WebApplicationException(ociUnavailable());
+        }
+        ChatResponseCache.Mode mode = cacheMode(cacheControl);
+        streamEvents(startStream(() -> ociChatbotService.stream(message, mode, sessionId)), sink, sse);
+    }
+
+    @POST
+    @Path("/{provider}/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(NDJSON)
+    public Response batch(@PathParam("provider") String provider, List<String> prompts,
+            @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl) {
+        return batchResponse(provider, prompts, cacheControl);
+    }
+
+    @POST
+    @Path("/{provider}/batch")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(NDJSON)
+    public Response batchLines(@PathParam("provider") String provider, String prompts,
+            @HeaderParam(HttpHeaders.CACHE_CONTROL) String cacheControl) {
+        List<String> lines = prompts == null ? List.of()
+                : Arrays.stream(prompts.split("\\R")).filter(line -> !line.isBlank()).toList();
+        return batchResponse(provider, lines, cacheControl);
+    }
+
+    @DELETE
+    @Path("/{provider}/session")
+    public Response endSession(@PathParam("provider") String provider, @HeaderParam(SESSION_HEADER) String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(SESSION_HEADER + " header is required").build();
+        }
+        return memory.clear(provider, sessionId)
+                ? Response.noContent().build()
+                : Response.status(Response.Status.NOT_FOUND).build();
+    }
+
+    private Response batchResponse(String provider, List<String> prompts, String cacheControl) {
+        ChatResponseCache.Mode mode = cacheMode(cacheControl);
+        Function<String, String> chat;
+        if (OLLAMA.equals(provider)) {
+            chat = message -> chatbotService.chat(message, mode);
+        } else if (OCI.equals(provider)) {
+            if (ociChatbotService == null) {
+                return ociUnavailable();
+            }
+            chat = message -> ociChatbotService.chat(message, mode);
+        } else {
+            return Response.status(Response.Status.NOT_FOUND).entity("Unknown chat provider: " + provider).build();
+        }
+        try {
+            batchService.validate(prompts);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        Flux<String> lines = batchService.run(provider, prompts, chat).map(line -> line + "\n");
+        return Response.ok(chunks(lines), NDJSON).build();
+    }
+
+    private Flux<String> startStream(Supplier<Flux<String>> tokens) {
+        try {
+            return tokens.get();
+        } catch (ChatOverloadedException e) {
+            throw new WebApplicationException(tooManyRequests(e));
         }
-        return Response.ok(ociChatbotService.chat(message)).build();
+    }
+
+    private static Response tooManyRequests(ChatOverloadedException e) {
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                .entity(e.getMessage()).build();
+    }
+
+    private static ChatResponseCache.Mode cacheMode(String cacheControl) {
+        return ChatResponseCache.Mode.fromCacheControl(cacheControl);
+    }
+
+    private Response ociUnavailable() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity("OCI chat is not configured").build();
+    }
+
+    private Response streamText(Flux<String> tokens) {
+        MediaType type = MediaType.TEXT_PLAIN_TYPE.withCharset(StandardCharsets.UTF_8.name());
+        return Response.ok(chunks(tokens), type).build();
+    }
+
+    /**
+     * Writes each chunk and flushes it, so the response goes out chunked as tokens arrive.
+     * Closing the stream cancels the model call when the client disconnects.
+     */
+    private static StreamingOutput chunks(Flux<String> chunks) {
+        return output -> {
+            try (Stream<String> stream = chunks.toStream(1)) {
+                stream.forEach(chunk -> write(output, chunk));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static void write(OutputStream output, String chunk) {
+        try {
+            output.write(chunk.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends one "token" event per chunk, then a "done" event, or an "error" event if the model call fails.
+     * The subscription is cancelled when the client goes away.
+     */
+    private void streamEvents(Flux<String> tokens, SseEventSink sink, Sse sse) {
+        tokens.subscribe(new BaseSubscriber<String>() {
+            @Override
+            protected void hookOnNext(String token) {
+                if (sink.isClosed()) {
+                    dispose();
+                    return;
+                }
+                sink.send(sse.newEventBuilder().name("token").data(token).build())
+                        .exceptionally(error -> {
+                            dispose();
+                            return null;
+                        });
+            }
+
+            @Override
+            protected void hookOnError(Throwable error) {
+                if (!sink.isClosed()) {
+                    sink.send(sse.newEvent("error", String.valueOf(error.getMessage())));
+                    sink.close();
+                }
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                if (!sink.isClosed()) {
+                    sink.send(sse.newEvent("done", ""));
+                    sink.close();
+                }
+            }
+        });
     }
 }
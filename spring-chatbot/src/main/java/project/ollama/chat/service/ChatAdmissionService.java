@@ -0,0 +1,205 @@
+package project.ollama.chat.service;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import project.ollama.chat.config.ChatAdmissionConfig;
+import reactor.core.publisher.Flux;
+
+/**
+ * Admission control for chat requests. Each provider has a fixed number of slots for concurrent model calls
+ * and a bounded queue of requests waiting for a slot. A request that finds the queue full, or waits longer than
+ * the provider's deadline, is rejected with {@link ChatOverloadedException} so overload turns into fast 429s
+ * instead of blocked server threads. Background work such as batch prompts can instead wait for a slot as long as
+ * it takes, outside the queue budget (see {@link #waiting(Supplier)}). Queue depth, active calls, wait time and
+ * rejections are published as chat.admission.* metrics.
+ */
+@Service
+public class ChatAdmissionService {
+
+    // set while the current thread runs work that waits for slots instead of queueing
+    private static final ThreadLocal<Boolean> WAITING = ThreadLocal.withInitial(() -> false);
+
+    private final ChatAdmissionConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+
+    public ChatAdmissionService(ChatAdmissionConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * A held slot; closing it frees the slot for the next queued request
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Wait for a free slot of the provider
+     *
+     * @param provider provider name
+     * @return the held slot
+     * @throws ChatOverloadedException when the queue is full or the deadline passes
+     */
+    public Permit acquire(String provider) {
+        return gate(provider).acquire();
+    }
+
+    /**
+     * Hold a slot of the provider for the lifetime of a stream. The slot is taken before returning, so
+     * overload is reported before any response is written, and freed when the stream terminates or is cancelled.
+     *
+     * @param provider provider name
+     * @param tokens   supplies the stream once a slot is held
+     * @return the stream
+     * @throws ChatOverloadedException when the queue is full or the deadline passes
+     */
+    public Flux<String> stream(String provider, Supplier<Flux<String>> tokens) {
+        Permit permit = acquire(provider);
+        try {
+            return tokens.get().doFinally(signal -> permit.close());
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Run work whose slot requests on this thread wait until a slot is free. They neither count against the
+     * provider's max-queue nor give up after max-wait-millis, so a batch is slowed down by interactive load
+     * instead of failing.
+     *
+     * @param work the work, run on the current thread
+     * @param <T>  result type
+     * @return the result of the work
+     */
+    public <T> T waiting(Supplier<T> work) {
+        boolean previous = WAITING.get();
+        WAITING.set(true);
+        try {
+            return work.get();
+        } finally {
+            WAITING.set(previous);
+        }
+    }
+
+    /**
+     * Number of model calls the provider admits at once
+     *
+     * @param provider provider name
+     * @return the provider's max-concurrent
+     */
+    public int maxConcurrent(String provider) {
+        return config.limit(provider).getMaxConcurrent();
+    }
+
+    private Gate gate(String provider) {
+        return gates.computeIfAbsent(provider, name -> new Gate(name, config.limit(name)));
+    }
+
+    private final class Gate {
+        private final String provider;
+        private final ChatAdmissionConfig.Limit limit;
+        private final Semaphore slots;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTimer;
+        // moving average of how long a slot is held, used for the Retry-After estimate
+        private volatile double averageHoldMillis = 1000;
+
+        Gate(String provider, ChatAdmissionConfig.Limit limit) {
+            this.provider = provider;
+            this.limit = limit;
+            this.slots = new Semaphore(limit.getMaxConcurrent(), true);
+            this.waitTimer = Timer.builder("chat.admission.wait")
+                    .description("Time requests waited for a model slot")
+                    .tag("provider", provider)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            Gauge.builder("chat.admission.queue.depth", waiting, AtomicInteger::get)
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+            Gauge.builder("chat.admission.active", slots, s -> limit.getMaxConcurrent() - s.availablePermits())
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+        }
+
+        Permit acquire() {
+            if (WAITING.get()) {
+                return acquireWaiting();
+            }
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                // a zero timeout honours fairness, so a new request cannot overtake queued ones
+                if (slots.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                    waitTimer.record(0, TimeUnit.NANOSECONDS);
+                    return permit();
+                }
+                if (waiting.incrementAndGet() > limit.getMaxQueue()) {
+                    waiting.decrementAndGet();
+                    throw reject("queue_full", "Chat provider " + provider + " is busy, queue is full");
+                }
+                try {
+                    acquired = slots.tryAcquire(limit.getMaxWaitMillis(), TimeUnit.MILLISECONDS);
+                } finally {
+                    waiting.decrementAndGet();
+                    waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                throw reject("timeout", "Chat provider " + provider + " is busy, no slot within "
+                        + limit.getMaxWaitMillis() + "ms");
+            }
+            return permit();
+        }
+
+        private Permit acquireWaiting() {
+            long start = System.nanoTime();
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for a " + provider + " slot");
+            } finally {
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return permit();
+        }
+
+        private Permit permit() {
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return () -> {
+                if (released.compareAndSet(false, true)) {
+                    double held = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    averageHoldMillis = 0.8 * averageHoldMillis + 0.2 * held;
+                    slots.release();
+                }
+            };
+        }
+
+        private ChatOverloadedException reject(String reason, String message) {
+            meterRegistry.counter("chat.admission.rejected", "provider", provider, "reason", reason).increment();
+            // time for the requests ahead of a retry to drain through the available slots
+            double drainMillis = averageHoldMillis * (waiting.get() + 1) / Math.max(1, limit.getMaxConcurrent());
+            long retryAfter = Math.max(1, (long) Math.ceil(drainMillis / 1000));
+            return new ChatOverloadedException(provider, message, retryAfter);
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package project.ollama.chat.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClient;
+import project.ollama.chat.config.ChatRoutingConfig;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes chat calls of one provider across several ChatClient backends. Each backend keeps a moving latency
+ * estimate (total time for blocking calls, time to first token for streams) and a health score from recent
+ * outcomes. Calls go to the healthy backend with the best latency-to-health ratio; a failing backend is skipped
+ * for a cooldown that grows with consecutive failures, and a failed call is retried on the next backend.
+ * Streams fail over only until their first token. With hedging enabled, a duplicate call is sent to the
+ * runner-up once the primary has taken longer than its configured latency percentile; the first answer wins.
+ * The losing call is cancelled by interrupting its thread (or cancelling its subscription, for streams). With the
+ * JDK HttpClient request factory this aborts the HTTP exchange, and Ollama stops generating once the connection
+ * closes; clients that ignore interrupts run the losing call to completion. Hedged calls run on a pool bounded
+ * at backends x max-concurrent threads; while every thread is taken, calls run without a hedge.
+ */
+@Slf4j
+public class ChatBackendRouter implements AutoCloseable {
+
+    private static final double ALPHA = 0.2;
+
+    /**
+     * A named ChatClient backend
+     *
+     * @param name   name used in logs and metrics
+     * @param model  model the backend serves
+     * @param client client for the backend
+     */
+    public record Backend(String name, String model, ChatClient client) {
+    }
+
+    private final String provider;
+    private final ChatRoutingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final List<State> states = new ArrayList<>();
+    private final ExecutorService hedgeExecutor;
+
+    /**
+     * Constructor for ChatBackendRouter
+     *
+     * @param provider      provider name, used in logs and metrics
+     * @param backends      backends to route between
+     * @param config        routing settings
+     * @param maxConcurrent model calls the provider admits at once; bounds the hedge pool
+     * @param meterRegistry registry for the chat.backend.* metrics
+     */
+    public ChatBackendRouter(String provider, List<Backend> backends, ChatRoutingConfig config, int maxConcurrent,
+            MeterRegistry meterRegistry) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one backend is required for " + provider);
+        }
+        this.provider = provider;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        for (Backend backend : backends) {
+            states.add(new State(backend));
+        }
+        AtomicInteger threads = new AtomicInteger();
+        int maxThreads = Math.max(2, backends.size() * Math.max(1, maxConcurrent));
+        this.hedgeExecutor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, provider + "-hedge-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Run a blocking call on the best backend, failing over to the others
+     *
+     * @param work the call to make with a backend's ChatClient
+     * @return the first successful result
+     */
+    public String call(Function<ChatClient, String> work) {
+        List<State> order = ranked(false);
+        if (hedging(order)) {
+            return callHedged(order, work);
+        }
+        return failover(order, 0, work, null);
+    }
+
+    /**
+     * Stream from the best backend, failing over to the others until the first token has been received
+     *
+     * @param work the streaming call to make with a backend's ChatClient
+     * @return response chunks, in order
+     */
+    public Flux<String> stream(Function<ChatClient, Flux<String>> work) {
+        return Flux.defer(() -> {
+            List<State> order = ranked(true);
+            return streamFrom(order, 0, work);
+        });
+    }
+
+    /**
+     * Names of the configured backends
+     *
+     * @return backend names, in configuration order
+     */
+    public List<String> backendNames() {
+        return states.stream().map(state -> state.backend.name()).toList();
+    }
+
+    /**
+     * Model served by every backend
+     *
+     * @return the common model, or null when backends serve different models
+     */
+    public String model() {
+        List<String> models = states.stream().map(state -> state.backend.model()).distinct().toList();
+        return models.size() == 1 ? models.get(0) : null;
+    }
+
+    @Override
+    public void close() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private String failover(List<State> order, int from, Function<ChatClient, String> work,
+            RuntimeException failure) {
+        for (int index = from; index < order.size(); index++) {
+            try {
+                return attempt(order.get(index), work);
+            } catch (RuntimeException e) {
+                if (failure != null) {
+                    e.addSuppressed(failure);
+                }
+                failure = e;
+                log.warn("Chat backend {}/{} failed: {}", provider, order.get(index).backend.name(), e.getMessage());
+            }
+        }
+        throw failure;
+    }
+
+    private String callHedged(List<State> order, Function<ChatClient, String> work) {
+        State primary = order.get(0);
+        State secondary = order.get(1);
+        ExecutorCompletionService<String> completion = new ExecutorCompletionService<>(hedgeExecutor);
+        AtomicBoolean decided = new AtomicBoolean();
+        List<Future<String>> calls = new ArrayList<>();
+        if (!submit(completion, calls, () -> attempt(primary, work, decided))) {
+            return failover(order, 0, work, null);
+        }
+        int pending = 1;
+        RuntimeException failure = null;
+        try {
+            Future<String> done = completion.poll(hedgeDelayMillis(primary.callLatency), TimeUnit.MILLISECONDS);
+            if (done != null) {
+                pending--;
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    failure = unwrap(e);
+                }
+            }
+            if (submit(completion, calls, () -> attempt(secondary, work, decided))) {
+                pending++;
+                if (done == null) {
+                    meterRegistry.counter("chat.backend.hedged", "provider", provider).increment();
+                }
+            } else if (pending == 0) {
+                return failover(order, 1, work, failure);
+            }
+            while (pending > 0) {
+                Future<String> next = completion.take();
+                pending--;
+                try {
+                    return next.get();
+                } catch (ExecutionException e) {
+                    RuntimeException error = unwrap(e);
+                    if (failure != null) {
+                        error.addSuppressed(failure);
+                    }
+                    failure = error;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for " + provider);
+        } finally {
+            decided.set(true);
+            calls.forEach(call -> call.cancel(true));
+        }
+        return failover(order, 2, work, failure);
+    }
+
+    /**
+     * Submit a call to the hedge pool
+     *
+     * @return false when every hedge thread is taken, e.g. by losing calls that are still running
+     */
+    private boolean submit(ExecutorCompletionService<String> completion, List<Future<String>> calls,
+            Callable<String> call) {
+        try {
+            calls.add(completion.submit(call));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("No hedge thread free for {}", provider);
+            return false;
+        }
+    }
+
+    private String attempt(State state, Function<ChatClient, String> work) {
+        return attempt(state, work, new AtomicBoolean());
+    }
+
+    private String attempt(State state, Function<ChatClient, String> work, AtomicBoolean abandoned) {
+        long start = System.nanoTime();
+        try {
+            String result = work.apply(state.backend.client());
+            state.success(state.callLatency, elapsedMillis(start));
+            return result;
+        } catch (RuntimeException e) {
+            if (abandoned.get()) {
+                // lost a hedge race: the call took at least this long, but says nothing about health
+                state.callLatency.record(elapsedMillis(start));
+                state.outcome("cancelled");
+            } else {
+                state.failure();
+            }
+            throw e;
+        }
+    }
+
+    private Flux<String> streamFrom(List<State> order, int index, Function<ChatClient, Flux<String>> work) {
+        AtomicBoolean emitted = new AtomicBoolean();
+        Flux<String> tokens = attemptStream(order.get(index), work);
+        int next = index + 1;
+        if (index == 0 && hedging(order)) {
+            State secondary = order.get(1);
+            Flux<String> hedged = Mono.delay(Duration.ofMillis(hedgeDelayMillis(order.get(0).firstTokenLatency)))
+                    .doOnNext(tick -> meterRegistry.counter("chat.backend.hedged", "provider", provider).increment())
+                    .thenMany(attemptStream(secondary, work));
+            tokens = Flux.firstWithValue(tokens, hedged);
+            next = 2;
+        }
+        int fallback = next;
+        return tokens
+                .doOnNext(token -> emitted.set(true))
+                .onErrorResume(e -> {
+                    if (emitted.get() || fallback >= order.size()) {
+                        return Flux.error(e);
+                    }
+                    log.warn("Chat backend {}/{} failed before the first token: {}", provider,
+                            order.get(index).backend.name(), e.getMessage());
+                    return streamFrom(order, fallback, work);
+                });
+    }
+
+    private Flux<String> attemptStream(State state, Function<ChatClient, Flux<String>> work) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return work.apply(state.backend.client())
+                    .doOnNext(token -> {
+                        if (first.compareAndSet(true, false)) {
+                            state.success(state.firstTokenLatency, elapsedMillis(start));
+                        }
+                    })
+                    .doOnError(error -> state.failure())
+                    .doOnCancel(() -> {
+                        if (first.get()) {
+                            state.firstTokenLatency.record(elapsedMillis(start));
+                            state.outcome("cancelled");
+                        }
+                    });
+        });
+    }
+
+    private boolean hedging(List<State> order) {
+        return config.getHedge().isEnabled() && order.size() > 1 && order.get(1).healthy(System.currentTimeMillis());
+    }
+
+    private long hedgeDelayMillis(Latency latency) {
+        return Math.max(config.getHedge().getMinDelayMillis(), latency.percentile(config.getHedge().getPercentile()));
+    }
+
+    /**
+     * Healthy backends first, ordered by latency estimate divided by health; backends in cooldown last
+     */
+    private List<State> ranked(boolean streaming) {
+        long now = System.currentTimeMillis();
+        List<State> order = new ArrayList<>(states);
+        order.sort(Comparator.comparing((State state) -> !state.healthy(now))
+                .thenComparingDouble(state -> state.score(streaming ? state.firstTokenLatency : state.callLatency)));
+        return order;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private final class State {
+        final Backend backend;
+        final Latency callLatency = new Latency(config.getLatencyWindow());
+        final Latency firstTokenLatency = new Latency(config.getLatencyWindow());
+        // moving success rate, 1.0 = every recent call succeeded
+        volatile double health = 1.0;
+        volatile int consecutiveFailures;
+        volatile long cooldownUntil;
+
+        State(Backend backend) {
+            this.backend = backend;
+            Gauge.builder("chat.backend.latency", callLatency, Latency::average)
+                    .tag("provider", provider).tag("backend", backend.name()).baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("chat.backend.first.token.latency", firstTokenLatency, Latency::average)
+                    .tag("provider", provider).tag("backend", backend.name()).baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("chat.backend.health", this, state -> state.health)
+                    .tag("provider", provider).tag("backend", backend.name())
+                    .register(meterRegistry);
+        }
+
+        boolean healthy(long now) {
+            return now >= cooldownUntil;
+        }
+
+        double score(Latency latency) {
+            // backends without samples score 0 so they get tried
+            return latency.average() / Math.max(health, 0.05);
+        }
+
+        synchronized void success(Latency latency, long millis) {
+            latency.record(millis);
+            health = health + ALPHA * (1.0 - health);
+            consecutiveFailures = 0;
+            cooldownUntil = 0;
+            outcome("success");
+        }
+
+        synchronized void failure() {
+            health = health * (1.0 - ALPHA);
+            consecutiveFailures++;
+            long cooldown = Math.min(config.getMaxFailureCooldownSeconds(),
+                    config.getFailureCooldownSeconds() << Math.min(consecutiveFailures - 1, 20));
+            cooldownUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(cooldown);
+            outcome("failure");
+        }
+
+        void outcome(String outcome) {
+            meterRegistry.counter("chat.backend.requests", "provider", provider, "backend", backend.name(),
+                    "outcome", outcome).increment();
+        }
+    }
+
+    /**
+     * Moving average and sliding window of latency samples
+     */
+    private static final class Latency {
+        private final long[] window;
+        private int count;
+        private int next;
+        private double average;
+
+        Latency(int size) {
+            this.window = new long[Math.max(1, size)];
+        }
+
+        synchronized void record(long millis) {
+            average = count == 0 ? millis : average + ALPHA * (millis - average);
+            window[next] = millis;
+            next = (next + 1) % window.length;
+            count = Math.min(count + 1, window.length);
+        }
+
+        synchronized double average() {
+            return average;
+        }
+
+        synchronized long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] samples = Arrays.copyOf(window, count);
+            Arrays.sort(samples);
+            int rank = (int) Math.ceil(percentile * count) - 1;
+            return samples[Math.max(0, Math.min(rank, count - 1))];
+        }
+    }
+}
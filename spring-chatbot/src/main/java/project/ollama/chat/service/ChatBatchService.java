@@ -0,0 +1,80 @@
+package project.ollama.chat.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Service;
+import project.ollama.chat.config.ChatBatchConfig;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs a batch of prompts against one provider with bounded parallelism. Each prompt becomes one NDJSON line,
+ * emitted as soon as its answer is ready, so lines arrive in completion order and carry the input index:
+ * {"index":0,"response":"..."} or {"index":1,"error":"..."}. A failed prompt does not stop the batch.
+ * Prompts wait for an admission slot instead of being rejected when the provider is busy, and no more of them
+ * run at once than the provider admits.
+ */
+@Service
+public class ChatBatchService {
+
+    private final ChatBatchConfig config;
+    private final ChatAdmissionService admission;
+    private final ObjectMapper objectMapper;
+
+    public ChatBatchService(ChatBatchConfig config, ChatAdmissionService admission, ObjectMapper objectMapper) {
+        this.config = config;
+        this.admission = admission;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Check the size of a batch
+     *
+     * @param prompts batch prompts
+     * @throws IllegalArgumentException when the batch is empty or larger than chat.batch.max-prompts
+     */
+    public void validate(List<String> prompts) {
+        if (prompts == null || prompts.isEmpty()) {
+            throw new IllegalArgumentException("At least one prompt is required");
+        }
+        if (prompts.size() > config.getMaxPrompts()) {
+            throw new IllegalArgumentException("Batch has " + prompts.size() + " prompts, the limit is "
+                    + config.getMaxPrompts());
+        }
+    }
+
+    /**
+     * Answer every prompt, at most chat.batch.parallelism and the provider's max-concurrent at a time. Prompts that
+     * reach the model take an admission slot of the provider in the chat call, so batches share the provider's
+     * concurrency limit with interactive requests; they wait for the slot rather than using the interactive queue.
+     *
+     * @param provider provider name
+     * @param prompts  batch prompts
+     * @param chat     blocking chat call of the provider
+     * @return NDJSON lines without line terminators, in completion order
+     */
+    public Flux<String> run(String provider, List<String> prompts, Function<String, String> chat) {
+        validate(prompts);
+        int parallelism = Math.max(1, Math.min(config.getParallelism(), admission.maxConcurrent(provider)));
+        return Flux.range(0, prompts.size())
+                .flatMap(index -> Mono.fromCallable(() -> answer(index, prompts.get(index), chat))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                        parallelism);
+    }
+
+    private String answer(int index, String prompt, Function<String, String> chat)
+            throws JsonProcessingException {
+        ObjectNode line = objectMapper.createObjectNode().put("index", index);
+        try {
+            line.put("response", admission.waiting(() -> chat.apply(prompt)));
+        } catch (RuntimeException e) {
+            line.put("error", String.valueOf(e.getMessage()));
+        }
+        return objectMapper.writeValueAsString(line);
+    }
+}
@@ -0,0 +1,176 @@
+package project.ollama.chat.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Micrometer instrumentation of model calls, tagged by provider and model:
+ * <ul>
+ * <li>chat.model.latency - whole call, tagged mode (call or stream) and outcome (success or error)</li>
+ * <li>chat.model.first.token - time to the first non-empty chunk of a stream</li>
+ * <li>chat.model.tokens - prompt and completion tokens reported by the model, tagged type</li>
+ * <li>chat.model.tokens.per.second - completion tokens over generation time (after the first token for
+ * streams)</li>
+ * <li>chat.model.errors - failed calls, tagged with the exception type</li>
+ * </ul>
+ * The model tag is the model named in the response, i.e. the model of the backend that served the call; the
+ * configured model is used for failed calls and responses without one. The timers publish histogram buckets,
+ * so percentiles can be computed in Prometheus.
+ */
+@Component
+public class ChatMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Time a blocking model call and record its token usage
+     *
+     * @param provider provider name
+     * @param model    configured model name, used when the response does not name one
+     * @param call     the model call
+     * @return the response text
+     */
+    public String call(String provider, String model, Supplier<ChatResponse> call) {
+        long start = System.nanoTime();
+        ChatResponse response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            failed(provider, modelTag(model), "call", start, e);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        String modelTag = modelTag(servedModel(response, model));
+        latency(provider, modelTag, "call", "success").record(elapsed, TimeUnit.NANOSECONDS);
+        usage(provider, modelTag, response == null ? null : response.getMetadata().getUsage(), elapsed);
+        return text(response);
+    }
+
+    /**
+     * Time a streaming model call, its first token and its token usage
+     *
+     * @param provider provider name
+     * @param model    configured model name, used when the response does not name one
+     * @param stream   the streaming model call
+     * @return response text chunks, in order
+     */
+    public Flux<String> stream(String provider, String model, Supplier<Flux<ChatResponse>> stream) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong firstToken = new AtomicLong();
+            AtomicReference<Usage> usage = new AtomicReference<>();
+            AtomicReference<String> servedModel = new AtomicReference<>(model);
+            return stream.get()
+                    .doOnNext(response -> {
+                        servedModel.set(servedModel(response, servedModel.get()));
+                        Usage reported = response.getMetadata().getUsage();
+                        if (reported != null && reported.getCompletionTokens() != null
+                                && reported.getCompletionTokens() > 0) {
+                            usage.set(reported);
+                        }
+                    })
+                    .map(ChatMetrics::text)
+                    .filter(chunk -> !chunk.isEmpty())
+                    .doOnNext(chunk -> {
+                        if (firstToken.compareAndSet(0, System.nanoTime())) {
+                            firstTokenTimer(provider, modelTag(servedModel.get()))
+                                    .record(firstToken.get() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(error -> failed(provider, modelTag(servedModel.get()), "stream", start, error))
+                    .doOnComplete(() -> {
+                        long end = System.nanoTime();
+                        String modelTag = modelTag(servedModel.get());
+                        latency(provider, modelTag, "stream", "success").record(end - start, TimeUnit.NANOSECONDS);
+                        long generationStart = firstToken.get() == 0 ? start : firstToken.get();
+                        usage(provider, modelTag, usage.get(), end - generationStart);
+                    });
+        });
+    }
+
+    private void failed(String provider, String model, String mode, long start, Throwable error) {
+        latency(provider, model, mode, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("chat.model.errors", "provider", provider, "model", model,
+                "error", error.getClass().getSimpleName()).increment();
+    }
+
+    private void usage(String provider, String model, Usage usage, long generationNanos) {
+        if (usage == null) {
+            return;
+        }
+        Integer prompt = usage.getPromptTokens();
+        Integer completion = usage.getCompletionTokens();
+        if (prompt != null && prompt > 0) {
+            tokens(provider, model, "prompt").record(prompt);
+        }
+        if (completion != null && completion > 0) {
+            tokens(provider, model, "completion").record(completion);
+            if (generationNanos > 0) {
+                DistributionSummary.builder("chat.model.tokens.per.second")
+                        .description("Completion tokens generated per second")
+                        .tags("provider", provider, "model", model)
+                        .publishPercentiles(0.5, 0.9)
+                        .register(meterRegistry)
+                        .record(completion / (generationNanos / 1e9));
+            }
+        }
+    }
+
+    private Timer latency(String provider, String model, String mode, String outcome) {
+        return Timer.builder("chat.model.latency")
+                .description("Duration of model calls")
+                .tags("provider", provider, "model", model, "mode", mode, "outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+
+    private Timer firstTokenTimer(String provider, String model) {
+        return Timer.builder("chat.model.first.token")
+                .description("Time from sending a streaming request to its first token")
+                .tags("provider", provider, "model", model)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary tokens(String provider, String model, String type) {
+        return DistributionSummary.builder("chat.model.tokens")
+                .description("Tokens per model call")
+                .baseUnit("tokens")
+                .tags("provider", provider, "model", model, "type", type)
+                .register(meterRegistry);
+    }
+
+    private static String servedModel(ChatResponse response, String fallback) {
+        String model = response == null ? null : response.getMetadata().getModel();
+        return model == null || model.isBlank() ? fallback : model;
+    }
+
+    private static String modelTag(String model) {
+        return model == null || model.isBlank() ? "unknown" : model;
+    }
+
+    private static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text == null ? "" : text;
+    }
+}
@@ -0,0 +1,31 @@
+package project.ollama.chat.service;
+
+/**
+ * Thrown when a chat provider is at its concurrency limit and the request could not be queued,
+ * or waited past its deadline for a free slot.
+ */
+public class ChatOverloadedException extends RuntimeException {
+
+    private final String provider;
+    private final long retryAfterSeconds;
+
+    public ChatOverloadedException(String provider, String message, long retryAfterSeconds) {
+        super(message);
+        this.provider = provider;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the overloaded provider
+     */
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * @return suggested delay before retrying, in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,104 @@
+package project.ollama.chat.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight coalescing of identical in-flight chat requests. Callers asking the same provider the same
+ * question while a model call is running share that call instead of starting their own: late joiners on a
+ * stream receive the chunks generated so far and then follow the live stream. The upstream call is cancelled
+ * only when every caller has cancelled. Requests are identified by the response cache key. Only the caller that
+ * starts a call invokes the upstream supplier, so work done there (such as taking an admission slot) is not
+ * repeated by the callers who join it.
+ */
+@Component
+public class ChatRequestCoalescer {
+
+    private final Map<ChatResponseCache.Key, InFlight> calls = new ConcurrentHashMap<>();
+    private final Map<ChatResponseCache.Key, InFlight> streams = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ChatRequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a blocking model call, or wait for the identical call already in flight
+     *
+     * @param key      request identity
+     * @param upstream the model call
+     * @return the response
+     */
+    public String call(ChatResponseCache.Key key, Supplier<String> upstream) {
+        return join(calls, key, () -> Mono.fromSupplier(upstream).flux()).blockLast();
+    }
+
+    /**
+     * Start a streaming model call, or join the identical stream already in flight. A new call invokes the
+     * upstream supplier before returning, so errors it raises reach the caller directly; the model call itself
+     * starts on subscription.
+     *
+     * @param key      request identity
+     * @param upstream the streaming model call
+     * @return response chunks, in order
+     */
+    public Flux<String> stream(ChatResponseCache.Key key, Supplier<Flux<String>> upstream) {
+        // callers joining while the upstream is being supplied wait for it, or see the same error
+        Sinks.One<Flux<String>> started = Sinks.one();
+        InFlight created = new InFlight(streams, key, () -> started.asMono().flatMapMany(Function.identity()));
+        InFlight existing = streams.putIfAbsent(key, created);
+        if (existing != null) {
+            meterRegistry.counter("chat.requests.coalesced", "provider", key.provider()).increment();
+            return existing.chunks;
+        }
+        try {
+            started.tryEmitValue(upstream.get());
+        } catch (RuntimeException e) {
+            streams.remove(key, created);
+            started.tryEmitError(e);
+            throw e;
+        }
+        return created.chunks;
+    }
+
+    /**
+     * Number of distinct model calls currently in flight
+     *
+     * @return in-flight call count
+     */
+    public int inFlight() {
+        return calls.size() + streams.size();
+    }
+
+    private Flux<String> join(Map<ChatResponseCache.Key, InFlight> inFlight, ChatResponseCache.Key key,
+            Supplier<Flux<String>> upstream) {
+        InFlight created = new InFlight(inFlight, key, upstream);
+        InFlight existing = inFlight.putIfAbsent(key, created);
+        if (existing == null) {
+            return created.chunks;
+        }
+        meterRegistry.counter("chat.requests.coalesced", "provider", key.provider()).increment();
+        return existing.chunks;
+    }
+
+    private static final class InFlight {
+        final Flux<String> chunks;
+
+        InFlight(Map<ChatResponseCache.Key, InFlight> inFlight, ChatResponseCache.Key key,
+                Supplier<Flux<String>> upstream) {
+            // replay lets late joiners catch up; refCount(1) cancels the model call once the last caller leaves
+            this.chunks = Flux.defer(upstream)
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .replay()
+                    .refCount(1);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package project.ollama.chat.service;
+
+import java.text.Normalizer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import project.ollama.chat.config.ChatCacheConfig;
+import reactor.core.publisher.Flux;
+
+/**
+ * In-memory LRU cache of chat responses keyed by provider, model, system prompt and normalized user message.
+ * Entries expire after the configured TTL and are evicted least-recently-used first when the entry or byte
+ * limit is reached. Responses generated above the configured temperature are neither served from nor stored
+ * in the cache. Hits, misses and the hit ratio per provider are published as chat.cache.* metrics.
+ */
+@Component
+public class ChatResponseCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ChatCacheConfig config;
+    private final MeterRegistry meterRegistry;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+    private final Counter evictions;
+    private long bytes;
+
+    public ChatResponseCache(ChatCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.evictions = meterRegistry.counter("chat.cache.evictions");
+        Gauge.builder("chat.cache.entries", this, cache -> cache.size()).register(meterRegistry);
+        Gauge.builder("chat.cache.bytes", this, cache -> cache.bytes()).baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * How a request uses the cache, taken from its Cache-Control header
+     */
+    public enum Mode {
+        /** serve from the cache and store misses */
+        USE,
+        /** skip the lookup but store the fresh response (Cache-Control: no-cache) */
+        REFRESH,
+        /** neither read nor write (Cache-Control: no-store) */
+        BYPASS;
+
+        /**
+         * Map a Cache-Control request header to a cache mode
+         *
+         * @param cacheControl header value, may be null
+         * @return the cache mode
+         */
+        public static Mode fromCacheControl(String cacheControl) {
+            if (cacheControl == null) {
+                return USE;
+            }
+            String value = cacheControl.toLowerCase();
+            if (value.contains("no-store")) {
+                return BYPASS;
+            }
+            if (value.contains("no-cache")) {
+                return REFRESH;
+            }
+            return USE;
+        }
+    }
+
+    /**
+     * Cache key. The user message is normalized (Unicode NFC, trimmed, whitespace runs collapsed)
+     * so trivially different spellings of the same question share an entry.
+     */
+    public record Key(String provider, String model, String systemPrompt, String message) {
+
+        public static Key of(String provider, String model, String systemPrompt, String userMessage) {
+            String normalized = Normalizer.normalize(userMessage, Normalizer.Form.NFC).trim().replaceAll("\\s+", " ");
+            return new Key(provider, model == null ? "" : model, systemPrompt, normalized);
+        }
+
+        int estimatedBytes() {
+            return 2 * (provider.length() + model.length() + systemPrompt.length() + message.length());
+        }
+    }
+
+    private record Entry(String response, long expiresAt, int bytes) {
+    }
+
+    /**
+     * Return the cached response, or call upstream and cache its result
+     *
+     * @param key         cache key
+     * @param mode        cache mode of the request
+     * @param temperature sampling temperature of the model, null when unknown
+     * @param upstream    the model call
+     * @return the response
+     */
+    public String call(Key key, Mode mode, Double temperature, Supplier<String> upstream) {
+        if (!usable(key, mode, temperature)) {
+            return upstream.get();
+        }
+        if (mode == Mode.USE) {
+            String cached = lookup(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String response = upstream.get();
+        store(key, response);
+        return response;
+    }
+
+    /**
+     * Return the cached response as a single chunk, or stream from upstream and cache the complete
+     * response once the stream finishes. Cancelled or failed streams are not cached. On a miss the upstream
+     * supplier is invoked before this method returns, so errors it raises reach the caller directly.
+     *
+     * @param key         cache key
+     * @param mode        cache mode of the request
+     * @param temperature sampling temperature of the model, null when unknown
+     * @param upstream    the streaming model call
+     * @return response chunks
+     */
+    public Flux<String> stream(Key key, Mode mode, Double temperature, Supplier<Flux<String>> upstream) {
+        if (!usable(key, mode, temperature)) {
+            return upstream.get();
+        }
+        if (mode == Mode.USE) {
+            String cached = lookup(key);
+            if (cached != null) {
+                return Flux.just(cached);
+            }
+        }
+        Flux<String> tokens = upstream.get();
+        return Flux.defer(() -> {
+            StringBuilder collected = new StringBuilder();
+            return tokens
+                    .doOnNext(collected::append)
+                    .doOnComplete(() -> store(key, collected.toString()));
+        });
+    }
+
+    /**
+     * Number of cached responses
+     *
+     * @return entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated memory held by cached entries
+     *
+     * @return estimated bytes
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    private boolean usable(Key key, Mode mode, Double temperature) {
+        ProviderStats providerStats = stats(key.provider());
+        if (!config.isEnabled() || mode == Mode.BYPASS) {
+            providerStats.bypassed.increment();
+            return false;
+        }
+        if (temperature == null || temperature > config.getMaxTemperature()) {
+            providerStats.skipped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private String lookup(Key key) {
+        ProviderStats providerStats = stats(key.provider());
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                providerStats.hits.increment();
+                return entry.response();
+            }
+            if (entry != null) {
+                remove(key);
+            }
+        }
+        providerStats.misses.increment();
+        return null;
+    }
+
+    private void store(Key key, String response) {
+        if (response == null) {
+            return;
+        }
+        int size = ENTRY_OVERHEAD_BYTES + key.estimatedBytes() + 2 * response.length();
+        if (size > config.getMaxBytes()) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getTtlSeconds());
+        synchronized (this) {
+            remove(key);
+            entries.put(key, new Entry(response, expiresAt, size));
+            bytes += size;
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > config.getMaxEntries() || bytes > config.getMaxBytes()) && eldest.hasNext()) {
+                Map.Entry<Key, Entry> evicted = eldest.next();
+                bytes -= evicted.getValue().bytes();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.bytes();
+        }
+    }
+
+    private ProviderStats stats(String provider) {
+        return stats.computeIfAbsent(provider, name -> new ProviderStats(name, meterRegistry));
+    }
+
+    private static class ProviderStats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder bypassed = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+
+        ProviderStats(String provider, MeterRegistry registry) {
+            register(registry, provider, "hit", hits);
+            register(registry, provider, "miss", misses);
+            register(registry, provider, "bypass", bypassed);
+            register(registry, provider, "skipped", skipped);
+            Gauge.builder("chat.cache.hit.ratio", this, ProviderStats::hitRatio)
+                    .tag("provider", provider)
+                    .description("Share of cache lookups served from the cache")
+                    .register(registry);
+        }
+
+        private static void register(MeterRegistry registry, String provider, String result, LongAdder count) {
+            FunctionCounter.builder("chat.cache.requests", count, LongAdder::doubleValue)
+                    .tag("provider", provider)
+                    .tag("result", result)
+                    .register(registry);
+        }
+
+        double hitRatio() {
+            long hit = hits.sum();
+            long lookups = hit + misses.sum();
+            return lookups == 0 ? 0 : (double) hit / lookups;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package project.ollama.chat.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.stereotype.Service;
+import project.ollama.chat.config.ChatMemoryConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Session-scoped conversation memory. Each session keeps its turns as UTF-8 bytes and a summary of the turns
+ * that no longer fit the token budget. Before a call the history is cut to the budget: the summary first, then
+ * as many recent turns as fit. Turns pushed out of the budget are folded into the summary in the background by
+ * the provider's own model, so the prompt stays roughly the same size however long the conversation runs.
+ * Sessions are bounded in number (least recently used dropped first) and dropped after an idle period.
+ */
+@Slf4j
+@Service
+public class ConversationMemoryService {
+
+    private static final String SUMMARY_PROMPT = "Summarize the conversation below for the assistant that "
+            + "continues it. Keep facts, names, decisions and open questions. Answer with the summary only, in at most %d words.";
+
+    private final ChatMemoryConfig config;
+    private final MeterRegistry meterRegistry;
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(64, 0.75f, true);
+    private final DistributionSummary promptTokens;
+    private ScheduledExecutorService executor;
+
+    public ConversationMemoryService(ChatMemoryConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.promptTokens = DistributionSummary.builder("chat.memory.prompt.tokens")
+                .description("Estimated history tokens sent with a session request")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("chat.memory.sessions", this, ConversationMemoryService::sessionCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(2, task -> {
+            Thread thread = new Thread(task, "chat-memory-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::evictIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether a request with this session id uses conversation memory
+     *
+     * @param sessionId session id from the request, may be null
+     * @return true when memory applies
+     */
+    public boolean applies(String sessionId) {
+        return config.isEnabled() && sessionId != null && !sessionId.isBlank();
+    }
+
+    /**
+     * History to send ahead of the next user message: the summary of older turns as a system message,
+     * then the most recent turns that fit the token budget alongside the new message
+     *
+     * @param provider    provider name
+     * @param sessionId   session id
+     * @param userMessage the new user message
+     * @return history messages, oldest first
+     */
+    public List<Message> history(String provider, String sessionId, String userMessage) {
+        Session session = session(provider, sessionId);
+        synchronized (session) {
+            session.lastUsed = System.currentTimeMillis();
+            int budget = config.getTokenBudget() - tokens(userMessage);
+            List<Message> recent = new ArrayList<>();
+            int used = 0;
+            if (session.summary != null) {
+                used += tokens(session.summary);
+            }
+            Iterator<Turn> newestFirst = session.turns.descendingIterator();
+            while (newestFirst.hasNext()) {
+                Turn turn = newestFirst.next();
+                if (used + turn.tokens > budget) {
+                    break;
+                }
+                used += turn.tokens;
+                recent.add(0, turn.message());
+            }
+            if (session.summary != null) {
+                recent.add(0, new SystemMessage("Summary of the earlier conversation: " + session.summary));
+            }
+            promptTokens.record(used);
+            return recent;
+        }
+    }
+
+    /**
+     * Record a completed exchange, and fold turns that no longer fit the budget into the session summary
+     *
+     * @param provider    provider name
+     * @param sessionId   session id
+     * @param userMessage the user message
+     * @param answer      the model answer
+     * @param summarizer  blocking model call taking a prompt and returning its answer, used for compaction
+     */
+    public void record(String provider, String sessionId, String userMessage, String answer,
+            Function<String, String> summarizer) {
+        Session session = session(provider, sessionId);
+        boolean compact;
+        synchronized (session) {
+            session.lastUsed = System.currentTimeMillis();
+            session.add(new Turn(true, userMessage));
+            session.add(new Turn(false, answer == null ? "" : answer));
+            compact = !session.compacting && session.overflow() > 0;
+            session.compacting |= compact;
+        }
+        if (compact) {
+            executor.execute(() -> compact(provider, session, summarizer));
+        }
+    }
+
+    /**
+     * Forget a session
+     *
+     * @param provider  provider name
+     * @param sessionId session id
+     * @return true when the session existed
+     */
+    public boolean clear(String provider, String sessionId) {
+        synchronized (sessions) {
+            return sessions.remove(provider + ":" + sessionId) != null;
+        }
+    }
+
+    /**
+     * Number of sessions held
+     *
+     * @return session count
+     */
+    public int sessionCount() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    /**
+     * Drop sessions idle for longer than chat.memory.idle-minutes
+     */
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(config.getIdleMinutes());
+        synchronized (sessions) {
+            sessions.values().removeIf(session -> session.lastUsed < cutoff);
+        }
+    }
+
+    /**
+     * Summarizes the oldest turns outside the session lock. The turns stay in the session, and in its history,
+     * until the summary replacing them is stored; a failed summary leaves them in place for the next compaction.
+     */
+    private void compact(String provider, Session session, Function<String, String> summarizer) {
+        List<Turn> folded = new ArrayList<>();
+        String previous;
+        synchronized (session) {
+            previous = session.summary;
+            int overflow = session.overflow();
+            for (Iterator<Turn> it = session.turns.iterator(); it.hasNext() && overflow > 0;) {
+                Turn turn = it.next();
+                folded.add(turn);
+                overflow -= turn.tokens;
+            }
+        }
+        try {
+            StringBuilder transcript = new StringBuilder();
+            if (previous != null) {
+                transcript.append("Earlier summary: ").append(previous).append("\n\n");
+            }
+            for (Turn turn : folded) {
+                transcript.append(turn.user ? "User: " : "Assistant: ").append(turn.text()).append('\n');
+            }
+            int words = config.getSummaryTokens() * 3 / 4;
+            String summary = summarizer.apply(String.format(SUMMARY_PROMPT, words) + "\n\n" + transcript);
+            if (summary == null) {
+                throw new IllegalStateException("empty summary");
+            }
+            synchronized (session) {
+                session.summary = truncate(summary.trim());
+                // turns are only appended while compacting, so the folded ones still lead the deque
+                for (Turn turn : folded) {
+                    if (session.turns.peekFirst() == turn) {
+                        session.turns.removeFirst();
+                        session.tokens -= turn.tokens;
+                    }
+                }
+            }
+            meterRegistry.counter("chat.memory.compactions", "provider", provider).increment();
+        } catch (RuntimeException e) {
+            log.warn("Conversation summary failed for {}: {}", provider, e.getMessage());
+        } finally {
+            synchronized (session) {
+                session.compacting = false;
+            }
+        }
+    }
+
+    private String truncate(String summary) {
+        int maxChars = config.getSummaryTokens() * config.getCharsPerToken();
+        return summary.length() <= maxChars ? summary : summary.substring(0, maxChars);
+    }
+
+    private Session session(String provider, String sessionId) {
+        String key = provider + ":" + sessionId;
+        synchronized (sessions) {
+            Session session = sessions.get(key);
+            if (session == null) {
+                session = new Session();
+                sessions.put(key, session);
+                Iterator<Session> eldest = sessions.values().iterator();
+                while (sessions.size() > config.getMaxSessions() && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            return session;
+        }
+    }
+
+    private int tokens(String text) {
+        return (text.length() + config.getCharsPerToken() - 1) / Math.max(1, config.getCharsPerToken());
+    }
+
+    private final class Session {
+        final ArrayDeque<Turn> turns = new ArrayDeque<>();
+        String summary;
+        int tokens;
+        boolean compacting;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        void add(Turn turn) {
+            turns.addLast(turn);
+            tokens += turn.tokens;
+        }
+
+        /**
+         * Tokens by which the summary and turns exceed the budget, leaving room for the summary to grow
+         */
+        int overflow() {
+            int summaryTokens = summary == null ? config.getSummaryTokens() : Math.max(tokens(summary),
+                    config.getSummaryTokens());
+            return summaryTokens + tokens - config.getTokenBudget();
+        }
+    }
+
+    private final class Turn {
+        final boolean user;
+        final byte[] utf8;
+        final int tokens;
+
+        Turn(boolean user, String text) {
+            this.user = user;
+            this.utf8 = text.getBytes(StandardCharsets.UTF_8);
+            this.tokens = tokens(text);
+        }
+
+        String text() {
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        Message message() {
+            return user ? new UserMessage(text()) : new AssistantMessage(text());
+        }
+    }
+}
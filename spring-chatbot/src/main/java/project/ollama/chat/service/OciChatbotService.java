@@ -1,21 +1,54 @@
 package project.ollama.chat.service;
 
+import java.util.List;
+
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * OCI GenAI-backed chatbot service using the configured Spring AI chat model.
+ * Only calls that reach the model take a {@link ChatAdmissionService} slot: cache hits and requests joining
+ * an identical call in flight do not.
  */
 @Service
 @ConditionalOnBean(name = "ociChatClient")
 public class OciChatbotService {
 
+    private static final String PROVIDER = "oci";
+    private static final String SYSTEM_PROMPT = "You are an OCI GenAI assistant. Keep answers concise and actionable.";
+
     private final ChatClient chatClient;
+    private final ChatAdmissionService admission;
+    private final ChatResponseCache responseCache;
+    private final ChatRequestCoalescer coalescer;
+    private final ConversationMemoryService memory;
+    private final ChatMetrics metrics;
+    private final String model;
+    private final Double temperature;
 
-    public OciChatbotService(@Qualifier("ociChatClient") ChatClient ociChatClient) {
+    public OciChatbotService(@Qualifier("ociChatClient") ChatClient ociChatClient,
+            ChatAdmissionService admission,
+            ChatResponseCache responseCache,
+            ChatRequestCoalescer coalescer,
+            ConversationMemoryService memory,
+            ChatMetrics metrics,
+            @Value("${spring.ai.oci.genai.cohere.chat.options.model:}") String model,
+            @Value("${spring.ai.oci.genai.cohere.chat.options.temperature:}") Double temperature) {
         this.chatClient = ociChatClient;
+        this.admission = admission;
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
+        this.memory = memory;
+        this.metrics = metrics;
+        this.model = model;
+        this.temperature = temperature;
     }
 
     /**
@@ -25,14 +58,122 @@ public class OciChatbotService {
      * @return model response content
      */
     public String chat(String userMessage) {
+        return chat(userMessage, ChatResponseCache.Mode.USE);
+    }
+
+    /**
+     * Send a user message to the OCI GenAI chat model and return the response text.
+     * Identical requests already in flight share one model call.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @return model response content
+     */
+    public String chat(String userMessage, ChatResponseCache.Mode cacheMode) {
+        return chat(userMessage, cacheMode, null);
+    }
+
+    /**
+     * Send a user message to the OCI GenAI chat model and return the response text.
+     * With a session id the conversation history of the session is sent along and the exchange is added to it;
+     * such requests depend on their history and bypass the response cache and request coalescing.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @param sessionId   conversation session, or null for a stateless request
+     * @return model response content
+     * @throws ChatOverloadedException when the request needs the model and no slot is free in time
+     */
+    public String chat(String userMessage, ChatResponseCache.Mode cacheMode, String sessionId) {
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("User message is required");
+        }
+
+        if (memory.applies(sessionId)) {
+            try (ChatAdmissionService.Permit permit = admission.acquire(PROVIDER)) {
+                return chatInSession(userMessage, sessionId);
+            }
+        }
+        ChatResponseCache.Key key = cacheKey(userMessage);
+        return responseCache.call(key, cacheMode, temperature, () -> coalescer.call(key, () -> {
+            try (ChatAdmissionService.Permit permit = admission.acquire(PROVIDER)) {
+                return call(List.of(), userMessage);
+            }
+        }));
+    }
+
+    /**
+     * Send a user message to the OCI GenAI chat model and stream the response text.
+     *
+     * @param userMessage user input to send to the model
+     * @return response content chunks, in order
+     */
+    public Flux<String> stream(String userMessage) {
+        return stream(userMessage, ChatResponseCache.Mode.USE);
+    }
+
+    /**
+     * Send a user message to the OCI GenAI chat model and stream the response text.
+     * The OCI Cohere chat model has no streaming API, so the whole response arrives as one chunk.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @return response content chunks, in order
+     */
+    public Flux<String> stream(String userMessage, ChatResponseCache.Mode cacheMode) {
+        return stream(userMessage, cacheMode, null);
+    }
+
+    /**
+     * Send a user message to the OCI GenAI chat model and stream the response text.
+     * With a session id the conversation history of the session is sent along and the exchange is added to it.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @param sessionId   conversation session, or null for a stateless request
+     * @return response content chunks, in order
+     * @throws ChatOverloadedException when the request needs the model and no slot is free in time; raised
+     *                                 before the stream is returned, so no response has been written
+     */
+    public Flux<String> stream(String userMessage, ChatResponseCache.Mode cacheMode, String sessionId) {
         if (userMessage == null || userMessage.trim().isEmpty()) {
             throw new IllegalArgumentException("User message is required");
         }
 
-        return chatClient.prompt()
-                .system("You are an OCI GenAI assistant. Keep answers concise and actionable.")
+        if (memory.applies(sessionId)) {
+            return admission.stream(PROVIDER, () -> Mono.fromCallable(() -> chatInSession(userMessage, sessionId))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flux());
+        }
+        ChatResponseCache.Key key = cacheKey(userMessage);
+        return responseCache.stream(key, cacheMode, temperature,
+                () -> coalescer.stream(key, () -> admission.stream(PROVIDER,
+                        () -> Mono.fromCallable(() -> call(List.of(), userMessage))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .flux())));
+    }
+
+    private String chatInSession(String userMessage, String sessionId) {
+        List<Message> history = memory.history(PROVIDER, sessionId, userMessage.trim());
+        String answer = call(history, userMessage);
+        memory.record(PROVIDER, sessionId, userMessage.trim(), answer, this::summarize);
+        return answer;
+    }
+
+    private String call(List<Message> history, String userMessage) {
+        return metrics.call(PROVIDER, model, () -> chatClient.prompt()
+                .system(SYSTEM_PROMPT)
+                .messages(history)
                 .user(userMessage.trim())
                 .call()
-                .content();
+                .chatResponse());
+    }
+
+    private String summarize(String prompt) {
+        return chatClient.prompt().user(prompt).call().content();
+    }
+
+    private ChatResponseCache.Key cacheKey(String userMessage) {
+        return ChatResponseCache.Key.of(PROVIDER, model, SYSTEM_PROMPT, userMessage);
     }
 }
@@ -1,19 +1,54 @@
 package project.ollama.chat.service;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Flux;
 
 /**
  * Minimal Gen AI chatbot service backed by the configured Spring AI chat model (Ollama).
+ * Calls are routed across the configured Ollama hosts by {@link ChatBackendRouter}. Only calls that reach the
+ * model take a {@link ChatAdmissionService} slot: cache hits and requests joining an identical call in flight
+ * do not.
  */
 @Service
 public class OllamaChatbotService {
 
-    private final ChatClient chatClient;
+    private static final String PROVIDER = "ollama";
+    private static final String SYSTEM_PROMPT = "You are a helpful knowledge assistant. Keep answers concise and actionable.";
+
+    private final ChatBackendRouter router;
+    private final ChatAdmissionService admission;
+    private final ChatResponseCache responseCache;
+    private final ChatRequestCoalescer coalescer;
+    private final ConversationMemoryService memory;
+    private final ChatMetrics metrics;
+    private final OllamaWarmupService warmup;
+    private final String model;
+    private final Double temperature;
 
-    public OllamaChatbotService(@Qualifier("ollamaChatClient") ChatClient ollamaChatClient) {
-        this.chatClient = ollamaChatClient;
+    public OllamaChatbotService(ChatBackendRouter ollamaBackendRouter,
+            ChatAdmissionService admission,
+            ChatResponseCache responseCache,
+            ChatRequestCoalescer coalescer,
+            ConversationMemoryService memory,
+            ChatMetrics metrics,
+            OllamaWarmupService warmup,
+            @Value("${spring.ai.ollama.chat.options.model:}") String model,
+            @Value("${spring.ai.ollama.chat.options.temperature:}") Double temperature) {
+        this.router = ollamaBackendRouter;
+        this.admission = admission;
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
+        this.memory = memory;
+        this.metrics = metrics;
+        this.warmup = warmup;
+        this.model = model;
+        this.temperature = temperature;
     }
 
     /**
@@ -23,14 +58,144 @@ public class OllamaChatbotService {
      * @return model response content
      */
     public String chat(String userMessage) {
+        return chat(userMessage, ChatResponseCache.Mode.USE);
+    }
+
+    /**
+     * Send a user message to the configured chat model and return the response text.
+     * Identical requests already in flight share one model call.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @return model response content
+     */
+    public String chat(String userMessage, ChatResponseCache.Mode cacheMode) {
+        return chat(userMessage, cacheMode, null);
+    }
+
+    /**
+     * Send a user message to the configured chat model and return the response text.
+     * With a session id the conversation history of the session is sent along and the exchange is added to it;
+     * such requests depend on their history and bypass the response cache and request coalescing.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @param sessionId   conversation session, or null for a stateless request
+     * @return model response content
+     * @throws ChatOverloadedException when the request needs the model and no slot is free in time
+     */
+    public String chat(String userMessage, ChatResponseCache.Mode cacheMode, String sessionId) {
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("User message is required");
+        }
+        warmup.touch();
+
+        if (memory.applies(sessionId)) {
+            List<Message> history = memory.history(PROVIDER, sessionId, userMessage.trim());
+            String answer = admitted(() -> router.call(client -> call(client, history, userMessage)));
+            memory.record(PROVIDER, sessionId, userMessage.trim(), answer, this::summarize);
+            return answer;
+        }
+        ChatResponseCache.Key key = cacheKey(userMessage);
+        return responseCache.call(key, cacheable(cacheMode), temperature,
+                () -> coalescer.call(key, () -> admitted(() -> router.call(client -> call(client, List.of(), userMessage)))));
+    }
+
+    /**
+     * Send a user message to the configured chat model and stream the response text as it is generated.
+     *
+     * @param userMessage user input to send to the model
+     * @return response content chunks, in order
+     */
+    public Flux<String> stream(String userMessage) {
+        return stream(userMessage, ChatResponseCache.Mode.USE);
+    }
+
+    /**
+     * Send a user message to the configured chat model and stream the response text as it is generated.
+     * A cached response is returned as a single chunk; identical streams already in flight share one model call.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @return response content chunks, in order
+     */
+    public Flux<String> stream(String userMessage, ChatResponseCache.Mode cacheMode) {
+        return stream(userMessage, cacheMode, null);
+    }
+
+    /**
+     * Send a user message to the configured chat model and stream the response text as it is generated.
+     * With a session id the conversation history of the session is sent along, and the exchange is added to it
+     * once the stream completes.
+     *
+     * @param userMessage user input to send to the model
+     * @param cacheMode   how the response cache is used for this request
+     * @param sessionId   conversation session, or null for a stateless request
+     * @return response content chunks, in order
+     * @throws ChatOverloadedException when the request needs the model and no slot is free in time; raised
+     *                                 before the stream is returned, so no response has been written
+     */
+    public Flux<String> stream(String userMessage, ChatResponseCache.Mode cacheMode, String sessionId) {
         if (userMessage == null || userMessage.trim().isEmpty()) {
             throw new IllegalArgumentException("User message is required");
         }
+        warmup.touch();
+
+        if (memory.applies(sessionId)) {
+            return admission.stream(PROVIDER, () -> Flux.defer(() -> {
+                List<Message> history = memory.history(PROVIDER, sessionId, userMessage.trim());
+                StringBuilder answer = new StringBuilder();
+                return router.stream(client -> callStream(client, history, userMessage))
+                        .doOnNext(answer::append)
+                        .doOnComplete(() -> memory.record(PROVIDER, sessionId, userMessage.trim(),
+                                answer.toString(), this::summarize));
+            }));
+        }
+        ChatResponseCache.Key key = cacheKey(userMessage);
+        return responseCache.stream(key, cacheable(cacheMode), temperature,
+                () -> coalescer.stream(key, () -> admission.stream(PROVIDER,
+                        () -> router.stream(client -> callStream(client, List.of(), userMessage)))));
+    }
 
-        return chatClient.prompt()
-                .system("You are a helpful knowledge assistant. Keep answers concise and actionable.")
+    private String admitted(Supplier<String> upstream) {
+        try (ChatAdmissionService.Permit permit = admission.acquire(PROVIDER)) {
+            return upstream.get();
+        }
+    }
+
+    private String call(ChatClient client, List<Message> history, String userMessage) {
+        return metrics.call(PROVIDER, model, () -> client.prompt()
+                .system(SYSTEM_PROMPT)
+                .messages(history)
                 .user(userMessage.trim())
                 .call()
-                .content();
+                .chatResponse());
+    }
+
+    private Flux<String> callStream(ChatClient client, List<Message> history, String userMessage) {
+        return metrics.stream(PROVIDER, model, () -> client.prompt()
+                .system(SYSTEM_PROMPT)
+                .messages(history)
+                .user(userMessage.trim())
+                .stream()
+                .chatResponse());
+    }
+
+    private String summarize(String prompt) {
+        return router.call(client -> client.prompt().user(prompt).call().content());
+    }
+
+    /**
+     * Keyed by the model the backends serve; when hosts serve different models the serving one is not known
+     * before the call, so the response is neither looked up nor stored
+     */
+    private ChatResponseCache.Key cacheKey(String userMessage) {
+        String servedModel = router.model();
+        return ChatResponseCache.Key.of(PROVIDER, servedModel != null ? servedModel : model, SYSTEM_PROMPT,
+                userMessage);
+    }
+
+    private ChatResponseCache.Mode cacheable(ChatResponseCache.Mode cacheMode) {
+        return router.model() != null ? cacheMode : ChatResponseCache.Mode.BYPASS;
     }
 }
@@ -0,0 +1,65 @@
+package project.ollama.chat.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.health.AdditionalHealthEndpointPath;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthEndpointGroupsPostProcessor;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leaves the ollamaModel component out of /actuator/health. The root endpoint aggregates every contributor
+ * and has no include/exclude setting, so its group is wrapped here; the component stays in the groups that
+ * include it, such as warm. Liveness and readiness probes on the root endpoint therefore keep answering 200
+ * while the model loads.
+ */
+@Component
+public class OllamaModelHealthGroups implements HealthEndpointGroupsPostProcessor {
+
+    @Override
+    public HealthEndpointGroups postProcessHealthEndpointGroups(HealthEndpointGroups groups) {
+        Map<String, HealthEndpointGroup> named = new LinkedHashMap<>();
+        for (String name : groups.getNames()) {
+            named.put(name, groups.get(name));
+        }
+        return HealthEndpointGroups.of(new WithoutModel(groups.getPrimary()), named);
+    }
+
+    private record WithoutModel(HealthEndpointGroup primary) implements HealthEndpointGroup {
+
+        @Override
+        public boolean isMember(String name) {
+            return !OllamaModelHealthIndicator.NAME.equals(name) && primary.isMember(name);
+        }
+
+        @Override
+        public boolean showComponents(SecurityContext securityContext) {
+            return primary.showComponents(securityContext);
+        }
+
+        @Override
+        public boolean showDetails(SecurityContext securityContext) {
+            return primary.showDetails(securityContext);
+        }
+
+        @Override
+        public StatusAggregator getStatusAggregator() {
+            return primary.getStatusAggregator();
+        }
+
+        @Override
+        public HttpCodeStatusMapper getHttpCodeStatusMapper() {
+            return primary.getHttpCodeStatusMapper();
+        }
+
+        @Override
+        public AdditionalHealthEndpointPath getAdditionalPath() {
+            return primary.getAdditionalPath();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package project.ollama.chat.service;
+
+import java.util.Collection;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the Ollama chat model, reported as the ollamaModel component. UP while the model is loaded on at
+ * least one host, or was left to unload for lack of traffic; OUT_OF_SERVICE while it is still loading; DOWN
+ * when no host could load it. Load balancers that check /actuator/health/warm send traffic only to instances
+ * with a warm model. The component belongs to the warm group only (see OllamaModelHealthGroups), so a model
+ * still loading does not turn /actuator/health into a 503. The indicator is registered even with
+ * chat.warmup.enabled=false, so the warm group keeps its member; it then reports UNKNOWN.
+ */
+@Component
+public class OllamaModelHealthIndicator implements HealthIndicator {
+
+    /** Component name, from the bean name without the HealthIndicator suffix */
+    public static final String NAME = "ollamaModel";
+
+    private final OllamaWarmupService warmupService;
+
+    public OllamaModelHealthIndicator(OllamaWarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        if (!warmupService.isActive()) {
+            return Health.unknown().withDetail("reason", "model warm-up disabled or no Ollama model configured").build();
+        }
+        Collection<OllamaWarmupService.State> states = warmupService.states().values();
+        Health.Builder health;
+        if (states.contains(OllamaWarmupService.State.LOADED) || states.contains(OllamaWarmupService.State.IDLE)) {
+            health = Health.up();
+        } else if (states.contains(OllamaWarmupService.State.LOADING)) {
+            health = Health.outOfService();
+        } else {
+            health = Health.down();
+        }
+        return health.withDetails(warmupService.details()).build();
+    }
+}
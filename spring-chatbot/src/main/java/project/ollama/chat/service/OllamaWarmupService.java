@@ -0,0 +1,309 @@
+package project.ollama.chat.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.model.ollama.autoconfigure.OllamaChatProperties;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import project.ollama.chat.config.ChatRoutingConfig;
+import project.ollama.chat.config.ChatWarmupConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the Ollama chat model loaded on every configured host. The model is preloaded in the background at
+ * startup, so startup is not held up by a model load. The loaded models of each host (/api/ps) are then checked
+ * on a fixed interval. While chat requests keep arriving, a host whose model is about to expire gets a
+ * keep-alive request, and a host that has unloaded it gets a reload. Busy hosts need no keep-alive requests
+ * because each chat request extends the model's lifetime. After chat.warmup.idle-minutes without requests the
+ * model is left to unload, and the next request starts a reload on every idle host.
+ * Preload and keep-alive are an empty chat request with keep_alive set. That is how Ollama loads a model
+ * without generating. The request carries the configured chat options, because a model loaded with different
+ * options (e.g. num_ctx) is reloaded by the next chat request.
+ */
+@Slf4j
+@Service
+public class OllamaWarmupService {
+
+    /**
+     * Model state on one host
+     */
+    public enum State {
+        /** Not checked yet, or a preload is in progress */
+        LOADING,
+        /** Loaded and kept loaded */
+        LOADED,
+        /** Unloaded after a period without traffic; the next request reloads it */
+        IDLE,
+        /** Host unreachable or the model failed to load */
+        FAILED
+    }
+
+    private final ChatWarmupConfig config;
+    private final MeterRegistry meterRegistry;
+    private final OllamaOptions options;
+    private final List<Host> hosts = new ArrayList<>();
+    private volatile long lastRequest = System.currentTimeMillis();
+    private ScheduledExecutorService executor;
+
+    public OllamaWarmupService(ChatWarmupConfig config,
+            ChatRoutingConfig routingConfig,
+            ObjectProvider<OllamaChatProperties> chatProperties,
+            MeterRegistry meterRegistry,
+            @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl,
+            @Value("${spring.ai.ollama.chat.options.model:}") String model) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        OllamaChatProperties properties = chatProperties.getIfAvailable();
+        this.options = properties != null
+                ? OllamaOptions.fromOptions(properties.getOptions())
+                : OllamaOptions.builder().build();
+        if (routingConfig.getOllama().isEmpty()) {
+            addHost("default", baseUrl, model);
+        }
+        for (ChatRoutingConfig.Backend backend : routingConfig.getOllama()) {
+            String hostModel = backend.getModel() != null && !backend.getModel().isBlank() ? backend.getModel() : model;
+            addHost(backend.getName() != null ? backend.getName() : backend.getBaseUrl(), backend.getBaseUrl(),
+                    hostModel);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled() || hosts.isEmpty()) {
+            return;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(hosts.size() + 1, task -> {
+            Thread thread = new Thread(task, "ollama-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::check, 0, config.getCheckIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Note a chat request, so the model is kept loaded; reloads the model on hosts where it went idle
+     */
+    public void touch() {
+        lastRequest = System.currentTimeMillis();
+        if (executor == null) {
+            return;
+        }
+        for (Host host : hosts) {
+            if (host.state == State.IDLE) {
+                host.state = State.LOADING;
+                executor.execute(() -> load(host, "load"));
+            }
+        }
+    }
+
+    /**
+     * Whether the warm-up manages at least one host
+     *
+     * @return true when enabled and a model is configured
+     */
+    public boolean isActive() {
+        return executor != null;
+    }
+
+    /**
+     * Model state per host, keyed by host name, for the health indicator
+     *
+     * @return host name to state
+     */
+    public Map<String, State> states() {
+        Map<String, State> states = new LinkedHashMap<>();
+        for (Host host : hosts) {
+            states.put(host.name, host.state);
+        }
+        return states;
+    }
+
+    /**
+     * Details of each host, keyed by host name, for the health indicator
+     *
+     * @return host name to details
+     */
+    public Map<String, Map<String, Object>> details() {
+        Map<String, Map<String, Object>> details = new LinkedHashMap<>();
+        for (Host host : hosts) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("model", host.model);
+            detail.put("state", host.state.name().toLowerCase());
+            if (host.expiresAt != null) {
+                detail.put("expiresAt", host.expiresAt.toString());
+            }
+            if (host.loadMillis > 0) {
+                detail.put("lastLoadMillis", host.loadMillis);
+            }
+            if (host.error != null) {
+                detail.put("error", host.error);
+            }
+            details.put(host.name, detail);
+        }
+        return details;
+    }
+
+    private void addHost(String name, String baseUrl, String model) {
+        if (model == null || model.isBlank() || baseUrl == null || baseUrl.isBlank()) {
+            return;
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) Duration.ofSeconds(5).toMillis());
+        requestFactory.setReadTimeout((int) Duration.ofSeconds(10).toMillis());
+        Host host = new Host(name, model,
+                OllamaApi.builder().baseUrl(baseUrl).build(),
+                RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build());
+        hosts.add(host);
+        Gauge.builder("chat.warmup.loaded", host, h -> h.state == State.LOADED ? 1 : 0)
+                .description("Whether the Ollama model is loaded on the host")
+                .tags("host", name, "model", model)
+                .register(meterRegistry);
+    }
+
+    private void check() {
+        boolean active = config.getIdleMinutes() <= 0
+                || System.currentTimeMillis() - lastRequest < TimeUnit.MINUTES.toMillis(config.getIdleMinutes());
+        for (Host host : hosts) {
+            try {
+                check(host, active);
+            } catch (RuntimeException e) {
+                if (host.state != State.FAILED) {
+                    log.warn("Ollama model check failed on {}: {}", host.name, e.getMessage());
+                }
+                host.failed(e);
+            }
+        }
+    }
+
+    private void check(Host host, boolean active) {
+        RunningModels running = host.restClient.get().uri("/api/ps").retrieve().body(RunningModels.class);
+        RunningModel model = running == null || running.models() == null ? null : running.models().stream()
+                .filter(m -> host.model.equals(tagged(m.name())) || host.model.equals(tagged(m.model())))
+                .findFirst()
+                .orElse(null);
+        if (model != null) {
+            host.expiresAt = model.expiresAt() == null ? null : OffsetDateTime.parse(model.expiresAt()).toInstant();
+            host.error = null;
+            host.state = State.LOADED;
+            Instant refreshBy = Instant.now().plusSeconds(2 * config.getCheckIntervalSeconds());
+            if (active && host.expiresAt != null && host.expiresAt.isBefore(refreshBy)) {
+                executor.execute(() -> load(host, "keep-alive"));
+            }
+        } else if (active) {
+            executor.execute(() -> load(host, "load"));
+        } else if (!host.loading.get()) {
+            host.expiresAt = null;
+            host.state = State.IDLE;
+        }
+    }
+
+    private void load(Host host, String reason) {
+        if (!host.loading.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            if (host.state != State.LOADED) {
+                host.state = State.LOADING;
+            }
+            host.api.chat(OllamaApi.ChatRequest.builder(host.model)
+                    .messages(List.of())
+                    .stream(false)
+                    .keepAlive(config.getKeepAlive())
+                    .options(options)
+                    .build());
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (host.state != State.LOADED) {
+                host.loadMillis = millis;
+                log.info("Ollama model {} loaded on {} in {} ms", host.model, host.name, millis);
+            }
+            host.error = null;
+            host.state = State.LOADED;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            if (host.state != State.FAILED) {
+                log.warn("Ollama model {} {} failed on {}: {}", host.model, reason, host.name, e.getMessage());
+            }
+            host.failed(e);
+        } finally {
+            host.loading.set(false);
+            meterRegistry.timer("chat.warmup.requests", "host", host.name, "reason", reason, "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Ollama reports models with their tag; an untagged name means :latest
+     */
+    private static String tagged(String model) {
+        if (model == null) {
+            return null;
+        }
+        return model.contains(":") ? model : model + ":latest";
+    }
+
+    private static final class Host {
+        private final String name;
+        private final String model;
+        private final OllamaApi api;
+        private final RestClient restClient;
+        private final AtomicBoolean loading = new AtomicBoolean();
+        private volatile State state = State.LOADING;
+        private volatile Instant expiresAt;
+        private volatile long loadMillis;
+        private volatile String error;
+
+        private Host(String name, String model, OllamaApi api, RestClient restClient) {
+            this.name = name;
+            this.model = tagged(model);
+            this.api = api;
+            this.restClient = restClient;
+        }
+
+        private void failed(Exception e) {
+            state = State.FAILED;
+            expiresAt = null;
+            error = e.getMessage();
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record RunningModels(List<RunningModel> models) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record RunningModel(String name, String model, @JsonProperty("expires_at") String expiresAt) {
+    }
+}
@@ -0,0 +1,112 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import project.ollama.chat.config.ChatAdmissionConfig;
+import project.ollama.chat.service.ChatAdmissionService;
+import project.ollama.chat.service.ChatOverloadedException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for ChatAdmissionService
+ * Covers queue_full and timeout rejections, the Retry-After estimate and slots held by streams
+ */
+public class ChatAdmissionServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * With every slot taken and no queue, a request is rejected at once as queue_full
+     */
+    @Test
+    public void testQueueFull() {
+        ChatAdmissionService admission = admission(1, 0, 30_000);
+        try (ChatAdmissionService.Permit permit = admission.acquire("ollama")) {
+            ChatOverloadedException e = assertThrows(ChatOverloadedException.class, () -> admission.acquire("ollama"));
+            assertEquals("ollama", e.getProvider());
+            assertEquals(1, e.getRetryAfterSeconds());
+        }
+        assertEquals(1, rejected("queue_full"));
+
+        admission.acquire("ollama").close();
+    }
+
+    /**
+     * A queued request that gets no slot within max-wait-millis is rejected as timeout
+     */
+    @Test
+    public void testTimeout() {
+        ChatAdmissionService admission = admission(1, 1, 50);
+        try (ChatAdmissionService.Permit permit = admission.acquire("ollama")) {
+            long start = System.nanoTime();
+            assertThrows(ChatOverloadedException.class, () -> admission.acquire("ollama"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+        }
+        assertEquals(1, rejected("timeout"));
+        assertEquals(0, registry.get("chat.admission.queue.depth").gauge().value());
+    }
+
+    /**
+     * Retry-After grows with the requests queued ahead; a queued request gets the slot once it is freed
+     */
+    @Test
+    public void testRetryAfterCountsQueuedRequests() throws Exception {
+        ChatAdmissionService admission = admission(1, 1, 30_000);
+        ChatAdmissionService.Permit permit = admission.acquire("ollama");
+        CompletableFuture<ChatAdmissionService.Permit> queued = CompletableFuture.supplyAsync(
+                () -> admission.acquire("ollama"));
+        awaitCondition(() -> registry.get("chat.admission.queue.depth").gauge().value() == 1);
+
+        ChatOverloadedException e = assertThrows(ChatOverloadedException.class, () -> admission.acquire("ollama"));
+        assertEquals(2, e.getRetryAfterSeconds());
+
+        permit.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+    }
+
+    /**
+     * A stream holds its slot until it is cancelled, and limits apply per provider
+     */
+    @Test
+    public void testStreamHoldsSlot() {
+        ChatAdmissionService admission = admission(1, 0, 30_000);
+        Sinks.Many<String> tokens = Sinks.many().unicast().onBackpressureBuffer();
+        Disposable stream = admission.stream("ollama", tokens::asFlux).subscribe();
+
+        assertThrows(ChatOverloadedException.class, () -> admission.stream("ollama", Flux::empty));
+        admission.acquire("oci").close();
+
+        stream.dispose();
+        assertEquals(1, admission.stream("ollama", () -> Flux.just("token")).count().block());
+    }
+
+    private ChatAdmissionService admission(int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        ChatAdmissionConfig config = new ChatAdmissionConfig();
+        ChatAdmissionConfig.Limit limit = new ChatAdmissionConfig.Limit();
+        limit.setMaxConcurrent(maxConcurrent);
+        limit.setMaxQueue(maxQueue);
+        limit.setMaxWaitMillis(maxWaitMillis);
+        config.getProviders().put("ollama", limit);
+        return new ChatAdmissionService(config, registry);
+    }
+
+    private double rejected(String reason) {
+        return registry.get("chat.admission.rejected").tags("provider", "ollama", "reason", reason).counter().count();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import project.ollama.chat.config.ChatRoutingConfig;
+import project.ollama.chat.service.ChatBackendRouter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Test class for ChatBackendRouter
+ * Covers failover between backends, the failure cooldown, hedged requests and the hedge pool bound,
+ * with stub ChatClients
+ */
+public class ChatBackendRouterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatClient primary = mock(ChatClient.class);
+    private final ChatClient secondary = mock(ChatClient.class);
+    private final List<ChatClient> attempts = new CopyOnWriteArrayList<>();
+
+    /**
+     * A failed call is retried on the next backend, and the failure is counted against the first
+     */
+    @Test
+    public void testFailover() {
+        try (ChatBackendRouter router = router(new ChatRoutingConfig())) {
+            String answer = router.call(client -> {
+                attempts.add(client);
+                if (client == primary) {
+                    throw new IllegalStateException("connection refused");
+                }
+                return "from secondary";
+            });
+
+            assertEquals("from secondary", answer);
+            assertEquals(List.of(primary, secondary), attempts);
+            assertEquals(1, requests("primary", "failure"));
+            assertEquals(1, requests("secondary", "success"));
+        }
+    }
+
+    /**
+     * A failing backend is skipped while in cooldown; when every backend fails the last error is thrown
+     */
+    @Test
+    public void testCooldown() {
+        try (ChatBackendRouter router = router(new ChatRoutingConfig())) {
+            router.call(client -> {
+                if (client == primary) {
+                    throw new IllegalStateException("primary down");
+                }
+                return "ok";
+            });
+
+            router.call(client -> {
+                attempts.add(client);
+                return "ok";
+            });
+            assertEquals(List.of(secondary), attempts);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> router.call(client -> {
+                throw new IllegalStateException(client == primary ? "primary down" : "secondary down");
+            }));
+            assertEquals("primary down", e.getMessage());
+            assertEquals("secondary down", e.getSuppressed()[0].getMessage());
+        }
+    }
+
+    /**
+     * A stream fails over until its first token; an error after the first token reaches the caller
+     */
+    @Test
+    public void testStreamFailover() {
+        try (ChatBackendRouter router = router(new ChatRoutingConfig())) {
+            List<String> tokens = router.stream(client -> client == primary
+                    ? Flux.error(new IllegalStateException("primary down"))
+                    : Flux.just("a", "b")).collectList().block();
+            assertEquals(List.of("a", "b"), tokens);
+        }
+
+        try (ChatBackendRouter router = router(new ChatRoutingConfig())) {
+            Flux<String> broken = router.stream(client -> {
+                attempts.add(client);
+                return client == primary
+                        ? Flux.concat(Flux.just("partial"), Flux.error(new IllegalStateException("cut off")))
+                        : Flux.just("unused");
+            });
+            assertThrows(IllegalStateException.class, () -> broken.collectList().block());
+            assertEquals(List.of(primary), attempts);
+        }
+    }
+
+    /**
+     * With hedging, a slow primary is raced by the runner-up after the hedge delay, and the first answer wins
+     */
+    @Test
+    public void testHedging() {
+        ChatRoutingConfig config = new ChatRoutingConfig();
+        config.getHedge().setEnabled(true);
+        config.getHedge().setMinDelayMillis(50);
+        try (ChatBackendRouter router = router(config)) {
+            long start = System.nanoTime();
+            String answer = router.call(client -> {
+                if (client == primary) {
+                    sleep(Duration.ofSeconds(5));
+                    return "from primary";
+                }
+                return "from secondary";
+            });
+
+            assertEquals("from secondary", answer);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+            assertEquals(1, registry.get("chat.backend.hedged").tags("provider", "ollama").counter().count());
+        }
+
+        try (ChatBackendRouter router = router(config)) {
+            List<String> tokens = router.stream(client -> client == primary
+                    ? Flux.just("slow").delayElements(Duration.ofSeconds(5))
+                    : Flux.just("fast")).collectList().block(Duration.ofSeconds(2));
+            assertEquals(List.of("fast"), tokens);
+        }
+    }
+
+    /**
+     * The router reports the model only while every backend serves the same one
+     */
+    @Test
+    public void testModel() {
+        try (ChatBackendRouter router = router(new ChatRoutingConfig())) {
+            assertEquals("llama3.2", router.model());
+        }
+        try (ChatBackendRouter router = new ChatBackendRouter("ollama", List.of(
+                new ChatBackendRouter.Backend("primary", "llama3.2", primary),
+                new ChatBackendRouter.Backend("secondary", "qwen2.5", secondary)), new ChatRoutingConfig(), 1,
+                registry)) {
+            assertNull(router.model());
+        }
+    }
+
+    /**
+     * The hedge pool holds backends x max-concurrent threads; while losing calls that ignore the interrupt
+     * hold them all, calls run without a hedge
+     */
+    @Test
+    public void testHedgePoolBounded() throws Exception {
+        ChatRoutingConfig config = new ChatRoutingConfig();
+        config.getHedge().setEnabled(true);
+        config.getHedge().setMinDelayMillis(50);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<ChatClient, String> work = client -> {
+            if (client == primary) {
+                awaitIgnoringInterrupts(release);
+                return "from primary";
+            }
+            return "from secondary";
+        };
+        try (ChatBackendRouter router = router(config, 1)) {
+            assertEquals("from secondary", router.call(work));
+
+            CompletableFuture<String> unhedged = CompletableFuture.supplyAsync(() -> router.call(work));
+            Thread.sleep(500);
+            assertFalse(unhedged.isDone());
+            release.countDown();
+            assertEquals("from primary", unhedged.get(5, TimeUnit.SECONDS));
+            assertEquals(1, registry.get("chat.backend.hedged").tags("provider", "ollama").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ChatBackendRouter router(ChatRoutingConfig config) {
+        return router(config, 2);
+    }
+
+    private ChatBackendRouter router(ChatRoutingConfig config, int maxConcurrent) {
+        return new ChatBackendRouter("ollama", List.of(
+                new ChatBackendRouter.Backend("primary", "llama3.2", primary),
+                new ChatBackendRouter.Backend("secondary", "llama3.2", secondary)), config, maxConcurrent, registry);
+    }
+
+    private double requests(String backend, String outcome) {
+        return registry.counter("chat.backend.requests", "provider", "ollama", "backend", backend,
+                "outcome", outcome).count();
+    }
+
+    /**
+     * Wait like an HTTP client that does not react to interrupts
+     */
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("cancelled");
+        }
+    }
+}
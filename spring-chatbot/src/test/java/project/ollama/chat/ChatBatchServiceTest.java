@@ -0,0 +1,153 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import project.ollama.chat.config.ChatAdmissionConfig;
+import project.ollama.chat.config.ChatBatchConfig;
+import project.ollama.chat.service.ChatAdmissionService;
+import project.ollama.chat.service.ChatBatchService;
+
+/**
+ * Test class for ChatBatchService
+ * Covers batch validation, per-prompt NDJSON lines, error lines, waiting for admission and the parallelism bound
+ */
+public class ChatBatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Empty batches and batches above max-prompts are rejected before any prompt runs
+     */
+    @Test
+    public void testValidate() {
+        ChatBatchService batch = batch(4, 10);
+        assertThrows(IllegalArgumentException.class, () -> batch.validate(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> batch.validate(null));
+        assertThrows(IllegalArgumentException.class, () -> batch.run("ollama",
+                IntStream.range(0, 11).mapToObj(i -> "q" + i).toList(), prompt -> "a"));
+        batch.validate(List.of("q"));
+    }
+
+    /**
+     * Every prompt yields one line carrying its input index; a failing prompt gets an error line
+     * and does not stop the batch
+     */
+    @Test
+    public void testLinePerPrompt() {
+        ChatBatchService batch = batch(4, 10);
+        List<JsonNode> lines = lines(batch.run("ollama", List.of("one", "fail", "three"), prompt -> {
+            if (prompt.equals("fail")) {
+                throw new IllegalStateException("model error");
+            }
+            return prompt.toUpperCase();
+        }).collectList().block());
+
+        assertEquals(3, lines.size());
+        assertEquals("ONE", lines.get(0).get("response").asText());
+        assertEquals("model error", lines.get(1).get("error").asText());
+        assertFalse(lines.get(1).has("retryAfter"));
+        assertEquals("THREE", lines.get(2).get("response").asText());
+    }
+
+    /**
+     * While every slot is taken, a prompt waits for one past max-wait-millis and outside the interactive queue
+     */
+    @Test
+    public void testPromptWaitsForSlot() throws Exception {
+        ChatAdmissionService admission = admission(1, 0, 50);
+        ChatBatchService batch = new ChatBatchService(new ChatBatchConfig(), admission, objectMapper);
+        ChatAdmissionService.Permit held = admission.acquire("ollama");
+        CompletableFuture<List<String>> pending = batch.run("ollama", List.of("q"), prompt -> {
+            try (ChatAdmissionService.Permit permit = admission.acquire("ollama")) {
+                return "a";
+            }
+        }).collectList().toFuture();
+
+        Thread.sleep(200);
+        assertFalse(pending.isDone());
+        assertEquals(0, registry.get("chat.admission.queue.depth").tags("provider", "ollama").gauge().value());
+        held.close();
+
+        List<JsonNode> lines = lines(pending.get(5, TimeUnit.SECONDS));
+        assertEquals("a", lines.get(0).get("response").asText());
+    }
+
+    /**
+     * No more than chat.batch.parallelism prompts run at once, nor more than the provider's max-concurrent
+     */
+    @Test
+    public void testParallelism() {
+        assertEquals(2, peak(batch(2, 100)));
+        ChatBatchConfig config = new ChatBatchConfig();
+        config.setParallelism(8);
+        assertEquals(3, peak(new ChatBatchService(config, admission(3, 0, 30_000), objectMapper)));
+    }
+
+    private int peak(ChatBatchService batch) {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<String> prompts = IntStream.range(0, 12).mapToObj(i -> "q" + i).toList();
+        List<JsonNode> lines = lines(batch.run("ollama", prompts, prompt -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return prompt;
+        }).collectList().block());
+
+        assertEquals(12, lines.size());
+        for (int i = 0; i < prompts.size(); i++) {
+            assertEquals(prompts.get(i), lines.get(i).get("response").asText());
+        }
+        return peak.get();
+    }
+
+    private ChatBatchService batch(int parallelism, int maxPrompts) {
+        ChatBatchConfig config = new ChatBatchConfig();
+        config.setParallelism(parallelism);
+        config.setMaxPrompts(maxPrompts);
+        return new ChatBatchService(config, admission(100, 0, 30_000), objectMapper);
+    }
+
+    private ChatAdmissionService admission(int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        ChatAdmissionConfig config = new ChatAdmissionConfig();
+        ChatAdmissionConfig.Limit limit = new ChatAdmissionConfig.Limit();
+        limit.setMaxConcurrent(maxConcurrent);
+        limit.setMaxQueue(maxQueue);
+        limit.setMaxWaitMillis(maxWaitMillis);
+        config.getProviders().put("ollama", limit);
+        return new ChatAdmissionService(config, registry);
+    }
+
+    /**
+     * Parse NDJSON lines and order them by input index, since they arrive in completion order
+     */
+    private List<JsonNode> lines(List<String> ndjson) {
+        return ndjson.stream()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(line, e);
+                    }
+                })
+                .sorted(Comparator.comparingInt(node -> node.get("index").asInt()))
+                .toList();
+    }
+}
@@ -0,0 +1,126 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import project.ollama.chat.service.OllamaChatbotService;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the streaming chat endpoints
+ * The model side is a stubbed OllamaChatbotService that the test drives chunk by chunk and prompt by prompt
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "chat.warmup.enabled=false",
+        // the OCI client reads ~/.oci/config at startup
+        "spring.autoconfigure.exclude="
+                + "org.springframework.ai.model.oci.genai.autoconfigure.OCIGenAiChatAutoConfiguration,"
+                + "org.springframework.ai.model.oci.genai.autoconfigure.OCIGenAiEmbeddingAutoConfiguration"})
+public class ChatControllerStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private OllamaChatbotService chatbotService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * The first chunk of a text/plain stream reaches the client while the model is still generating
+     */
+    @Test
+    public void testFirstChunkArrivesBeforeUpstreamCompletes() throws Exception {
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        when(chatbotService.stream(eq("question"), any(), isNull())).thenReturn(upstream.asFlux());
+
+        CompletableFuture<HttpResponse<InputStream>> pending = client.sendAsync(
+                HttpRequest.newBuilder(uri("/chat/ollama/stream"))
+                        .header("Content-Type", "text/plain")
+                        .header("Accept", "text/plain")
+                        .POST(HttpRequest.BodyPublishers.ofString("question"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        upstream.tryEmitNext("Hello");
+
+        HttpResponse<InputStream> response = pending.get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.statusCode());
+        try (InputStream body = response.body()) {
+            byte[] first = new byte[64];
+            int read = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return body.read(first);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).get(10, TimeUnit.SECONDS);
+            assertEquals("Hello", new String(first, 0, read, StandardCharsets.UTF_8));
+
+            upstream.tryEmitNext(" world");
+            upstream.tryEmitComplete();
+            assertEquals(" world", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A batch sends the line of a fast prompt while a slow prompt of the same batch is still running
+     */
+    @Test
+    public void testBatchLineArrivesBeforeSlowPromptFinishes() throws Exception {
+        CountDownLatch slowPrompt = new CountDownLatch(1);
+        when(chatbotService.chat(eq("fast"), any())).thenReturn("quick answer");
+        when(chatbotService.chat(eq("slow"), any())).thenAnswer(invocation -> {
+            assertTrue(slowPrompt.await(30, TimeUnit.SECONDS));
+            return "slow answer";
+        });
+
+        CompletableFuture<HttpResponse<InputStream>> pending = client.sendAsync(
+                HttpRequest.newBuilder(uri("/chat/ollama/batch"))
+                        .header("Content-Type", "text/plain")
+                        .POST(HttpRequest.BodyPublishers.ofString("slow\nfast\n"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try {
+            HttpResponse<InputStream> response = pending.get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode());
+            BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+            String first = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return lines.readLine();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).get(10, TimeUnit.SECONDS);
+            assertEquals("{\"index\":1,\"response\":\"quick answer\"}", first);
+
+            slowPrompt.countDown();
+            assertEquals("{\"index\":0,\"response\":\"slow answer\"}", lines.readLine());
+            assertNull(lines.readLine());
+        } finally {
+            slowPrompt.countDown();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+}
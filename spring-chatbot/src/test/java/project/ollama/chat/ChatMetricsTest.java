@@ -0,0 +1,88 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import project.ollama.chat.service.ChatMetrics;
+import reactor.core.publisher.Flux;
+
+/**
+ * Test class for ChatMetrics
+ * Model calls are tagged with the model of the backend that served them
+ */
+public class ChatMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatMetrics metrics = new ChatMetrics(registry);
+
+    /**
+     * A blocking call is tagged with the model named in the response, and its tokens are recorded
+     */
+    @Test
+    public void testCallTaggedWithServedModel() {
+        String text = metrics.call("ollama", "llama3.2", () -> response("hello", "qwen2.5:7b", 12, 4));
+
+        assertEquals("hello", text);
+        assertEquals(1, registry.get("chat.model.latency").tags("model", "qwen2.5:7b", "outcome", "success")
+                .timer().count());
+        assertEquals(4, registry.get("chat.model.tokens").tags("model", "qwen2.5:7b", "type", "completion")
+                .summary().totalAmount());
+        assertTrue(registry.find("chat.model.latency").tags("model", "llama3.2").timers().isEmpty());
+    }
+
+    /**
+     * Without a model in the response, and for failed calls, the configured model is used
+     */
+    @Test
+    public void testConfiguredModelAsFallback() {
+        metrics.call("ollama", "llama3.2", () -> response("hello", null, 0, 0));
+        assertThrows(IllegalStateException.class, () -> metrics.call("ollama", "llama3.2", () -> {
+            throw new IllegalStateException("host down");
+        }));
+
+        assertEquals(1, registry.get("chat.model.latency").tags("model", "llama3.2", "outcome", "success")
+                .timer().count());
+        assertEquals(1, registry.get("chat.model.errors").tags("model", "llama3.2", "error", "IllegalStateException")
+                .counter().count());
+    }
+
+    /**
+     * A stream is tagged with the model of its chunks, for first token, latency and tokens
+     */
+    @Test
+    public void testStreamTaggedWithServedModel() {
+        List<String> chunks = metrics.stream("ollama", "llama3.2", () -> Flux.just(
+                        response("a", "qwen2.5:7b", 0, 0),
+                        response("b", "qwen2.5:7b", 0, 0),
+                        response("", "qwen2.5:7b", 8, 2)))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("a", "b"), chunks);
+        assertEquals(1, registry.get("chat.model.first.token").tags("model", "qwen2.5:7b").timer().count());
+        assertEquals(1, registry.get("chat.model.latency").tags("model", "qwen2.5:7b", "mode", "stream")
+                .timer().count());
+        assertEquals(2, registry.get("chat.model.tokens").tags("model", "qwen2.5:7b", "type", "completion")
+                .summary().totalAmount());
+    }
+
+    private static ChatResponse response(String text, String model, int promptTokens, int completionTokens) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder()
+                .usage(new DefaultUsage(promptTokens, completionTokens));
+        if (model != null) {
+            metadata.model(model);
+        }
+        return ChatResponse.builder()
+                .generations(List.of(new Generation(new AssistantMessage(text))))
+                .metadata(metadata.build())
+                .build();
+    }
+}
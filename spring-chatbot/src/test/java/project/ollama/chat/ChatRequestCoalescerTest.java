@@ -0,0 +1,121 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import project.ollama.chat.service.ChatRequestCoalescer;
+import project.ollama.chat.service.ChatResponseCache;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for ChatRequestCoalescer
+ * Covers shared calls, late-join replay and cancellation once the last caller leaves
+ */
+public class ChatRequestCoalescerTest {
+
+    private static final ChatResponseCache.Key KEY = ChatResponseCache.Key.of("ollama", "llama3.2", "system", "q");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatRequestCoalescer coalescer = new ChatRequestCoalescer(registry);
+
+    /**
+     * Identical blocking calls in flight at the same time share one upstream call
+     */
+    @Test
+    public void testConcurrentCallsShareUpstream() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> coalescer.call(KEY, () -> {
+            upstreamCalls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "answer";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> coalescer.call(KEY, () -> {
+            upstreamCalls.incrementAndGet();
+            return "second answer";
+        }));
+        awaitCondition(() -> registry.counter("chat.requests.coalesced", "provider", "ollama").count() == 1);
+        release.countDown();
+
+        assertEquals("answer", first.get(5, TimeUnit.SECONDS));
+        assertEquals("answer", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, coalescer.inFlight());
+
+        assertEquals("next", coalescer.call(KEY, () -> "next"));
+    }
+
+    /**
+     * A caller joining a running stream receives the chunks generated so far, then the live ones
+     */
+    @Test
+    public void testLateJoinerReplaysChunks() {
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> early = new CopyOnWriteArrayList<>();
+        List<String> late = new CopyOnWriteArrayList<>();
+
+        coalescer.stream(KEY, upstream::asFlux).subscribe(early::add);
+        upstream.tryEmitNext("a");
+        upstream.tryEmitNext("b");
+        coalescer.stream(KEY, () -> Flux.just("not called")).subscribe(late::add);
+        upstream.tryEmitNext("c");
+        upstream.tryEmitComplete();
+
+        assertEquals(List.of("a", "b", "c"), early);
+        assertEquals(List.of("a", "b", "c"), late);
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    /**
+     * The upstream stream is cancelled only when every caller has cancelled
+     */
+    @Test
+    public void testCancelledWhenLastCallerLeaves() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+
+        Disposable first = coalescer.stream(KEY, () -> upstream.asFlux().doOnCancel(() -> cancelled.set(true)))
+                .subscribe();
+        Disposable second = coalescer.stream(KEY, Flux::empty).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, coalescer.inFlight());
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import project.ollama.chat.config.ChatCacheConfig;
+import project.ollama.chat.service.ChatResponseCache;
+import project.ollama.chat.service.ChatResponseCache.Key;
+import project.ollama.chat.service.ChatResponseCache.Mode;
+import reactor.core.publisher.Flux;
+
+/**
+ * Test class for ChatResponseCache
+ * Covers hits, LRU eviction, byte accounting, expiry and the temperature limit
+ */
+public class ChatResponseCacheTest {
+
+    private static final Double TEMPERATURE = 0.1;
+
+    private final ChatCacheConfig config = new ChatCacheConfig();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    /**
+     * A repeated question, also with different whitespace, is served from the cache
+     */
+    @Test
+    public void testHitAfterMiss() {
+        ChatResponseCache cache = cache();
+
+        assertEquals("answer 1", cache.call(key("What is Jersey?"), Mode.USE, TEMPERATURE, upstream()));
+        assertEquals("answer 1", cache.call(key("  What   is Jersey? "), Mode.USE, TEMPERATURE, upstream()));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * no-cache refreshes the entry, no-store neither reads nor writes it
+     */
+    @Test
+    public void testCacheModes() {
+        ChatResponseCache cache = cache();
+        cache.call(key("q"), Mode.USE, TEMPERATURE, upstream());
+
+        assertEquals("answer 2", cache.call(key("q"), Mode.REFRESH, TEMPERATURE, upstream()));
+        assertEquals("answer 2", cache.call(key("q"), Mode.USE, TEMPERATURE, upstream()));
+        assertEquals("answer 3", cache.call(key("q"), Mode.BYPASS, TEMPERATURE, upstream()));
+        assertEquals("answer 2", cache.call(key("q"), Mode.USE, TEMPERATURE, upstream()));
+    }
+
+    /**
+     * At the entry limit the least recently used entry is evicted
+     */
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        config.setMaxEntries(2);
+        ChatResponseCache cache = cache();
+        cache.call(key("a"), Mode.USE, TEMPERATURE, upstream());
+        cache.call(key("b"), Mode.USE, TEMPERATURE, upstream());
+        cache.call(key("a"), Mode.USE, TEMPERATURE, upstream());
+        cache.call(key("c"), Mode.USE, TEMPERATURE, upstream());
+
+        assertEquals(2, cache.size());
+        assertEquals("answer 1", cache.call(key("a"), Mode.USE, TEMPERATURE, upstream()));
+        assertEquals("answer 4", cache.call(key("b"), Mode.USE, TEMPERATURE, upstream()));
+    }
+
+    /**
+     * Entries are accounted by estimated size; the byte limit evicts, and oversized responses are not stored
+     */
+    @Test
+    public void testByteAccounting() {
+        ChatResponseCache unlimited = cache();
+        unlimited.call(key("a"), Mode.USE, TEMPERATURE, () -> "x".repeat(100));
+        long entryBytes = unlimited.bytes();
+        assertTrue(entryBytes > 200, "entry of " + entryBytes + " bytes");
+
+        config.setMaxBytes(2 * entryBytes + entryBytes / 2);
+        ChatResponseCache cache = cache();
+        cache.call(key("a"), Mode.USE, TEMPERATURE, () -> "x".repeat(100));
+        cache.call(key("b"), Mode.USE, TEMPERATURE, () -> "y".repeat(100));
+        assertEquals(2 * entryBytes, cache.bytes());
+        cache.call(key("c"), Mode.USE, TEMPERATURE, () -> "z".repeat(100));
+        assertEquals(2, cache.size());
+        assertEquals(2 * entryBytes, cache.bytes());
+
+        cache.call(key("d"), Mode.USE, TEMPERATURE, () -> "w".repeat((int) entryBytes * 2));
+        assertEquals(2, cache.size());
+        assertEquals(2 * entryBytes, cache.bytes());
+    }
+
+    /**
+     * An expired entry is a miss and is replaced
+     */
+    @Test
+    public void testExpiry() {
+        config.setTtlSeconds(0);
+        ChatResponseCache cache = cache();
+        cache.call(key("q"), Mode.USE, TEMPERATURE, upstream());
+
+        assertEquals("answer 2", cache.call(key("q"), Mode.USE, TEMPERATURE, upstream()));
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Responses sampled above the temperature limit, or at an unknown temperature, are never cached
+     */
+    @Test
+    public void testTemperatureSkip() {
+        ChatResponseCache cache = cache();
+        cache.call(key("q"), Mode.USE, 0.7, upstream());
+        cache.call(key("q"), Mode.USE, 0.7, upstream());
+        cache.call(key("q"), Mode.USE, null, upstream());
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * A completed stream is stored and later served as one chunk; a failed stream is not stored
+     */
+    @Test
+    public void testStream() {
+        ChatResponseCache cache = cache();
+        assertThrows(IllegalStateException.class, () -> cache.stream(key("q"), Mode.USE, TEMPERATURE,
+                () -> Flux.concat(Flux.just("par"), Flux.error(new IllegalStateException("cut off")))).blockLast());
+        assertEquals(0, cache.size());
+
+        assertEquals(List.of("Hel", "lo"), cache.stream(key("q"), Mode.USE, TEMPERATURE,
+                () -> Flux.just("Hel", "lo")).collectList().block());
+        assertEquals(List.of("Hello"), cache.stream(key("q"), Mode.USE, TEMPERATURE,
+                () -> Flux.just("other")).collectList().block());
+    }
+
+    private ChatResponseCache cache() {
+        return new ChatResponseCache(config, new SimpleMeterRegistry());
+    }
+
+    private Supplier<String> upstream() {
+        return () -> "answer " + upstreamCalls.incrementAndGet();
+    }
+
+    private static Key key(String message) {
+        return Key.of("ollama", "llama3.2", "system", message);
+    }
+}
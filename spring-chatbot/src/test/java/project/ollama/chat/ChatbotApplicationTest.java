@@ -0,0 +1,85 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import project.ollama.chat.service.ChatBackendRouter;
+
+/**
+ * Test class for ChatbotApplication
+ * Boots the whole application with the default configuration: no routed Ollama hosts, warm-up disabled
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.ai.ollama.base-url=http://127.0.0.1:9",
+        "chat.warmup.enabled=false",
+        // the OCI client reads ~/.oci/config at startup
+        "spring.autoconfigure.exclude="
+                + "org.springframework.ai.model.oci.genai.autoconfigure.OCIGenAiChatAutoConfiguration,"
+                + "org.springframework.ai.model.oci.genai.autoconfigure.OCIGenAiEmbeddingAutoConfiguration"})
+public class ChatbotApplicationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChatBackendRouter ollamaBackendRouter;
+
+    @Autowired
+    private OllamaChatModel ollamaChatModel;
+
+    /**
+     * Without chat.routing.ollama hosts the router has the single default backend, on the autoconfigured model
+     */
+    @Test
+    public void testDefaultBackend() {
+        assertEquals(1, ollamaBackendRouter.backendNames().size());
+        assertEquals("default", ollamaBackendRouter.backendNames().get(0));
+        assertEquals(ollamaChatModel.getDefaultOptions().getModel(), ollamaBackendRouter.model());
+    }
+
+    /**
+     * The warm health group answers with the warm-up disabled, the root health leaves the model out, and the chat
+     * resources are registered
+     */
+    @Test
+    public void testEndpointsServed() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<String> warm = client.send(HttpRequest.newBuilder(uri("/actuator/health/warm")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, warm.statusCode());
+        assertTrue(warm.body().contains("\"UNKNOWN\""), warm.body());
+
+        HttpResponse<String> health = client.send(HttpRequest.newBuilder(uri("/actuator/health")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, health.statusCode());
+        assertFalse(health.body().contains("ollamaModel"), health.body());
+
+        HttpResponse<String> oci = client.send(HttpRequest.newBuilder(uri("/chat/oci"))
+                        .header("Content-Type", "text/plain")
+                        .POST(HttpRequest.BodyPublishers.ofString("hello"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(503, oci.statusCode());
+
+        HttpResponse<String> empty = client.send(HttpRequest.newBuilder(uri("/chat/ollama/batch"))
+                        .header("Content-Type", "text/plain")
+                        .POST(HttpRequest.BodyPublishers.ofString(""))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, empty.statusCode());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+}
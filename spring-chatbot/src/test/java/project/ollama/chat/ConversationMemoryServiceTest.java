@@ -0,0 +1,188 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import project.ollama.chat.config.ChatMemoryConfig;
+import project.ollama.chat.service.ConversationMemoryService;
+
+/**
+ * Test class for ConversationMemoryService
+ * Covers trimming the history to the token budget, compaction into a summary and session bounds.
+ * One character is one token, the budget is 100 tokens and the summary 20.
+ */
+public class ConversationMemoryServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Memory applies only when enabled and the request carries a session id
+     */
+    @Test
+    public void testApplies() {
+        ChatMemoryConfig config = config();
+        ConversationMemoryService memory = new ConversationMemoryService(config, registry);
+        assertTrue(memory.applies("s1"));
+        assertFalse(memory.applies(null));
+        assertFalse(memory.applies(" "));
+
+        config.setEnabled(false);
+        assertFalse(memory.applies("s1"));
+    }
+
+    /**
+     * The history holds the most recent turns that fit the budget alongside the new message, oldest first
+     */
+    @Test
+    public void testHistoryTrimmedToBudget() {
+        ConversationMemoryService memory = new ConversationMemoryService(config(), registry);
+        for (int i = 0; i < 4; i++) {
+            memory.record("ollama", "s1", user(i), answer(i), prompt -> fail("no compaction expected"));
+        }
+
+        List<Message> all = memory.history("ollama", "s1", "x".repeat(5));
+        assertEquals(8, all.size());
+        assertInstanceOf(UserMessage.class, all.get(0));
+        assertEquals(user(0), all.get(0).getText());
+
+        List<Message> trimmed = memory.history("ollama", "s1", "x".repeat(30));
+        assertEquals(7, trimmed.size());
+        assertInstanceOf(AssistantMessage.class, trimmed.get(0));
+        assertEquals(answer(0), trimmed.get(0).getText());
+        assertEquals(answer(3), trimmed.get(6).getText());
+    }
+
+    /**
+     * Turns pushed out of the budget are folded into a summary, which leads the history and is cut to
+     * summary-tokens
+     */
+    @Test
+    public void testCompaction() throws Exception {
+        ConversationMemoryService memory = new ConversationMemoryService(config(), registry);
+        memory.start();
+        try {
+            AtomicReference<String> summaryPrompt = new AtomicReference<>();
+            for (int i = 0; i < 5; i++) {
+                memory.record("ollama", "s1", user(i), answer(i), prompt -> {
+                    summaryPrompt.set(prompt);
+                    return "  first exchange was about nothing in particular  ";
+                });
+            }
+            awaitCondition(() -> registry.find("chat.memory.compactions").counter() != null
+                    && registry.find("chat.memory.compactions").counter().count() == 1);
+
+            assertTrue(summaryPrompt.get().contains("User: " + user(0)));
+            assertTrue(summaryPrompt.get().contains("Assistant: " + answer(0)));
+            assertFalse(summaryPrompt.get().contains(user(1)));
+
+            List<Message> history = memory.history("ollama", "s1", "x");
+            assertEquals(8, history.size());
+            assertInstanceOf(SystemMessage.class, history.get(0));
+            assertEquals("Summary of the earlier conversation: first exchange was a", history.get(0).getText());
+            assertEquals(answer(1), history.get(1).getText());
+        } finally {
+            memory.stop();
+        }
+    }
+
+    /**
+     * Folded turns stay in the history while their summary is pending, and after it fails
+     */
+    @Test
+    public void testTurnsKeptUntilSummarized() throws Exception {
+        ConversationMemoryService memory = new ConversationMemoryService(config(), registry);
+        memory.start();
+        try {
+            CountDownLatch summarizing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < 5; i++) {
+                memory.record("ollama", "s1", user(i), answer(i), prompt -> {
+                    summarizing.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("model unavailable");
+                });
+            }
+            assertTrue(summarizing.await(5, TimeUnit.SECONDS));
+            assertEquals(answer(0), memory.history("ollama", "s1", "x").get(0).getText());
+
+            release.countDown();
+            // the next exchange once the failed attempt has finished summarizes again from the oldest turn
+            AtomicReference<String> summaryPrompt = new AtomicReference<>();
+            awaitCondition(() -> {
+                memory.record("ollama", "s1", "more", "more", prompt -> {
+                    summaryPrompt.set(prompt);
+                    return "later summary";
+                });
+                return registry.find("chat.memory.compactions").counter() != null;
+            });
+            assertTrue(summaryPrompt.get().contains("User: " + user(0)));
+            assertEquals("Summary of the earlier conversation: later summary",
+                    memory.history("ollama", "s1", "x").get(0).getText());
+        } finally {
+            memory.stop();
+        }
+    }
+
+    /**
+     * Sessions are bounded with the least recently used dropped first, and can be cleared or evicted when idle
+     */
+    @Test
+    public void testSessionBounds() throws Exception {
+        ChatMemoryConfig config = config();
+        config.setMaxSessions(2);
+        config.setIdleMinutes(0);
+        ConversationMemoryService memory = new ConversationMemoryService(config, registry);
+        memory.history("ollama", "s1", "x");
+        memory.history("ollama", "s2", "x");
+        memory.history("ollama", "s1", "x");
+        memory.history("ollama", "s3", "x");
+
+        assertEquals(2, memory.sessionCount());
+        assertFalse(memory.clear("ollama", "s2"));
+        assertTrue(memory.clear("ollama", "s1"));
+        assertFalse(memory.clear("oci", "s3"));
+
+        Thread.sleep(5);
+        memory.evictIdle();
+        assertEquals(0, memory.sessionCount());
+    }
+
+    private static ChatMemoryConfig config() {
+        ChatMemoryConfig config = new ChatMemoryConfig();
+        config.setCharsPerToken(1);
+        config.setTokenBudget(100);
+        config.setSummaryTokens(20);
+        return config;
+    }
+
+    private static String user(int i) {
+        return String.format("user %05d", i);
+    }
+
+    private static String answer(int i) {
+        return String.format("asst %05d", i);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
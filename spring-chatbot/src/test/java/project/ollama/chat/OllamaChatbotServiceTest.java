@@ -0,0 +1,121 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import project.ollama.chat.config.ChatAdmissionConfig;
+import project.ollama.chat.config.ChatCacheConfig;
+import project.ollama.chat.config.ChatMemoryConfig;
+import project.ollama.chat.config.ChatRoutingConfig;
+import project.ollama.chat.service.ChatAdmissionService;
+import project.ollama.chat.service.ChatBackendRouter;
+import project.ollama.chat.service.ChatMetrics;
+import project.ollama.chat.service.ChatOverloadedException;
+import project.ollama.chat.service.ChatRequestCoalescer;
+import project.ollama.chat.service.ChatResponseCache;
+import project.ollama.chat.service.ConversationMemoryService;
+import project.ollama.chat.service.OllamaChatbotService;
+import project.ollama.chat.service.OllamaWarmupService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for OllamaChatbotService
+ * Covers where admission control applies and its interplay with request coalescing, with a stub ChatClient
+ * and one slot without a queue
+ */
+public class OllamaChatbotServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatClient client = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final ChatAdmissionService admission = admission(1, 0);
+    private final ChatBackendRouter router = new ChatBackendRouter("ollama",
+            List.of(new ChatBackendRouter.Backend("default", "llama3.2", client)), new ChatRoutingConfig(), 1,
+            registry);
+    private final OllamaChatbotService service = new OllamaChatbotService(router, admission,
+            new ChatResponseCache(new ChatCacheConfig(), registry), new ChatRequestCoalescer(registry),
+            new ConversationMemoryService(new ChatMemoryConfig(), registry), new ChatMetrics(registry),
+            mock(OllamaWarmupService.class), "llama3.2", 0.1);
+
+    @AfterEach
+    public void tearDown() {
+        router.close();
+    }
+
+    /**
+     * A cached answer is served while every slot is held; a request that needs the model is rejected
+     */
+    @Test
+    public void testCacheHitWithoutSlot() {
+        when(client.prompt().system(anyString()).messages(anyList()).user(anyString()).call().chatResponse())
+                .thenAnswer(invocation -> {
+                    upstreamCalls.incrementAndGet();
+                    return new ChatResponse(List.of(new Generation(new AssistantMessage("answer"))));
+                });
+        assertEquals("answer", service.chat("question"));
+
+        try (ChatAdmissionService.Permit permit = admission.acquire("ollama")) {
+            assertEquals("answer", service.chat("question"));
+            assertEquals(List.of("answer"), service.stream("question").collectList().block());
+            assertThrows(ChatOverloadedException.class, () -> service.chat("another question"));
+            assertThrows(ChatOverloadedException.class, () -> service.stream("another question"));
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    /**
+     * More identical requests than there are slots share a single upstream call
+     */
+    @Test
+    public void testCoalescedBeyondMaxConcurrent() {
+        Sinks.Many<ChatResponse> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        when(client.prompt().system(anyString()).messages(anyList()).user(anyString()).stream().chatResponse())
+                .thenAnswer(invocation -> {
+                    upstreamCalls.incrementAndGet();
+                    return upstream.asFlux();
+                });
+
+        List<Flux<String>> streams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            streams.add(service.stream("question"));
+        }
+        List<List<String>> received = new ArrayList<>();
+        streams.forEach(stream -> {
+            List<String> chunks = new ArrayList<>();
+            received.add(chunks);
+            stream.subscribe(chunks::add);
+        });
+        upstream.tryEmitNext(new ChatResponse(List.of(new Generation(new AssistantMessage("shared")))));
+        upstream.tryEmitComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        received.forEach(chunks -> assertEquals(List.of("shared"), chunks));
+        assertEquals(2, registry.get("chat.requests.coalesced").tags("provider", "ollama").counter().count());
+    }
+
+    private ChatAdmissionService admission(int maxConcurrent, int maxQueue) {
+        ChatAdmissionConfig config = new ChatAdmissionConfig();
+        ChatAdmissionConfig.Limit limit = new ChatAdmissionConfig.Limit();
+        limit.setMaxConcurrent(maxConcurrent);
+        limit.setMaxQueue(maxQueue);
+        limit.setMaxWaitMillis(30_000);
+        config.getProviders().put("ollama", limit);
+        return new ChatAdmissionService(config, registry);
+    }
+}
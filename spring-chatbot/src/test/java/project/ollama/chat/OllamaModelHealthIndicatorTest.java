@@ -0,0 +1,52 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import project.ollama.chat.service.OllamaModelHealthIndicator;
+import project.ollama.chat.service.OllamaWarmupService;
+import project.ollama.chat.service.OllamaWarmupService.State;
+
+/**
+ * Test class for OllamaModelHealthIndicator
+ * Maps the per-host model states of a stub warm-up service to a health status
+ */
+public class OllamaModelHealthIndicatorTest {
+
+    private final OllamaWarmupService warmupService = mock(OllamaWarmupService.class);
+    private final OllamaModelHealthIndicator indicator = new OllamaModelHealthIndicator(warmupService);
+
+    /**
+     * Without an active warm-up the model state is unknown
+     */
+    @Test
+    public void testInactive() {
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+    }
+
+    /**
+     * One loaded or idle host is enough for UP; loading is OUT_OF_SERVICE and failure on every host is DOWN
+     */
+    @Test
+    public void testStatus() {
+        when(warmupService.isActive()).thenReturn(true);
+        assertEquals(Status.UP, status(State.FAILED, State.LOADED));
+        assertEquals(Status.UP, status(State.IDLE, State.LOADING));
+        assertEquals(Status.OUT_OF_SERVICE, status(State.FAILED, State.LOADING));
+        assertEquals(Status.DOWN, status(State.FAILED, State.FAILED));
+    }
+
+    private Status status(State first, State second) {
+        Map<String, State> states = new LinkedHashMap<>();
+        states.put("a", first);
+        states.put("b", second);
+        when(warmupService.states()).thenReturn(states);
+        return indicator.health().getStatus();
+    }
+}
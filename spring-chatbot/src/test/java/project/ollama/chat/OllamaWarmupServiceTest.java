@@ -0,0 +1,166 @@
+package project.ollama.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.model.ollama.autoconfigure.OllamaChatProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+import project.ollama.chat.config.ChatRoutingConfig;
+import project.ollama.chat.config.ChatWarmupConfig;
+import project.ollama.chat.service.OllamaModelHealthIndicator;
+import project.ollama.chat.service.OllamaWarmupService;
+
+/**
+ * Test class for OllamaWarmupService
+ * Runs the warm-up against a stub Ollama host whose model loads when released, and against an unreachable host
+ */
+public class OllamaWarmupServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<JsonNode> loadRequests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean loaded;
+    private HttpServer server;
+    private OllamaWarmupService warmup;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/chat", this::chat);
+        server.createContext("/api/ps", exchange -> respond(exchange, loaded
+                ? "{\"models\":[{\"name\":\"llama3.2:latest\",\"model\":\"llama3.2:latest\",\"expires_at\":\""
+                        + Instant.now().plusSeconds(600) + "\"}]}"
+                : "{\"models\":[]}"));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (warmup != null) {
+            warmup.stop();
+        }
+        release.countDown();
+        server.stop(0);
+    }
+
+    /**
+     * The model is preloaded with an empty chat carrying keep_alive; the host reports loading, then loaded
+     */
+    @Test
+    public void testPreload() throws Exception {
+        warmup = warmup("http://127.0.0.1:" + server.getAddress().getPort());
+        OllamaModelHealthIndicator indicator = new OllamaModelHealthIndicator(warmup);
+        assertTrue(warmup.isActive());
+
+        awaitCondition(() -> loadRequests.size() == 1);
+        assertEquals(Map.of("default", OllamaWarmupService.State.LOADING), warmup.states());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        release.countDown();
+        awaitCondition(() -> warmup.states().get("default") == OllamaWarmupService.State.LOADED);
+        assertEquals(Status.UP, indicator.health().getStatus());
+        JsonNode request = loadRequests.get(0);
+        assertEquals("llama3.2:latest", request.get("model").asText());
+        assertTrue(request.get("messages").isEmpty());
+        assertEquals("10m", request.get("keep_alive").asText());
+        assertEquals(1, registry.get("chat.warmup.loaded").gauge().value());
+    }
+
+    /**
+     * An unreachable host is reported as failed with its error
+     */
+    @Test
+    public void testUnreachableHost() throws Exception {
+        warmup = warmup("http://127.0.0.1:9");
+
+        awaitCondition(() -> warmup.states().get("default") == OllamaWarmupService.State.FAILED);
+        assertNotNull(warmup.details().get("default").get("error"));
+        assertEquals(Status.DOWN, new OllamaModelHealthIndicator(warmup).health().getStatus());
+    }
+
+    /**
+     * Without a configured model, or when disabled, there is nothing to warm up
+     */
+    @Test
+    public void testInactive() {
+        OllamaWarmupService noModel = new OllamaWarmupService(new ChatWarmupConfig(), new ChatRoutingConfig(),
+                properties(), registry, "http://127.0.0.1:9", "");
+        noModel.start();
+        assertFalse(noModel.isActive());
+
+        ChatWarmupConfig config = new ChatWarmupConfig();
+        config.setEnabled(false);
+        OllamaWarmupService disabled = new OllamaWarmupService(config, new ChatRoutingConfig(), properties(),
+                registry, "http://127.0.0.1:9", "llama3.2");
+        disabled.start();
+        assertFalse(disabled.isActive());
+        assertEquals(Status.UNKNOWN, new OllamaModelHealthIndicator(disabled).health().getStatus());
+    }
+
+    private OllamaWarmupService warmup(String baseUrl) {
+        OllamaWarmupService service = new OllamaWarmupService(new ChatWarmupConfig(), new ChatRoutingConfig(),
+                properties(), registry, baseUrl, "llama3.2");
+        service.start();
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<OllamaChatProperties> properties() {
+        return mock(ObjectProvider.class);
+    }
+
+    private void chat(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            loadRequests.add(objectMapper.readTree(body));
+        }
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        loaded = true;
+        respond(exchange, "{\"model\":\"llama3.2:latest\",\"created_at\":\"" + Instant.now()
+                + "\",\"message\":{\"role\":\"assistant\",\"content\":\"\"},\"done\":true,\"done_reason\":\"load\"}");
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        try {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}